@@ -20,6 +20,8 @@ class BuildingHireHandler : IBuildingHireHandler {
     private var professions: List<ProfessionHireInfo> = emptyList()
     private var hireQueues = mutableMapOf<String, Queue<HireRequest>>()
     private var hireProgresses = mutableMapOf<String, HireProgressInfo>()
+    // the progress of the running request alone isn't worth saving the chunk every tick
+    private var queuesChanged = false
 
     fun initialized(): Boolean = professionManager != null && buildingsManager != null && resourceManger != null
 
@@ -46,7 +48,12 @@ class BuildingHireHandler : IBuildingHireHandler {
             }
     }
 
-    fun tick() {
+    /**
+     * @return true if some of the hire requests finished or the queues changed since the last tick
+     */
+    fun tick(): Boolean {
+        var changed = queuesChanged
+        queuesChanged = false
         hireQueues.forEach { (professionId, queue) ->
             if (queue.isNotEmpty()) {
                 val request = queue.peek()
@@ -54,9 +61,11 @@ class BuildingHireHandler : IBuildingHireHandler {
                 if (request.progress >= 100) {
                     queue.poll()
                     professionManager?.increaseAmount(professionId)
+                    changed = true
                 }
             }
         }
+        return changed
     }
 
     override fun hire(professionId: String) {
@@ -68,6 +77,7 @@ class BuildingHireHandler : IBuildingHireHandler {
         resourceManger?.removeItems(cost)
 
         hireQueues.computeIfAbsent(professionId) { LinkedList() }.add(HireRequest())
+        queuesChanged = true
     }
 
     override fun getProfessions(): List<ProfessionHireInfo> = professions
@@ -83,6 +93,12 @@ class BuildingHireHandler : IBuildingHireHandler {
         }
     }
 
+    fun getHireProgresses(): List<HireProgressInfo> = professions.map { getHireProgress(it.professionId) }
+
+    fun updateHireProgresses(progresses: List<HireProgressInfo>) {
+        progresses.forEach { hireProgresses[it.professionId] = it }
+    }
+
     private fun computeHireProgress(professionId: String): HireProgressInfo {
         if (buildingsManager == null || professionManager == null) {
             error("The compute hire progress must be called on the server")
@@ -1,9 +1,12 @@
 package net.remmintan.mods.minefortress.blocks.building;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.fabricmc.fabric.api.util.NbtType;
+import net.minecraft.block.BedBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
+import net.minecraft.block.enums.BedPart;
 import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtHelper;
@@ -13,6 +16,7 @@ import net.minecraft.registry.Registries;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.collection.PackedIntegerArray;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
@@ -21,9 +25,19 @@ import net.minecraft.world.event.GameEvent;
 import org.apache.logging.log4j.LogManager;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 class FortressBuildingBlockData {
 
+    private static final String FORMAT_KEY = "format";
+    /**
+     * Positions are packed relative to the smallest corner, block states are stored as indexes in the palette
+     * and the actual state as a bitset of destroyed blocks.
+     */
+    private static final int COMPACT_FORMAT = 2;
+    private static final int PACKED_AXIS_BITS = 10;
+    private static final int PACKED_AXIS_MASK = (1 << PACKED_AXIS_BITS) - 1;
+
     private static final List<Block> IGNORED_BLOCKS = Arrays.asList(
             Blocks.STRUCTURE_BLOCK,
             Blocks.STRUCTURE_VOID,
@@ -36,6 +50,10 @@ class FortressBuildingBlockData {
     );
     private final List<PositionedState> referenceState = new ArrayList<>();
     private final Map<BlockPos, BuildingBlockState> actualState = new HashMap<>();
+    private final Set<BlockPos> bedPositions = new HashSet<>();
+    private final Set<BlockPos> furnacePositions = new LinkedHashSet<>();
+    private final BitSet destroyedBlocks = new BitSet();
+    private int stateVersion = 0;
     private int blockPointer = 0;
     private List<BlockPos> preservedPositions;
 
@@ -50,6 +68,7 @@ class FortressBuildingBlockData {
             this.referenceState.add(positionedState);
             this.actualState.put(pos, BuildingBlockState.PRESERVED);
         }
+        collectBedsAndFurnaces();
     }
 
     public List<PositionedState> getReferenceState() {
@@ -60,7 +79,41 @@ class FortressBuildingBlockData {
         if (tag.contains("pointer", NbtType.NUMBER))
             blockPointer = tag.getInt("pointer");
 
-        final var skippedPositions = new ArrayList<BlockPos>();
+        if (tag.getInt(FORMAT_KEY) == COMPACT_FORMAT)
+            readCompact(tag);
+        else
+            readLegacy(tag);
+
+        collectBedsAndFurnaces();
+        recalculateDestroyedBlocks();
+        recalculatePreservedPositions();
+    }
+
+    private void readCompact(NbtCompound tag) {
+        final var origin = BlockPos.fromLong(tag.getLong("origin"));
+        final var positions = tag.getIntArray("positions");
+
+        final var paletteTag = tag.getList("palette", NbtType.COMPOUND);
+        final var palette = new BlockState[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = NbtHelper.toBlockState(Registries.BLOCK.getReadOnlyWrapper(), paletteTag.getCompound(i));
+        }
+        final var states = new PackedIntegerArray(getPaletteBits(palette.length), positions.length, tag.getLongArray("states"));
+        final var destroyed = BitSet.valueOf(tag.getLongArray("destroyed"));
+
+        for (int i = 0; i < positions.length; i++) {
+            final var blockState = palette[states.get(i)];
+            if (shouldSkipState(blockState))
+                continue;
+
+            final var pos = unpackPos(origin, positions[i]);
+            referenceState.add(new PositionedState(pos, blockState));
+            actualState.put(pos, destroyed.get(i) ? BuildingBlockState.DESTROYED : BuildingBlockState.PRESERVED);
+        }
+    }
+
+    private void readLegacy(NbtCompound tag) {
+        final var skippedPositions = new HashSet<BlockPos>();
         if (tag.contains("referenceState", NbtType.LIST)) {
             final var list = tag.getList("referenceState", NbtType.COMPOUND);
             for (int i = 0; i < list.size(); i++) {
@@ -111,8 +164,16 @@ class FortressBuildingBlockData {
 
             }
         }
+    }
 
-        recalculatePreservedPositions();
+    private void collectBedsAndFurnaces() {
+        for (PositionedState positionedState : referenceState) {
+            final var state = positionedState.blockState;
+            if (state.isIn(BlockTags.BEDS) && state.contains(BedBlock.PART) && state.get(BedBlock.PART) == BedPart.HEAD)
+                bedPositions.add(positionedState.pos);
+            if (state.isOf(Blocks.FURNACE))
+                furnacePositions.add(positionedState.pos.toImmutable());
+        }
     }
 
     private static boolean shouldSkipState(BlockState state) {
@@ -158,7 +219,12 @@ class FortressBuildingBlockData {
         return new FortressBuildingBlockData(compound);
     }
 
-    boolean checkTheNextBlocksState(int blocksAmount, ServerWorld world) {
+    boolean checkTheNextBlocksState(
+            int blocksAmount,
+            ServerWorld world,
+            BiConsumer<BlockPos, Boolean> bedStateListener,
+            BiConsumer<BlockPos, Boolean> furnaceStateListener
+    ) {
         if (referenceState.isEmpty()) return false;
         if (world.getRegistryKey() != World.OVERWORLD)
             throw new IllegalArgumentException("The world must be the overworld");
@@ -176,17 +242,57 @@ class FortressBuildingBlockData {
             final var newState = areBlocksSimilar(referenceBlock, actualBlock) ? BuildingBlockState.PRESERVED : BuildingBlockState.DESTROYED;
 
             actualState.put(pos, newState);
+            destroyedBlocks.set(blockPointer, newState == BuildingBlockState.DESTROYED);
 
             blockPointer++;
+            if (previousState != newState && bedPositions.contains(pos))
+                bedStateListener.accept(pos, newState == BuildingBlockState.PRESERVED);
+            if (previousState != newState && furnacePositions.contains(pos))
+                furnaceStateListener.accept(pos, newState == BuildingBlockState.PRESERVED);
             stateUpdated = stateUpdated || previousState != newState;
         }
 
-        if (stateUpdated)
+        if (stateUpdated) {
+            stateVersion++;
             recalculatePreservedPositions();
+        }
 
         return stateUpdated;
     }
 
+    private void recalculateDestroyedBlocks() {
+        destroyedBlocks.clear();
+        for (int i = 0; i < referenceState.size(); i++) {
+            if (actualState.get(referenceState.get(i).pos) == BuildingBlockState.DESTROYED)
+                destroyedBlocks.set(i);
+        }
+    }
+
+    /**
+     * Increases every time the actual state of some block changes. Used to find out if the state should be synced.
+     */
+    int getStateVersion() {
+        return stateVersion;
+    }
+
+    /**
+     * @return destroyed blocks as indexes in the reference state
+     */
+    BitSet getDestroyedBlocks() {
+        return (BitSet) destroyedBlocks.clone();
+    }
+
+    void applyDestroyedBlocks(BitSet destroyed) {
+        for (int i = 0; i < referenceState.size(); i++) {
+            final var state = destroyed.get(i) ? BuildingBlockState.DESTROYED : BuildingBlockState.PRESERVED;
+            actualState.put(referenceState.get(i).pos, state);
+        }
+        destroyedBlocks.clear();
+        destroyedBlocks.or(destroyed);
+        stateVersion++;
+        recalculatePreservedPositions();
+    }
+
     private void recalculatePreservedPositions() {
         preservedPositions = actualState.entrySet()
                 .stream()
@@ -203,6 +309,45 @@ class FortressBuildingBlockData {
     }
 
     NbtCompound toNbt() {
+        final var origin = getOrigin();
+        final var tag = canBePacked(origin) ? writeCompact(origin) : writeLegacy();
+        tag.putInt("pointer", blockPointer);
+
+        return tag;
+    }
+
+    private NbtCompound writeCompact(BlockPos origin) {
+        final var size = referenceState.size();
+        final var positions = new int[size];
+        final var paletteIndexes = new int[size];
+        final var paletteTag = new NbtList();
+        final var palette = new Object2IntOpenHashMap<BlockState>();
+        palette.defaultReturnValue(-1);
+        for (int i = 0; i < size; i++) {
+            final var positionedState = referenceState.get(i);
+            positions[i] = packPos(origin, positionedState.pos);
+
+            var paletteIndex = palette.getInt(positionedState.blockState);
+            if (paletteIndex == -1) {
+                paletteIndex = paletteTag.size();
+                palette.put(positionedState.blockState, paletteIndex);
+                paletteTag.add(NbtHelper.fromBlockState(positionedState.blockState));
+            }
+            paletteIndexes[i] = paletteIndex;
+        }
+        final var states = new PackedIntegerArray(getPaletteBits(paletteTag.size()), size, paletteIndexes);
+
+        final var tag = new NbtCompound();
+        tag.putInt(FORMAT_KEY, COMPACT_FORMAT);
+        tag.putLong("origin", origin.asLong());
+        tag.putIntArray("positions", positions);
+        tag.put("palette", paletteTag);
+        tag.putLongArray("states", states.getData());
+        tag.putLongArray("destroyed", destroyedBlocks.toLongArray());
+        return tag;
+    }
+
+    private NbtCompound writeLegacy() {
         final var tag = new NbtCompound();
         final var preservedStateList = new NbtList();
         for (PositionedState positionedState : referenceState) {
@@ -223,11 +368,50 @@ class FortressBuildingBlockData {
         }
 
         tag.put("actualState", actualStateList);
-        tag.putInt("pointer", blockPointer);
-
         return tag;
     }
 
+    private BlockPos getOrigin() {
+        if (referenceState.isEmpty()) return BlockPos.ORIGIN;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        for (PositionedState positionedState : referenceState) {
+            final var pos = positionedState.pos;
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+        }
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    private boolean canBePacked(BlockPos origin) {
+        for (PositionedState positionedState : referenceState) {
+            final var pos = positionedState.pos;
+            if (pos.getX() - origin.getX() > PACKED_AXIS_MASK
+                    || pos.getY() - origin.getY() > PACKED_AXIS_MASK
+                    || pos.getZ() - origin.getZ() > PACKED_AXIS_MASK)
+                return false;
+        }
+        return true;
+    }
+
+    private static int packPos(BlockPos origin, BlockPos pos) {
+        final var x = pos.getX() - origin.getX();
+        final var y = pos.getY() - origin.getY();
+        final var z = pos.getZ() - origin.getZ();
+        return x << (2 * PACKED_AXIS_BITS) | y << PACKED_AXIS_BITS | z;
+    }
+
+    private static BlockPos unpackPos(BlockPos origin, int packed) {
+        final var x = packed >>> (2 * PACKED_AXIS_BITS) & PACKED_AXIS_MASK;
+        final var y = packed >>> PACKED_AXIS_BITS & PACKED_AXIS_MASK;
+        final var z = packed & PACKED_AXIS_MASK;
+        return origin.add(x, y, z);
+    }
+
+    private static int getPaletteBits(int paletteSize) {
+        return Math.max(1, MathHelper.ceilLog2(paletteSize));
+    }
+
     boolean attack(HostileEntity attacker) {
         final var world = attacker.getWorld();
         final var random = world.random;
@@ -282,6 +466,18 @@ class FortressBuildingBlockData {
         return preservedPositions;
     }
 
+    Set<BlockPos> getBedPositions() {
+        return Collections.unmodifiableSet(bedPositions);
+    }
+
+    Set<BlockPos> getFurnacePositions() {
+        return Collections.unmodifiableSet(furnacePositions);
+    }
+
+    boolean isPreserved(BlockPos pos) {
+        return actualState.get(pos) == BuildingBlockState.PRESERVED;
+    }
+
     List<BlockPos> getActualState() {
         return new ArrayList<>(actualState.keySet());
     }
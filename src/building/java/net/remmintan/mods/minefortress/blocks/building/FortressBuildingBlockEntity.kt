@@ -1,6 +1,6 @@
 package net.remmintan.mods.minefortress.blocks.building
 
-import net.minecraft.block.BedBlock
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup
 import net.minecraft.block.Block
 import net.minecraft.block.BlockState
 import net.minecraft.block.Blocks
@@ -12,7 +12,6 @@ import net.minecraft.nbt.NbtCompound
 import net.minecraft.network.listener.ClientPlayPacketListener
 import net.minecraft.network.packet.Packet
 import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket
-import net.minecraft.registry.tag.BlockTags
 import net.minecraft.screen.NamedScreenHandlerFactory
 import net.minecraft.screen.PropertyDelegate
 import net.minecraft.screen.ScreenHandler
@@ -24,6 +23,7 @@ import net.minecraft.world.World
 import net.remmintan.mods.minefortress.blocks.FortressBlocks
 import net.remmintan.mods.minefortress.core.dtos.ItemInfo
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata
+import net.remmintan.mods.minefortress.core.dtos.professions.HireProgressInfo
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationArea
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType
 import net.remmintan.mods.minefortress.core.interfaces.buildings.IFortressBuilding
@@ -32,15 +32,17 @@ import net.remmintan.mods.minefortress.core.interfaces.professions.IServerProfes
 import net.remmintan.mods.minefortress.core.interfaces.resources.IServerResourceManager
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils
 import net.remmintan.mods.minefortress.gui.building.BuildingScreenHandler
+import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper
+import net.remmintan.mods.minefortress.networking.s2c.S2CSyncBuildingState
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.util.*
 import kotlin.math.abs
 import kotlin.math.max
 import kotlin.math.min
-import kotlin.streams.asSequence
 
 private const val MAX_BLOCKS_PER_UPDATE = 10
+private const val STATE_SYNC_INTERVAL = 10L
 private val LOGGER: Logger = LoggerFactory.getLogger(FortressBuildingBlockEntity::class.java)
 
 class FortressBuildingBlockEntity(pos: BlockPos?, state: BlockState?) :
@@ -53,8 +55,9 @@ class FortressBuildingBlockEntity(pos: BlockPos?, state: BlockState?) :
     private var start: BlockPos? = null
     private var end: BlockPos? = null
     private var blockData: FortressBuildingBlockData? = null
-    private var furnaceBlockPositions: List<BlockPos>? = null
     private var hireHandler: BuildingHireHandler = BuildingHireHandler()
+    private var syncedStateVersion = 0
+    private var syncedHireProgresses: List<HireProgressInfo> = emptyList()
     private val attackers: MutableSet<HostileEntity> = HashSet()
     var selectedTabIndex = 0
 
@@ -88,32 +91,68 @@ class FortressBuildingBlockEntity(pos: BlockPos?, state: BlockState?) :
 
         this.blockData = FortressBuildingBlockData(movedBlocksData, metadata.floorLevel)
 
-        this.findFurnaces()
-
         this.hireHandler = BuildingHireHandler()
+        this.markDirty()
+        this.sendBlockEntityData()
     }
 
     fun tick(world: World?) {
-        world ?: return
-        blockData?.checkTheNextBlocksState(MAX_BLOCKS_PER_UPDATE, world as? ServerWorld)
+        val serverWorld = world as? ServerWorld ?: return
+        var changed = blockData?.checkTheNextBlocksState(
+            MAX_BLOCKS_PER_UPDATE,
+            serverWorld,
+            { bed, preserved -> withBuildingsManager(serverWorld) { it.updateBedState(bed, preserved) } },
+            { furnace, preserved -> withBuildingsManager(serverWorld) { it.updateFurnaceState(furnace, preserved) } }
+        ) ?: false
 
         hireHandler.let {
             if (!it.initialized()) {
                 val professionType = metadata.requirement.type ?: return@let
-                getManagers(world).ifPresent { (prof, build, res) -> it.init(professionType, prof, build, res) }
+                getManagers(serverWorld).ifPresent { (prof, build, res) -> it.init(professionType, prof, build, res) }
+                // the list of professions is sent with the block entity data, so it must be resent after init
+                if (it.initialized()) sendBlockEntityData()
             }
 
             if (it.initialized())
-                it.tick()
+                changed = it.tick() || changed
         }
 
-        this.markDirty()
-        if (this.world?.isClient == false) {
-            val state = this.cachedState
-            this.world?.updateListeners(this.pos, state, state, Block.NOTIFY_ALL)
+        if (changed) this.markDirty()
+        if (Math.floorMod(serverWorld.time + pos.hashCode(), STATE_SYNC_INTERVAL) == 0L)
+            syncState(serverWorld)
+    }
+
+    private fun syncState(world: ServerWorld) {
+        val stateVersion = blockData?.stateVersion ?: 0
+        val destroyedBlocks = if (stateVersion != syncedStateVersion) blockData?.destroyedBlocks else null
+        val hireProgresses = hireHandler.getHireProgresses().takeIf { it != syncedHireProgresses }
+        if (destroyedBlocks == null && hireProgresses == null) return
+
+        syncedStateVersion = stateVersion
+        hireProgresses?.let { syncedHireProgresses = it }
+
+        val packet = S2CSyncBuildingState(pos, destroyedBlocks, hireProgresses)
+        PlayerLookup.tracking(world, pos).forEach {
+            FortressServerNetworkHelper.send(it, S2CSyncBuildingState.CHANNEL, packet)
         }
     }
 
+    private fun sendBlockEntityData() {
+        val world = this.world ?: return
+        if (world.isClient) return
+        world.updateListeners(pos, cachedState, cachedState, Block.NOTIFY_ALL)
+    }
+
+    override fun updateSyncedState(destroyedBlocks: BitSet?, hireProgresses: List<HireProgressInfo>?) {
+        destroyedBlocks?.let { blockData?.applyDestroyedBlocks(it) }
+        hireProgresses?.let { hireHandler.updateHireProgresses(it) }
+    }
+
+    private fun withBuildingsManager(world: ServerWorld, action: (IServerBuildingsManager) -> Unit) {
+        ServerModUtils.getManagersProvider(world.server, fortressPos)
+            .ifPresent { action(it.buildingsManager) }
+    }
+
     private fun getManagers(world: World): Optional<Triple<IServerProfessionsManager, IServerBuildingsManager, IServerResourceManager>> {
         if (world is ServerWorld) {
             val server = world.server
@@ -151,14 +190,8 @@ class FortressBuildingBlockEntity(pos: BlockPos?, state: BlockState?) :
 
     override fun getHireHandler() = hireHandler
 
-    override fun getFurnacePos(): List<BlockPos>? =
-        furnaceBlockPositions
-
-    override fun findFurnaces() {
-        this.furnaceBlockPositions = this.blockData?.referenceState
-            ?.filter { it.blockState?.isOf(Blocks.FURNACE) == true }
-            ?.map { it.pos.toImmutable() }
-    }
+    override fun getFurnacePos(): List<BlockPos> =
+        blockData?.furnacePositions?.toList() ?: emptyList()
 
     override fun createMenu(syncId: Int, playerInventory: PlayerInventory?, player: PlayerEntity?): ScreenHandler {
         val propertyDelegate = object : PropertyDelegate {
@@ -226,6 +259,8 @@ class FortressBuildingBlockEntity(pos: BlockPos?, state: BlockState?) :
         hireHandler.toNbt().let { nbt.put("hireHandler", it) }
     }
 
+    override fun toInitialChunkDataNbt(): NbtCompound = createNbt()
+
     override fun toUpdatePacket(): Packet<ClientPlayPacketListener> {
         val nbt = NbtCompound()
         writeNbt(nbt)
@@ -237,17 +272,9 @@ class FortressBuildingBlockEntity(pos: BlockPos?, state: BlockState?) :
     override fun getStart(): BlockPos? = start
     override fun getEnd(): BlockPos? = end
 
-    override fun getFreeBed(world: World?): Optional<BlockPos> {
-        val nullableBed = BlockPos
-            .stream(start, end)
-            .asSequence()
-            .map { it.toImmutable() }
-            .firstOrNull {
-                val blockState = world?.getBlockState(it) ?: Blocks.AIR.defaultState
-                blockState.isIn(BlockTags.BEDS) && !blockState.get(BedBlock.OCCUPIED)
-            }
-        return Optional.ofNullable(nullableBed)
-    }
+    override fun getBeds(): Set<BlockPos> = blockData?.bedPositions ?: setOf()
+
+    override fun isBlockPreserved(pos: BlockPos): Boolean = blockData?.isPreserved(pos) ?: false
 
 
     override fun satisfiesRequirement(type: ProfessionType?, level: Int): Boolean =
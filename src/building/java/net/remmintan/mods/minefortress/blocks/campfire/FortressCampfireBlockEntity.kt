@@ -8,11 +8,12 @@ import net.minecraft.server.world.ServerWorld
 import net.minecraft.util.math.BlockPos
 import net.minecraft.world.World
 import net.remmintan.mods.minefortress.blocks.FortressBlocks
-import net.remmintan.mods.minefortress.core.interfaces.entities.player.IFortressPlayerEntity
 import net.remmintan.mods.minefortress.core.interfaces.server.IFortressHolder
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerFortressManager
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider
 import net.remmintan.mods.minefortress.core.services.FortressManagerLocator
+import net.remmintan.mods.minefortress.core.services.FortressOwners
+import net.remmintan.mods.minefortress.core.services.FortressRegistry
 
 class FortressCampfireBlockEntity(pos: BlockPos, state: BlockState) :
     BlockEntity(FortressBlocks.CAMPFIRE_ENT_TYPE, pos, state), IFortressHolder {
@@ -39,6 +40,21 @@ class FortressCampfireBlockEntity(pos: BlockPos, state: BlockState) :
         fortressManager.tick(getFortressOwner())
     }
 
+    override fun setWorld(world: World) {
+        super.setWorld(world)
+        if (world is ServerWorld) FortressRegistry.register(world, pos, this)
+    }
+
+    override fun markRemoved() {
+        super.markRemoved()
+        (world as? ServerWorld)?.let { FortressRegistry.unregister(it, pos) }
+    }
+
+    override fun cancelRemoval() {
+        super.cancelRemoval()
+        (world as? ServerWorld)?.let { FortressRegistry.register(it, pos, this) }
+    }
+
     override fun writeNbt(nbt: NbtCompound?) {
         super.writeNbt(nbt)
 
@@ -63,9 +79,5 @@ class FortressCampfireBlockEntity(pos: BlockPos, state: BlockState) :
 
     override fun getServerFortressManager() = fortressManager
     override fun getServerManagersProvider() = managersProvider
-    override fun getFortressOwner(): ServerPlayerEntity? {
-        return world?.server?.playerManager?.playerList?.find {
-            (it as IFortressPlayerEntity).get_FortressPos().map { p -> p.equals(pos) }.orElse(false)
-        }
-    }
+    override fun getFortressOwner(): ServerPlayerEntity? = FortressOwners.getOwner(pos)
 }
\ No newline at end of file
@@ -9,14 +9,18 @@ import net.minecraft.server.network.ServerPlayerEntity
 import net.minecraft.server.world.ServerWorld
 import net.minecraft.util.math.BlockBox
 import net.minecraft.util.math.BlockPos
+import net.minecraft.util.math.ChunkSectionPos
 import net.minecraft.util.math.Vec3i
+import net.minecraft.world.Heightmap
 import net.minecraft.world.World
-import net.minecraft.world.event.GameEvent
+import net.minecraft.world.chunk.WorldChunk
+import net.minecraft.world.chunk.light.LightEngine
 import net.remmintan.mods.minefortress.blocks.FortressBlocks
 import net.remmintan.mods.minefortress.blocks.FortressBuildingConfigurationBlockEntity
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintGroup
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.world.BLUEPRINT_DIMENSION_KEY
+import net.remmintan.mods.minefortress.core.interfaces.server.IFortressServerWorld
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
 
@@ -119,23 +123,19 @@ fun ServerWorld.clearBlueprint(player: ServerPlayerEntity?) {
     putBlueprintInAWorld(HashMap(), player, Vec3i(1, 1, 1), 0)
 }
 
-fun World.getBlueprintMinY(player: ServerPlayerEntity?): Int {
+fun ServerWorld.getBlueprintMinY(player: ServerPlayerEntity?): Int {
     this.isBlueprintWorld() || error("Not a blueprint world")
 
     player ?: error("Player not found")
 
-    return player.getPersonalBlueprintCell().let {
-        BlockPos
-            .iterate(it.start, it.end)
-            .map { it.toImmutable() }
-            .filter {
-                it.y < 16 && !this.getBlockState(it).isIn(BlockTags.DIRT) ||
-                        it.y >= 16 && !this.getBlockState(it).isOf(Blocks.AIR)
-            }
-            .minOf { it.y }
-    }
+    return getCellsOccupancy().getMinY(this, player.getPersonalBlueprintCell())
 }
 
+/**
+ * Writes the blueprint straight into the chunk sections of the cell. The blocks are placed without the neighbour
+ * updates and the block callbacks, the light is checked only for the blocks changing it and the changes are sent
+ * to the clients in one update per section.
+ */
 fun ServerWorld.putBlueprintInAWorld(
     blueprintData: Map<BlockPos, BlockState>,
     player: ServerPlayerEntity?,
@@ -152,37 +152,165 @@ fun ServerWorld.putBlueprintInAWorld(
     val start = cell.start.subtract(Vec3i(1, 1, 1))
     val end = cell.end.add(Vec3i(1, 1, 1))
 
+    val layers = IntArray(cell.end.y - cell.start.y + 1)
+    val getCellState = { pos: BlockPos ->
+        val offsetPos = pos
+            .down(DEFAULT_FLOOR_LEVEL - floorLevel)
+            .add(-xOffset - cell.start.x, 0, -zOffset - cell.start.z)
+
+        val blockState = if (pos.y == DEFAULT_FLOOR_LEVEL - 1 &&
+            (pos.x == start.x || pos.x == end.x || pos.z == start.z || pos.z == end.z)
+        ) {
+            BORDER_STATE
+        } else if (pos.y >= DEFAULT_FLOOR_LEVEL && pos.x == end.x && pos.z == end.z) {
+            BORDER_STATE
+        } else if (blueprintData.containsKey(offsetPos)) {
+            blueprintData[offsetPos] ?: Blocks.AIR.defaultState
+        } else if (pos.y >= DEFAULT_FLOOR_LEVEL) {
+            Blocks.AIR.defaultState
+        } else if (pos.y == 0) {
+            Blocks.BEDROCK.defaultState
+        } else if (pos.y > 0 && pos.y < DEFAULT_FLOOR_LEVEL - 2) {
+            Blocks.DIRT.defaultState
+        } else {
+            Blocks.GRASS_BLOCK.defaultState
+        }
+
+        if (cell.contains(pos) && isCellBlock(pos.y, blockState))
+            layers[pos.y - cell.start.y]++
+        blockState
+    }
 
-    BlockPos
-        .iterate(start, end)
-        .forEach { pos: BlockPos ->
-            val blockState: BlockState?
-            val offsetPos = pos
-                .down(DEFAULT_FLOOR_LEVEL - floorLevel)
-                .add(-xOffset - cell.start.x, 0, -zOffset - cell.start.z)
-
-            if (this.getBlockState(pos).block == FortressBlocks.FORTRESS_BUILDING_CONFIGURATION)
-                return@forEach
-
-            blockState = if (pos.y == DEFAULT_FLOOR_LEVEL - 1 &&
-                (pos.x == start.x || pos.x == end.x || pos.z == start.z || pos.z == end.z)
-            ) {
-                BORDER_STATE
-            } else if (pos.y >= DEFAULT_FLOOR_LEVEL && pos.x == end.x && pos.z == end.z) {
-                BORDER_STATE
-            } else if (blueprintData.containsKey(offsetPos)) {
-                blueprintData[offsetPos]
-            } else if (pos.y >= DEFAULT_FLOOR_LEVEL) {
-                Blocks.AIR.defaultState
-            } else if (pos.y == 0) {
-                Blocks.BEDROCK.defaultState
-            } else if (pos.y > 0 && pos.y < DEFAULT_FLOOR_LEVEL - 2) {
-                Blocks.DIRT.defaultState
-            } else {
-                Blocks.GRASS_BLOCK.defaultState
+    for (chunkX in ChunkSectionPos.getSectionCoord(start.x)..ChunkSectionPos.getSectionCoord(end.x)) {
+        for (chunkZ in ChunkSectionPos.getSectionCoord(start.z)..ChunkSectionPos.getSectionCoord(end.z)) {
+            val chunk = this.getChunk(chunkX, chunkZ)
+            for (sectionY in ChunkSectionPos.getSectionCoord(start.y)..ChunkSectionPos.getSectionCoord(end.y)) {
+                val sectionPos = ChunkSectionPos.from(chunkX, sectionY, chunkZ)
+                val box = BlockBox(
+                    maxOf(start.x, sectionPos.minX),
+                    maxOf(start.y, sectionPos.minY),
+                    maxOf(start.z, sectionPos.minZ),
+                    minOf(end.x, sectionPos.maxX),
+                    minOf(end.y, sectionPos.maxY),
+                    minOf(end.z, sectionPos.maxZ)
+                )
+                writeSection(chunk, sectionPos, box, getCellState)
             }
+        }
+    }
+
+    getCellsOccupancy().setCell(cell, layers)
+}
+
+private fun ServerWorld.writeSection(
+    chunk: WorldChunk,
+    sectionPos: ChunkSectionPos,
+    box: BlockBox,
+    getState: (BlockPos) -> BlockState
+) {
+    val section = chunk.getSection(chunk.getSectionIndex(sectionPos.minY))
+    val wasEmpty = section.isEmpty
+    val changes = ArrayList<Triple<BlockPos, BlockState, BlockState>>()
+
+    section.lock()
+    try {
+        for (pos in BlockPos.iterate(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ)) {
+            val x = pos.x and 15
+            val y = pos.y and 15
+            val z = pos.z and 15
+            val oldState = section.getBlockState(x, y, z)
+            if (oldState.isOf(FortressBlocks.FORTRESS_BUILDING_CONFIGURATION)) continue
+
+            val newState = getState(pos)
+            if (oldState == newState) continue
+            section.setBlockState(x, y, z, newState, false)
+            changes.add(Triple(pos.toImmutable(), oldState, newState))
+        }
+    } finally {
+        section.unlock()
+    }
+    if (changes.isEmpty()) return
+
+    val lightingProvider = this.chunkManager.lightingProvider
+    if (wasEmpty != section.isEmpty)
+        lightingProvider.setSectionStatus(sectionPos, section.isEmpty)
+
+    for ((pos, oldState, newState) in changes) {
+        val x = pos.x and 15
+        val z = pos.z and 15
+        HEIGHTMAP_TYPES.forEach { chunk.getHeightmap(it).trackUpdate(x, pos.y, z, newState) }
+
+        if (oldState.hasBlockEntity() && !oldState.isOf(newState.block))
+            chunk.removeBlockEntity(pos)
+        if (newState.hasBlockEntity())
+            chunk.getBlockEntity(pos, WorldChunk.CreationType.IMMEDIATE)
+
+        if (LightEngine.hasDifferentLightProperties(chunk, pos, oldState, newState)) {
+            chunk.chunkSkyLight.isSkyLightAccessible(chunk, x, pos.y, z)
+            lightingProvider.checkBlock(pos)
+        }
+        // collected by the chunk holder into a single update of the section
+        this.chunkManager.markForUpdate(pos)
+    }
+    chunk.setNeedsSaving(true)
+}
+
+private val HEIGHTMAP_TYPES = listOf(
+    Heightmap.Type.MOTION_BLOCKING,
+    Heightmap.Type.MOTION_BLOCKING_NO_LEAVES,
+    Heightmap.Type.OCEAN_FLOOR,
+    Heightmap.Type.WORLD_SURFACE
+)
+
+private fun isCellBlock(y: Int, state: BlockState): Boolean =
+    y < DEFAULT_FLOOR_LEVEL && !state.isIn(BlockTags.DIRT) || y >= DEFAULT_FLOOR_LEVEL && !state.isOf(Blocks.AIR)
+
+private val cellsOccupancy = WeakHashMap<ServerWorld, BlueprintCellsOccupancy>()
+
+private fun ServerWorld.getCellsOccupancy(): BlueprintCellsOccupancy =
+    cellsOccupancy.getOrPut(this) {
+        BlueprintCellsOccupancy().also { (this as IFortressServerWorld).add_BlockChangeListener(it) }
+    }
+
+/**
+ * Counts the blueprint blocks in every layer of the cells, so the lowest layer of the blueprint is known without
+ * reading the whole cell. The counts are set when the cell is written and follow the blocks changed afterwards.
+ */
+private class BlueprintCellsOccupancy : IFortressServerWorld.BlockChangeListener {
 
-            this.setBlockState(pos, blockState)
-            this.emitGameEvent(player, GameEvent.BLOCK_PLACE, pos)
+    private class CellLayers(val cell: PersonalizedBlueprintCell, val counts: IntArray)
+
+    private val cells = HashMap<Long, CellLayers>()
+
+    fun setCell(cell: PersonalizedBlueprintCell, counts: IntArray) {
+        cells[cell.start.asLong()] = CellLayers(cell, counts)
+    }
+
+    fun getMinY(world: World, cell: PersonalizedBlueprintCell): Int {
+        // the cell written before the restart is counted once
+        val layers = cells.getOrPut(cell.start.asLong()) { CellLayers(cell, countLayers(world, cell)) }
+        val index = layers.counts.indexOfFirst { it > 0 }
+        if (index < 0) error("Blueprint cell is empty")
+        return cell.start.y + index
+    }
+
+    override fun onBlockChanged(pos: BlockPos, oldState: BlockState, newState: BlockState) {
+        val startX = Math.floorDiv(pos.x - 1, GRID_SIDE_SIZE) * GRID_SIDE_SIZE + 1
+        val startZ = Math.floorDiv(pos.z - 1, GRID_SIDE_SIZE) * GRID_SIDE_SIZE + 1
+        val layers = cells[BlockPos.asLong(startX, 1, startZ)] ?: return
+        if (!layers.cell.contains(pos)) return
+
+        val index = pos.y - layers.cell.start.y
+        if (isCellBlock(pos.y, oldState)) layers.counts[index]--
+        if (isCellBlock(pos.y, newState)) layers.counts[index]++
+    }
+
+    private fun countLayers(world: World, cell: PersonalizedBlueprintCell): IntArray {
+        val counts = IntArray(cell.end.y - cell.start.y + 1)
+        for (pos in BlockPos.iterate(cell.start, cell.end)) {
+            if (isCellBlock(pos.y, world.getBlockState(pos)))
+                counts[pos.y - cell.start.y]++
         }
+        return counts
+    }
 }
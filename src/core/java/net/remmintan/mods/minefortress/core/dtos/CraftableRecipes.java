@@ -0,0 +1,9 @@
+package net.remmintan.mods.minefortress.core.dtos;
+
+import java.util.BitSet;
+
+/**
+ * @param recipesCount the count of the recipes of the type, the client ignores the bits if it has a different count
+ * @param craftable the bits by the recipe index in {@link net.remmintan.mods.minefortress.core.utils.RecipesHelper#getSortedRecipes}
+ */
+public record CraftableRecipes(int recipesCount, BitSet craftable) {}
@@ -0,0 +1,32 @@
+package net.remmintan.mods.minefortress.core.dtos.buildings
+
+/**
+ * Compares the blueprints the client already has with the manifest sent by the server. Both sides map the blueprint
+ * id to the content hash of its structure.
+ */
+class BlueprintManifestDiff private constructor(
+    val added: List<String>,
+    val changed: List<String>,
+    val unchanged: List<String>,
+    val removed: List<String>
+) {
+
+    companion object {
+        @JvmStatic
+        fun of(synced: Map<String, String>, manifest: Map<String, String>): BlueprintManifestDiff {
+            val added = mutableListOf<String>()
+            val changed = mutableListOf<String>()
+            val unchanged = mutableListOf<String>()
+            for ((id, hash) in manifest) {
+                when (synced[id]) {
+                    null -> added.add(id)
+                    hash -> unchanged.add(id)
+                    else -> changed.add(id)
+                }
+            }
+            val removed = synced.keys.filter { !manifest.containsKey(it) }
+            return BlueprintManifestDiff(added, changed, unchanged, removed)
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package net.remmintan.mods.minefortress.core.dtos.buildings
+
+import net.minecraft.network.PacketByteBuf
+
+/**
+ * Announces a blueprint to the client without its structure. The hash identifies the structure content, so the
+ * client can take the structure from its local cache instead of downloading it again.
+ */
+data class BlueprintManifestEntry(val metadata: BlueprintMetadata, val hash: String) {
+
+    fun write(buf: PacketByteBuf) {
+        buf.writeNbt(metadata.toNbt())
+        buf.writeString(hash)
+    }
+
+    companion object {
+        fun read(buf: PacketByteBuf): BlueprintManifestEntry {
+            val metadata = buf.readNbt() ?: throw IllegalArgumentException("Blueprint metadata is null")
+            return BlueprintManifestEntry(BlueprintMetadata(metadata), buf.readString())
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.remmintan.mods.minefortress.core.dtos.buildings
+
+import net.minecraft.nbt.NbtCompound
+import net.minecraft.network.PacketByteBuf
+
+data class BlueprintSyncEntry(val metadata: BlueprintMetadata, val hash: String, val structure: NbtCompound) {
+
+    fun write(buf: PacketByteBuf) {
+        buf.writeNbt(metadata.toNbt())
+        buf.writeString(hash)
+        buf.writeNbt(structure)
+    }
+
+    companion object {
+        fun read(buf: PacketByteBuf): BlueprintSyncEntry {
+            val metadata = buf.readNbt() ?: throw IllegalArgumentException("Blueprint metadata is null")
+            val hash = buf.readString()
+            val structure = buf.readNbt() ?: throw IllegalArgumentException("Blueprint structure is null")
+            return BlueprintSyncEntry(BlueprintMetadata(metadata), hash, structure)
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package net.remmintan.mods.minefortress.core.dtos.professions;
+
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * @param waterPos the surface water block to cast the rod at
+ * @param standPos the solid block next to the water the fisher stands on
+ */
+public record FishingSpot(BlockPos waterPos, BlockPos standPos) {}
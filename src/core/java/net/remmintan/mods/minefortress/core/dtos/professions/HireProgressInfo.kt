@@ -1,6 +1,7 @@
 package net.remmintan.mods.minefortress.core.dtos.professions
 
 import net.minecraft.nbt.NbtCompound
+import net.minecraft.network.PacketByteBuf
 
 data class HireProgressInfo(
     val professionId: String,
@@ -21,7 +22,27 @@ data class HireProgressInfo(
         return nbt
     }
 
+    fun write(buf: PacketByteBuf) {
+        buf.writeString(professionId)
+        buf.writeVarInt(queueLength)
+        buf.writeVarInt(currentCount)
+        buf.writeVarInt(maxCount)
+        buf.writeVarInt(progress)
+        buf.writeBoolean(canHireMore)
+    }
+
     companion object {
+        fun read(buf: PacketByteBuf): HireProgressInfo {
+            return HireProgressInfo(
+                buf.readString(),
+                buf.readVarInt(),
+                buf.readVarInt(),
+                buf.readVarInt(),
+                buf.readVarInt(),
+                buf.readBoolean()
+            )
+        }
+
         fun fromNbt(nbt: NbtCompound): HireProgressInfo {
             return HireProgressInfo(
                 nbt.getString("professionId"),
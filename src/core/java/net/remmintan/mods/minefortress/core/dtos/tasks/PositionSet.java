@@ -0,0 +1,253 @@
+package net.remmintan.mods.minefortress.core.dtos.tasks;
+
+import com.google.common.collect.Iterators;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Iterator;
+
+/**
+ * Immutable set of block positions with a compact network encoding. A box is written as its two corners. Any other
+ * set is split into the chunk sections and every section is written either as the runs of consecutive blocks or
+ * as a bitmap, whatever is smaller.
+ */
+public final class PositionSet implements Iterable<BlockPos> {
+
+    private static final byte BOX = 0;
+    private static final byte SECTIONS = 1;
+
+    private static final byte RUNS = 0;
+    private static final byte BITMAP = 1;
+
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+    private static final int BITMAP_BYTES = SECTION_VOLUME / 8;
+    // the upper bound of a run written as two var ints, the runs are smaller most of the time
+    private static final int RUN_BYTES = 4;
+
+    private static final PositionSet EMPTY = new PositionSet(null, new Long2ObjectOpenHashMap<>());
+
+    @Nullable
+    private final BlockBox box;
+    // blocks by chunk section, the bit index is y << 8 | z << 4 | x inside of the section
+    private final Long2ObjectMap<BitSet> sections;
+    private final int size;
+
+    private PositionSet(@Nullable BlockBox box, Long2ObjectMap<BitSet> sections) {
+        this.box = box;
+        this.sections = sections;
+        if (box != null) {
+            this.size = box.getBlockCountX() * box.getBlockCountY() * box.getBlockCountZ();
+        } else {
+            int count = 0;
+            for (BitSet section : sections.values())
+                count += section.cardinality();
+            this.size = count;
+        }
+    }
+
+    public static PositionSet empty() {
+        return EMPTY;
+    }
+
+    public static PositionSet box(BlockPos first, BlockPos second) {
+        return new PositionSet(BlockBox.create(first, second), new Long2ObjectOpenHashMap<>());
+    }
+
+    public static PositionSet of(Iterable<BlockPos> positions) {
+        if (positions instanceof PositionSet set) return set;
+
+        final var builder = new Builder();
+        for (BlockPos pos : positions) {
+            builder.add(pos.getX(), pos.getY(), pos.getZ());
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(BlockPos pos) {
+        if (box != null) return box.contains(pos);
+        final var section = sections.get(getSectionKey(pos));
+        return section != null && section.get(getIndex(pos));
+    }
+
+    /**
+     * @return a new set without the removed positions
+     */
+    public PositionSet without(PositionSet removed) {
+        if (removed.isEmpty() || this.isEmpty()) return this;
+
+        final Long2ObjectMap<BitSet> remaining = new Long2ObjectOpenHashMap<>();
+        for (Long2ObjectMap.Entry<BitSet> entry : getSections().long2ObjectEntrySet()) {
+            final var removedSection = removed.getSections().get(entry.getLongKey());
+            final var section = (BitSet) entry.getValue().clone();
+            if (removedSection != null)
+                section.andNot(removedSection);
+            if (!section.isEmpty())
+                remaining.put(entry.getLongKey(), section);
+        }
+        return new PositionSet(null, remaining);
+    }
+
+    @NotNull
+    @Override
+    public Iterator<BlockPos> iterator() {
+        if (box != null) {
+            final var boxIterator = BlockPos.iterate(
+                    box.getMinX(), box.getMinY(), box.getMinZ(),
+                    box.getMaxX(), box.getMaxY(), box.getMaxZ()
+            ).iterator();
+            return Iterators.transform(boxIterator, BlockPos::toImmutable);
+        }
+
+        return sections.long2ObjectEntrySet()
+                .stream()
+                .flatMap(entry -> entry.getValue().stream().mapToObj(index -> toPos(entry.getLongKey(), index)))
+                .iterator();
+    }
+
+    public void write(PacketByteBuf buf) {
+        if (box != null) {
+            buf.writeByte(BOX);
+            buf.writeBlockPos(new BlockPos(box.getMinX(), box.getMinY(), box.getMinZ()));
+            buf.writeBlockPos(new BlockPos(box.getMaxX(), box.getMaxY(), box.getMaxZ()));
+            return;
+        }
+
+        buf.writeByte(SECTIONS);
+        buf.writeVarInt(sections.size());
+        for (Long2ObjectMap.Entry<BitSet> entry : sections.long2ObjectEntrySet()) {
+            buf.writeLong(entry.getLongKey());
+            writeSection(buf, entry.getValue());
+        }
+    }
+
+    public static PositionSet read(PacketByteBuf buf) {
+        final byte type = buf.readByte();
+        if (type == BOX) {
+            return box(buf.readBlockPos(), buf.readBlockPos());
+        }
+        if (type != SECTIONS) throw new IllegalArgumentException("Unknown position set type: " + type);
+
+        final int sectionsCount = buf.readVarInt();
+        final Long2ObjectMap<BitSet> sections = new Long2ObjectOpenHashMap<>(sectionsCount);
+        for (int i = 0; i < sectionsCount; i++) {
+            final long key = buf.readLong();
+            sections.put(key, readSection(buf));
+        }
+        return new PositionSet(null, sections);
+    }
+
+    private Long2ObjectMap<BitSet> getSections() {
+        return box == null ? sections : of(this::iterator).sections;
+    }
+
+    private static void writeSection(PacketByteBuf buf, BitSet section) {
+        int runsCount = 0;
+        for (int start = section.nextSetBit(0); start >= 0; start = section.nextSetBit(section.nextClearBit(start))) {
+            runsCount++;
+        }
+
+        if (runsCount * RUN_BYTES < BITMAP_BYTES) {
+            buf.writeByte(RUNS);
+            buf.writeVarInt(runsCount);
+            int previousEnd = 0;
+            for (int start = section.nextSetBit(0); start >= 0; start = section.nextSetBit(previousEnd)) {
+                final int end = section.nextClearBit(start);
+                buf.writeVarInt(start - previousEnd);
+                buf.writeVarInt(end - start);
+                previousEnd = end;
+            }
+        } else {
+            buf.writeByte(BITMAP);
+            final long[] words = section.toLongArray();
+            for (int i = 0; i < SECTION_VOLUME / Long.SIZE; i++) {
+                buf.writeLong(i < words.length ? words[i] : 0L);
+            }
+        }
+    }
+
+    private static BitSet readSection(PacketByteBuf buf) {
+        final byte encoding = buf.readByte();
+        if (encoding == RUNS) {
+            final var section = new BitSet(SECTION_VOLUME);
+            final int runsCount = buf.readVarInt();
+            int previousEnd = 0;
+            for (int i = 0; i < runsCount; i++) {
+                final int start = previousEnd + buf.readVarInt();
+                final int end = start + buf.readVarInt();
+                if (end > SECTION_VOLUME) throw new IllegalArgumentException("Run is outside of the section");
+                section.set(start, end);
+                previousEnd = end;
+            }
+            return section;
+        }
+        if (encoding != BITMAP) throw new IllegalArgumentException("Unknown section encoding: " + encoding);
+
+        final long[] words = new long[SECTION_VOLUME / Long.SIZE];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buf.readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private static long getSectionKey(BlockPos pos) {
+        return getSectionKey(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    private static long getSectionKey(int x, int y, int z) {
+        return ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(y),
+                ChunkSectionPos.getSectionCoord(z)
+        );
+    }
+
+    private static int getIndex(BlockPos pos) {
+        return getIndex(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return ChunkSectionPos.getLocalCoord(y) << 8
+                | ChunkSectionPos.getLocalCoord(z) << 4
+                | ChunkSectionPos.getLocalCoord(x);
+    }
+
+    private static BlockPos toPos(long sectionKey, int index) {
+        return new BlockPos(
+                ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(sectionKey)) + (index & 0xF),
+                ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(sectionKey)) + (index >>> 8 & 0xF),
+                ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(sectionKey)) + (index >>> 4 & 0xF)
+        );
+    }
+
+    /**
+     * Collects the positions by their coordinates, so the callers visiting the blocks don't create a position per block.
+     */
+    public static final class Builder {
+        private final Long2ObjectMap<BitSet> sections = new Long2ObjectOpenHashMap<>();
+
+        public Builder add(int x, int y, int z) {
+            sections.computeIfAbsent(getSectionKey(x, y, z), it -> new BitSet(SECTION_VOLUME)).set(getIndex(x, y, z));
+            return this;
+        }
+
+        public PositionSet build() {
+            return new PositionSet(null, sections);
+        }
+    }
+
+}
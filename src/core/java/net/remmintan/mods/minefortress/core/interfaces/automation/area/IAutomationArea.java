@@ -10,6 +10,19 @@ import java.util.function.Consumer;
 public interface IAutomationArea {
     UUID getId();
     Iterator<IAutomationBlockInfo> iterator(World world);
+
+    /**
+     * @return the blocks for this worker only, the area may hand out a separate part of itself to every worker
+     */
+    default Iterator<IAutomationBlockInfo> iterator(World world, UUID workerId) {
+        return iterator(world);
+    }
+
+    /**
+     * Called when the worker stops working the area, so its part can be given to the other workers.
+     */
+    default void release(UUID workerId) {
+    }
     void update();
     LocalDateTime getUpdated();
     default boolean isEmpty(World world) {
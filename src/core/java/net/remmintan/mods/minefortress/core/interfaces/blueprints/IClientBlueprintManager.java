@@ -3,6 +3,7 @@ package net.remmintan.mods.minefortress.core.interfaces.blueprints;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintManifestEntry;
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata;
 
 import java.util.List;
@@ -34,7 +35,16 @@ public interface IClientBlueprintManager extends IStructureRenderInfoProvider {
 
     IBlockDataProvider getBlockDataProvider();
 
-    void sync(BlueprintMetadata metadata, NbtCompound tag);
+    /**
+     * Brings the blueprints in line with the manifest. Blueprints missing from the manifest are removed, the new and
+     * changed ones are loaded from the local cache or requested from the server.
+     */
+    void syncManifest(List<BlueprintManifestEntry> manifest);
+
+    /**
+     * @param hash the content hash of the structure, the structure is cached under it
+     */
+    void sync(BlueprintMetadata metadata, NbtCompound tag, String hash);
 
     void remove(String blueprintId);
 
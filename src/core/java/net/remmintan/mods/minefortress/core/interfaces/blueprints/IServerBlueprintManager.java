@@ -11,6 +11,7 @@ import net.remmintan.mods.minefortress.core.interfaces.server.IWritableManager;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IAreaBasedTask;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IPlaceCampfireTask;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface IServerBlueprintManager extends IServerManager, ITickableManager, IWritableManager {
@@ -20,6 +21,11 @@ public interface IServerBlueprintManager extends IServerManager, ITickableManage
 
     void remove(String blueprintId);
 
+    /**
+     * Schedules sending the structures of the blueprints to the player. Unknown ids are ignored.
+     */
+    void requestBlueprints(List<String> blueprintIds);
+
     IServerStructureBlockDataManager getBlockDataManager();
 
 
@@ -4,6 +4,7 @@ import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
 import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
@@ -16,4 +17,23 @@ public interface IStructureBlockData {
     Vec3i getSize();
 
     List<ItemInfo> getStacks();
+
+    /**
+     * Visits every block of the layer. Coordinates are relative to the blueprint origin.
+     */
+    default void forEachBlock(BlueprintDataLayer layer, BlockVisitor visitor) {
+        if (!hasLayer(layer)) return;
+        getLayer(layer).forEach((pos, state) -> visitor.visit(pos.getX(), pos.getY(), pos.getZ(), state));
+    }
+
+    @Nullable
+    default BlockState getBlockState(BlueprintDataLayer layer, int x, int y, int z) {
+        if (!hasLayer(layer)) return null;
+        return getLayer(layer).get(new BlockPos(x, y, z));
+    }
+
+    @FunctionalInterface
+    interface BlockVisitor {
+        void visit(int x, int y, int z, BlockState state);
+    }
 }
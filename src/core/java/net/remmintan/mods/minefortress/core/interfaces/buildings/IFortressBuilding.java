@@ -9,10 +9,12 @@ import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata;
+import net.remmintan.mods.minefortress.core.dtos.professions.HireProgressInfo;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationArea;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -68,7 +70,9 @@ public interface IFortressBuilding {
         return BlockBox.create(start, end).contains(pos);
     }
 
-    Optional<BlockPos> getFreeBed(World world);
+    Set<BlockPos> getBeds();
+
+    boolean isBlockPreserved(BlockPos pos);
 
     boolean satisfiesRequirement(ProfessionType type, int level);
 
@@ -82,7 +86,10 @@ public interface IFortressBuilding {
 
     List<BlockPos> getFurnacePos();
 
-    void findFurnaces();
-
     IBuildingHireHandler getHireHandler();
+
+    /**
+     * Applies the state received from the server. Null arguments didn't change since the last sync.
+     */
+    void updateSyncedState(@Nullable BitSet destroyedBlocks, @Nullable List<HireProgressInfo> hireProgresses);
 }
@@ -1,6 +1,7 @@
 package net.remmintan.mods.minefortress.core.interfaces.buildings;
 
 import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.FurnaceBlockEntity;
 import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata;
@@ -13,6 +14,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface IServerBuildingsManager extends IServerManager, IWritableManager, ITickableManager {
     void addBuilding(BlueprintMetadata metadata, BlockPos start, BlockPos end, Map<BlockPos, BlockState> mergedBlockData);
@@ -32,7 +34,20 @@ public interface IServerBuildingsManager extends IServerManager, IWritableManage
     @Nullable BlockPos getRandomPositionToGoTo();
 
     Optional<HostileEntity> getRandomBuildingAttacker();
-    Optional<BlockPos> getFreeBed();
+    Optional<BlockPos> claimBed(UUID pawnId);
+    void releaseBed(UUID pawnId);
+    void updateBedState(BlockPos bedPos, boolean preserved);
+    void updateFurnaceState(BlockPos furnacePos, boolean preserved);
+
+    /**
+     * @return whether any furnace of the blacksmith buildings is burning
+     */
+    boolean isAnyFurnaceBurning();
+
+    /**
+     * @return the loaded furnaces of the blacksmith buildings in the order the buildings were added
+     */
+    List<FurnaceBlockEntity> getFurnaces();
     boolean isPartOfAnyBuilding(BlockPos pos);
     boolean hasRequiredBuilding(ProfessionType type, int level, int minCount);
 }
@@ -2,9 +2,13 @@ package net.remmintan.mods.minefortress.core.interfaces.entities.pawns;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.math.BlockPos;
+import net.remmintan.mods.minefortress.core.interfaces.server.IFortressHolder;
+import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Optional;
+
 public interface IFortressAwareEntity {
 
     @Nullable
@@ -13,4 +17,9 @@ public interface IFortressAwareEntity {
     @NotNull
     MinecraftServer getServer();
 
+    @NotNull
+    default Optional<IFortressHolder> getFortressHolder() {
+        return ServerModUtils.getFortressHolder(getServer(), getFortressPos());
+    }
+
 }
@@ -0,0 +1,22 @@
+package net.remmintan.mods.minefortress.core.interfaces.professions;
+
+import net.minecraft.util.math.BlockPos;
+import net.remmintan.mods.minefortress.core.dtos.professions.FishingSpot;
+import net.remmintan.mods.minefortress.core.interfaces.server.IServerManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+public interface IServerFishingSpotsManager extends IServerManager {
+
+    /**
+     * Reserves one of the free spots nearest to the position, the previous spot of the pawn is released.
+     *
+     * @param waterFilter checks the water position of the spot
+     */
+    Optional<FishingSpot> reserve(UUID pawnId, BlockPos near, Predicate<BlockPos> waterFilter);
+
+    void release(UUID pawnId);
+
+}
@@ -0,0 +1,12 @@
+package net.remmintan.mods.minefortress.core.interfaces.resources;
+
+import net.remmintan.mods.minefortress.core.dtos.CraftableRecipes;
+
+/**
+ * Screen handler showing the recipes craftable from the fortress items as they were matched on the server.
+ */
+public interface ICraftableRecipesHandler {
+
+    void setCraftableRecipes(CraftableRecipes craftableRecipes);
+
+}
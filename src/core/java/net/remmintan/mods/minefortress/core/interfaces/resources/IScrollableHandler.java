@@ -1,7 +1,20 @@
 package net.remmintan.mods.minefortress.core.interfaces.resources;
 
+import net.minecraft.item.ItemStack;
+
+import java.util.Map;
+
+/**
+ * Screen handler showing the fortress items through a window of slots. The client scrolls the window on its own and
+ * tells the server the scrolled row only before it clicks a slot.
+ */
 public interface IScrollableHandler {
 
-    void scrollItems(float position);
+    void setRowsOffset(int rowsOffset);
+
+    /**
+     * Updates the stored items on the client, the keys are the indexes in the whole items list.
+     */
+    void updateStoredStacks(boolean reset, Map<Integer, ItemStack> stacks);
 
 }
@@ -2,11 +2,14 @@ package net.remmintan.mods.minefortress.core.interfaces.resources;
 
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.RecipeType;
+import net.remmintan.mods.minefortress.core.dtos.CraftableRecipes;
 import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.ISyncableServerManager;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface IServerResourceManager extends IResourceManager, IServerManager, ISyncableServerManager {
@@ -23,4 +26,14 @@ public interface IServerResourceManager extends IResourceManager, IServerManager
 
     List<ItemStack> getAllItems();
 
+    /**
+     * @return the first available item of the category in the category order
+     */
+    Optional<Item> getFirstItem(ResourceCategory category);
+
+    /**
+     * @return the recipes of the type which can be made from the fortress resources
+     */
+    CraftableRecipes getCraftableRecipes(RecipeType<?> type);
+
 }
@@ -0,0 +1,16 @@
+package net.remmintan.mods.minefortress.core.interfaces.resources;
+
+/**
+ * Groups of the fortress resources the pawns look for on their own.
+ */
+public enum ResourceCategory {
+    /**
+     * Food without the harmful effects, the most nutritious first.
+     */
+    FOOD,
+    /**
+     * Seeds the farmers can plant, the wheat seeds first.
+     */
+    SEEDS,
+    SAPLINGS
+}
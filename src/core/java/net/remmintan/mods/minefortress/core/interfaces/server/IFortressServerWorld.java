@@ -0,0 +1,17 @@
+package net.remmintan.mods.minefortress.core.interfaces.server;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+
+public interface IFortressServerWorld {
+
+    /**
+     * The listener is kept by a weak reference, so it's dropped together with its owner.
+     */
+    void add_BlockChangeListener(BlockChangeListener listener);
+
+    interface BlockChangeListener {
+        void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState);
+    }
+
+}
@@ -27,6 +27,18 @@ public interface IServerFortressManager extends IFortressManager, IWritableManag
 
     Set<IProfessional> getProfessionals();
 
+    int countPawnsWithProfession(String professionId);
+
+    /**
+     * Recounts the pawn after its profession was changed.
+     */
+    void updatePawnProfession(LivingEntity pawn);
+
+    /**
+     * Reserved pawns will be checked for open profession slots during the next tick.
+     */
+    void scheduleProfessionsAssignment();
+
     BlockPos getFortressCenter();
 
     IPawnNameGenerator getNameGenerator();
@@ -6,6 +6,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.remmintan.mods.minefortress.core.interfaces.automation.server.IServerAutomationAreaManager;
 import net.remmintan.mods.minefortress.core.interfaces.buildings.IServerBuildingsManager;
 import net.remmintan.mods.minefortress.core.interfaces.combat.IServerFightManager;
+import net.remmintan.mods.minefortress.core.interfaces.professions.IServerFishingSpotsManager;
 import net.remmintan.mods.minefortress.core.interfaces.professions.IServerProfessionsManager;
 import net.remmintan.mods.minefortress.core.interfaces.resources.IServerResourceManager;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IServerTaskManager;
@@ -33,6 +34,9 @@ public interface IServerManagersProvider {
     default IServerFightManager getFightManager() {
         return getManager(IServerFightManager.class);
     }
+    default IServerFishingSpotsManager getFishingSpotsManager() {
+        return getManager(IServerFishingSpotsManager.class);
+    }
 
     void tick(MinecraftServer server, ServerWorld world);
 
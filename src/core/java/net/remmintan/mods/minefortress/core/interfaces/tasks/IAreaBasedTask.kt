@@ -6,7 +6,10 @@ import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IFortressA
 interface IAreaBasedTask : IBaseTask {
 
     val areaData: Pair<BlockPos, Double>
-    fun getNextBlock(): ITaskBlockInfo?
+    /**
+     * @return the block the worker at the given position should do next
+     */
+    fun getNextBlock(workerPos: BlockPos): ITaskBlockInfo?
     fun failBlock(info: ITaskBlockInfo)
     fun successBlock(pos: BlockPos)
     fun hasMoreBlocks(): Boolean
@@ -2,13 +2,17 @@ package net.remmintan.mods.minefortress.core.interfaces.tasks;
 
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import org.joml.Vector4f;
 
-import java.util.List;
-
 public interface IClientTask {
 
-    List<BlockPos> getBlockPositions();
+    PositionSet getBlockPositions();
+
+    /**
+     * @return the copy of the task without the given positions, used when the part of the task is done
+     */
+    IClientTask withoutPositions(PositionSet removedPositions);
 
     Vector4f getColor();
 
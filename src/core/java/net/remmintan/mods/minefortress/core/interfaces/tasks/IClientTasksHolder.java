@@ -2,6 +2,7 @@ package net.remmintan.mods.minefortress.core.interfaces.tasks;
 
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 
 import java.util.List;
@@ -12,6 +13,7 @@ public interface IClientTasksHolder extends ITasksModelBuilderInfoProvider, ITas
     void addTasks(List<TaskInformationDto> tasks);
 
     void removeTask(UUID id);
+    void removeTaskPositions(UUID id, PositionSet positions);
     void addTask(UUID uuid, Iterable<BlockPos> blocks, TaskType type, UUID superTaskId);
 
     void cancelLatestTask();
@@ -0,0 +1,20 @@
+package net.remmintan.mods.minefortress.core.interfaces.tasks
+
+import net.minecraft.server.world.ServerWorld
+
+/**
+ * Work left after the task is done which is too big for one tick, e.g. placing the automatic blocks of a blueprint.
+ */
+interface IFinalizationJob {
+
+    fun isFinished(): Boolean
+
+    /**
+     * Does the next steps of the job, at most [maxSteps] of them and stops earlier after [deadlineNanos].
+     * Does at least one step if the job isn't finished.
+     *
+     * @return the number of the done steps
+     */
+    fun tick(world: ServerWorld, maxSteps: Int, deadlineNanos: Long): Int
+
+}
@@ -5,9 +5,15 @@ import net.remmintan.mods.minefortress.core.interfaces.automation.IAutomationAre
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface ISavedAreasHolder extends ITasksRenderInfoProvider, ITasksModelBuilderInfoProvider {
-    void setSavedAreas(List<IAutomationAreaInfo> savedAreas);
+    void setSavedAreas(long sequence, List<IAutomationAreaInfo> savedAreas);
+
+    /**
+     * @return false if the delta doesn't follow the last applied packet and all the areas must be requested again
+     */
+    boolean applyDelta(long sequence, List<IAutomationAreaInfo> changedAreas, List<UUID> removedIds);
 
     Optional<IAutomationAreaInfo> getHovered(BlockPos pos);
 
@@ -7,4 +7,5 @@ import java.util.*
 interface IServerTaskManager : IServerManager {
     fun addTask(task: IBaseTask, selectedPawnIds: List<Int>, player: ServerPlayerEntity)
     fun cancelTask(id: UUID, player: ServerPlayerEntity)
+    fun addFinalizationJob(job: IFinalizationJob)
 }
@@ -1,12 +1,26 @@
 package net.remmintan.mods.minefortress.core.interfaces.tasks;
 
-import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
 
 public interface ITasksModelBuilderInfoProvider {
 
     boolean isNeedRebuild();
+
+    /**
+     * Requests the rebuild of all the task models. The outline of a task depends on the blocks in the world,
+     * so the models of the unchanged tasks are rebuilt as well.
+     */
     void setNeedRebuild(boolean rebuildNeeded);
 
-    Set<IClientTask> getAllSelections();
+    /**
+     * @return true if the models of all the tasks must be rebuilt, otherwise only the changed tasks are rebuilt
+     */
+    boolean isNeedFullRebuild();
+
+    /**
+     * @return the tasks by their ids. The model of a task is rebuilt only when the id is mapped to another task instance.
+     */
+    Map<UUID, IClientTask> getAllSelections();
 
 }
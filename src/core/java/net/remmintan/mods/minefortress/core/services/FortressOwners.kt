@@ -0,0 +1,46 @@
+package net.remmintan.mods.minefortress.core.services
+
+import net.minecraft.server.network.ServerPlayerEntity
+import net.minecraft.util.math.BlockPos
+import java.util.*
+
+/**
+ * Maps the fortress centers to the online players owning them and back.
+ * Updated when a player joins or leaves the server and when the player's fortress is set.
+ */
+object FortressOwners {
+
+    private val owners = HashMap<BlockPos, ServerPlayerEntity>()
+    private val fortresses = HashMap<UUID, BlockPos>()
+
+    fun setFortress(player: ServerPlayerEntity, fortressPos: BlockPos?) {
+        fortresses.remove(player.uuid)?.let { removeOwner(it, player) }
+        if (fortressPos == null) return
+
+        val pos = fortressPos.toImmutable()
+        fortresses[player.uuid] = pos
+        owners[pos] = player
+    }
+
+    fun remove(player: ServerPlayerEntity) {
+        val fortressPos = fortresses[player.uuid] ?: return
+        // the player entity could be already replaced after a respawn
+        if (owners[fortressPos] !== player) return
+        fortresses.remove(player.uuid)
+        owners.remove(fortressPos)
+    }
+
+    fun getOwner(fortressPos: BlockPos): ServerPlayerEntity? =
+        owners[fortressPos]?.takeIf { !it.isDisconnected }
+
+    fun clear() {
+        owners.clear()
+        fortresses.clear()
+    }
+
+    private fun removeOwner(fortressPos: BlockPos, player: ServerPlayerEntity) {
+        if (owners[fortressPos]?.uuid == player.uuid)
+            owners.remove(fortressPos)
+    }
+
+}
@@ -0,0 +1,147 @@
+package net.remmintan.mods.minefortress.core.services
+
+import net.minecraft.block.entity.BlockEntity
+import net.minecraft.registry.RegistryKey
+import net.minecraft.server.world.ServerWorld
+import net.minecraft.util.math.BlockBox
+import net.minecraft.util.math.BlockPos
+import net.minecraft.util.math.ChunkPos
+import net.minecraft.world.World
+import net.remmintan.mods.minefortress.core.interfaces.server.IFortressHolder
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Server-wide index of the loaded fortresses. Every fortress is bucketed into the 64x64 regions
+ * covered by its footprint, so spatial queries only look at a few buckets instead of the world.
+ */
+object FortressRegistry {
+
+    private const val REGION_SHIFT = 6
+
+    private val worlds = ConcurrentHashMap<RegistryKey<World>, WorldFortresses>()
+
+    fun register(world: ServerWorld, center: BlockPos, holder: IFortressHolder) {
+        getWorldFortresses(world).add(center.toImmutable(), holder)
+    }
+
+    fun unregister(world: ServerWorld, center: BlockPos) {
+        worlds[world.registryKey]?.remove(center)
+    }
+
+    fun updateFootprint(world: ServerWorld, center: BlockPos, footprint: BlockBox) {
+        worlds[world.registryKey]?.updateFootprint(center, footprint)
+    }
+
+    /**
+     * Returns the loaded fortress with the given center. Falls back to the block entity lookup
+     * if the campfire wasn't registered yet.
+     */
+    fun getHolder(world: ServerWorld, center: BlockPos): IFortressHolder? {
+        val cached = worlds[world.registryKey]?.get(center)
+        if (cached != null && isLoaded(cached)) return cached
+        return world.getBlockEntity(center) as? IFortressHolder
+    }
+
+    fun isLoaded(holder: IFortressHolder) = (holder as? BlockEntity)?.isRemoved != true
+
+    /**
+     * Finds the fortress which footprint is the closest (horizontally) to the given position
+     * and is not further than the radius.
+     */
+    fun findNearest(world: ServerWorld, pos: BlockPos, radius: Int): IFortressHolder? {
+        return worlds[world.registryKey]?.findNearest(pos, radius)
+    }
+
+    fun clear() {
+        worlds.clear()
+    }
+
+    private fun getWorldFortresses(world: ServerWorld) =
+        worlds.computeIfAbsent(world.registryKey) { WorldFortresses() }
+
+    private class Entry(val center: BlockPos, val holder: IFortressHolder) {
+        var footprint: BlockBox = BlockBox(center)
+
+        fun squaredHorizontalDistance(pos: BlockPos): Long {
+            val dx = distanceToRange(pos.x, footprint.minX, footprint.maxX).toLong()
+            val dz = distanceToRange(pos.z, footprint.minZ, footprint.maxZ).toLong()
+            return dx * dx + dz * dz
+        }
+
+        private fun distanceToRange(value: Int, min: Int, max: Int) =
+            if (value < min) min - value else if (value > max) value - max else 0
+    }
+
+    private class WorldFortresses {
+        private val entries = HashMap<BlockPos, Entry>()
+        private val regions = HashMap<Long, MutableSet<Entry>>()
+
+        fun add(center: BlockPos, holder: IFortressHolder) {
+            val existing = entries[center]
+            if (existing?.holder === holder) return
+            remove(center)
+
+            val entry = Entry(center, holder)
+            entries[center] = entry
+            index(entry)
+        }
+
+        fun get(center: BlockPos) = entries[center]?.holder
+
+        fun remove(center: BlockPos) {
+            entries.remove(center)?.let { unindex(it) }
+        }
+
+        fun updateFootprint(center: BlockPos, footprint: BlockBox) {
+            val entry = entries[center] ?: return
+            if (entry.footprint == footprint) return
+            unindex(entry)
+            entry.footprint = footprint
+            index(entry)
+        }
+
+        fun findNearest(pos: BlockPos, radius: Int): IFortressHolder? {
+            val squaredRadius = radius.toLong() * radius.toLong()
+            var nearest: Entry? = null
+            var nearestDistance = Long.MAX_VALUE
+
+            forEachRegion(pos.x - radius, pos.z - radius, pos.x + radius, pos.z + radius) { key ->
+                regions[key]?.forEach {
+                    val distance = it.squaredHorizontalDistance(pos)
+                    if (distance <= squaredRadius && distance < nearestDistance) {
+                        nearest = it
+                        nearestDistance = distance
+                    }
+                }
+            }
+
+            return nearest?.holder
+        }
+
+        private fun index(entry: Entry) {
+            val box = entry.footprint
+            forEachRegion(box.minX, box.minZ, box.maxX, box.maxZ) { key ->
+                regions.computeIfAbsent(key) { HashSet() }.add(entry)
+            }
+        }
+
+        private fun unindex(entry: Entry) {
+            val box = entry.footprint
+            forEachRegion(box.minX, box.minZ, box.maxX, box.maxZ) { key ->
+                regions[key]?.let {
+                    it.remove(entry)
+                    if (it.isEmpty()) regions.remove(key)
+                }
+            }
+        }
+
+        private inline fun forEachRegion(minX: Int, minZ: Int, maxX: Int, maxZ: Int, action: (Long) -> Unit) {
+            for (regionX in (minX shr REGION_SHIFT)..(maxX shr REGION_SHIFT)) {
+                for (regionZ in (minZ shr REGION_SHIFT)..(maxZ shr REGION_SHIFT)) {
+                    action(ChunkPos.toLong(regionX, regionZ))
+                }
+            }
+        }
+    }
+
+}
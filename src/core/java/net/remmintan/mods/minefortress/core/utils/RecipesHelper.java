@@ -0,0 +1,25 @@
+package net.remmintan.mods.minefortress.core.utils;
+
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.recipe.RecipeType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public final class RecipesHelper {
+
+    private RecipesHelper() {}
+
+    /**
+     * The recipes are in the same order on the server and on the client, so a recipe can be sent as its index.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static List<RecipeEntry<?>> getSortedRecipes(RecipeManager recipeManager, RecipeType<?> type) {
+        final List<RecipeEntry<?>> recipes = new ArrayList<>(recipeManager.listAllOfType((RecipeType) type));
+        recipes.sort(Comparator.comparing(RecipeEntry::id));
+        return recipes;
+    }
+
+}
@@ -10,6 +10,7 @@ import net.remmintan.mods.minefortress.core.interfaces.server.IFortressHolder
 import net.remmintan.mods.minefortress.core.interfaces.server.IFortressServer
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerFortressManager
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider
+import net.remmintan.mods.minefortress.core.services.FortressRegistry
 
 fun MinecraftServer.isSurvivalFortress(): Boolean {
     return (this as IFortressServer)._FortressGamemode == FortressGamemode.SURVIVAL
@@ -25,7 +26,7 @@ fun MinecraftServer.sendMessageToFortressOwner(fortressPos: BlockPos, message: S
 }
 
 private fun MinecraftServer.getFortressHolder(fortressPos: BlockPos) =
-    this.overworld.getBlockEntity(fortressPos) as? IFortressHolder
+    FortressRegistry.getHolder(this.overworld, fortressPos)
 
 fun MinecraftServer.fortressOwnerHasScreenOpened(
     fortressPos: BlockPos,
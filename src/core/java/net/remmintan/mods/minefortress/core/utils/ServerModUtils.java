@@ -11,6 +11,7 @@ import net.remmintan.mods.minefortress.core.interfaces.entities.player.IFortress
 import net.remmintan.mods.minefortress.core.interfaces.server.IFortressHolder;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerFortressManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
+import net.remmintan.mods.minefortress.core.services.FortressRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,12 +36,12 @@ public final class ServerModUtils {
 
     @NotNull
     public static Optional<IServerManagersProvider> getManagersProvider(IFortressAwareEntity entity) {
-        return getManagersProvider(entity.getServer(), entity.getFortressPos());
+        return entity.getFortressHolder().map(IFortressHolder::getServerManagersProvider);
     }
 
     @NotNull
     public static Optional<IServerFortressManager> getFortressManager(IFortressAwareEntity entity) {
-        return getFortressManager(entity.getServer(), entity.getFortressPos());
+        return entity.getFortressHolder().map(IFortressHolder::getServerFortressManager);
     }
 
     @NotNull
@@ -53,6 +54,12 @@ public final class ServerModUtils {
         return getFortressHolder(server, fortressCenter).map(IFortressHolder::getServerFortressManager);
     }
 
+    @NotNull
+    public static Optional<IServerManagersProvider> findNearestManagersProvider(ServerWorld world, BlockPos pos, int radius) {
+        return Optional.ofNullable(FortressRegistry.INSTANCE.findNearest(world, pos, radius))
+                .map(IFortressHolder::getServerManagersProvider);
+    }
+
     public static void addDropToTheResourceManager(ServerWorld w, BlockPos pos, IFortressAwareEntity c) {
         if (ServerExtensionsKt.isSurvivalFortress(c.getServer())) {
             getManagersProvider(c).ifPresent(it -> {
@@ -73,12 +80,8 @@ public final class ServerModUtils {
     }
 
     @NotNull
-    private static Optional<IFortressHolder> getFortressHolder(@Nullable MinecraftServer server, @Nullable BlockPos p) {
+    public static Optional<IFortressHolder> getFortressHolder(@Nullable MinecraftServer server, @Nullable BlockPos p) {
         if (server == null || p == null) return Optional.empty();
-        final var blockEntity = server.getOverworld().getBlockEntity(p);
-        if (blockEntity instanceof IFortressHolder holder) {
-            return Optional.of(holder);
-        }
-        return Optional.empty();
+        return Optional.ofNullable(FortressRegistry.INSTANCE.getHolder(server.getOverworld(), p));
     }
 }
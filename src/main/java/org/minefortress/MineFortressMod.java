@@ -21,6 +21,7 @@ import org.minefortress.fortress.ServerManagersProvider;
 import org.minefortress.fortress.resources.gui.craft.FortressCraftingScreenHandler;
 import org.minefortress.fortress.resources.gui.smelt.FortressFurnaceScreenHandler;
 import org.minefortress.registries.FortressEntities;
+import org.minefortress.registries.FortressGameRules;
 import org.minefortress.registries.FortressItems;
 import org.minefortress.registries.events.FortressServerEvents;
 
@@ -32,6 +33,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class MineFortressMod implements ModInitializer {
 
     public static final String BLUEPRINTS_FOLDER_NAME = "minefortress-blueprints";
+    public static final String BLUEPRINTS_CACHE_FOLDER_NAME = "minefortress-blueprints-cache";
     public static final String BLUEPRINTS_EXTENSION = ".zip";
     public static final String MOD_ID = "minefortress";
 
@@ -63,6 +65,7 @@ public class MineFortressMod implements ModInitializer {
         FortressBlocks.register();
         FortressEntities.register();
         FortressItems.register();
+        FortressGameRules.register();
         NetworkReaders.register();
 
         CommandsManager.registerCommands();
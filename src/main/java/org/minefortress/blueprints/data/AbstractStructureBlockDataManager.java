@@ -12,12 +12,12 @@ import net.minecraft.structure.StructureTemplate;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IBlockDataProvider;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 abstract class AbstractStructureBlockDataManager implements IBlockDataProvider {
 
@@ -46,43 +46,57 @@ abstract class AbstractStructureBlockDataManager implements IBlockDataProvider {
     protected abstract Optional<StructureTemplate> getStructure(String blueprintId);
     protected abstract IStructureBlockData buildStructure(StructureTemplate structure, BlockRotation rotation, int floorLevel);
 
+    /**
+     * Creates the blueprint builder with the {@link BlueprintDataLayer#GENERAL} layer filled with the structure blocks.
+     */
     @NotNull
-    protected static Map<BlockPos, BlockState> getStrcutureData(StructureTemplate structure, BlockRotation rotation, BlockPos pivot) {
+    protected static DenseStructureBlockData.Builder getStructureData(StructureTemplate structure, BlockRotation rotation, SizeAndPivot sizeAndPivot) {
         final StructurePlacementData placementData = new StructurePlacementData().setRotation(rotation);
         final List<StructureTemplate.StructureBlockInfo> blockInfos = placementData
-                .getRandomBlockInfos(structure.blockInfoLists, pivot)
+                .getRandomBlockInfos(structure.blockInfoLists, sizeAndPivot.pivot())
                 .getAll();
-        placementData.setPosition(pivot);
+        placementData.setPosition(sizeAndPivot.pivot());
 
-        final var convertedStructureBlocks = blockInfos
-                .stream()
-                .map(AbstractStructureBlockDataManager::convertJigsawBlock)
-                .toList();
+        final int blocksCount = blockInfos.size();
+        final var positions = new BlockPos[blocksCount];
+        final var states = new BlockState[blocksCount];
 
         int minX = Integer.MAX_VALUE;
         int minY = Integer.MAX_VALUE;
         int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
 
-        for(var structureBlock : convertedStructureBlocks) {
+        for (int i = 0; i < blocksCount; i++) {
+            final var structureBlock = convertJigsawBlock(blockInfos.get(i));
             final var transformedPos = StructureTemplate.transform(placementData, structureBlock.pos);
-            if(transformedPos.getX() < minX) {
-                minX = transformedPos.getX();
-            }
-            if(transformedPos.getY() < minY) {
-                minY = transformedPos.getY();
-            }
-            if(transformedPos.getZ() < minZ) {
-                minZ = transformedPos.getZ();
-            }
+            positions[i] = transformedPos;
+            states[i] = structureBlock.state.rotate(rotation);
+
+            minX = Math.min(minX, transformedPos.getX());
+            minY = Math.min(minY, transformedPos.getY());
+            minZ = Math.min(minZ, transformedPos.getZ());
+            maxX = Math.max(maxX, transformedPos.getX());
+            maxY = Math.max(maxY, transformedPos.getY());
+            maxZ = Math.max(maxZ, transformedPos.getZ());
+        }
+
+        final var size = sizeAndPivot.size();
+        // the rotated size should always fit the blocks, but don't rely on it when allocating the cells
+        final var cellsSize = blocksCount == 0 ? size : new Vec3i(
+                Math.max(size.getX(), maxX - minX + 1),
+                Math.max(size.getY(), maxY - minY + 1),
+                Math.max(size.getZ(), maxZ - minZ + 1)
+        );
+
+        final var builder = DenseStructureBlockData.builder(size, cellsSize)
+                .addLayer(BlueprintDataLayer.GENERAL);
+        for (int i = 0; i < blocksCount; i++) {
+            final var pos = positions[i];
+            builder.setBlock(BlueprintDataLayer.GENERAL, pos.getX() - minX, pos.getY() - minY, pos.getZ() - minZ, states[i]);
         }
-        final var minPos = new BlockPos(minX, minY, minZ);
-
-        return convertedStructureBlocks
-                .stream()
-                .collect(Collectors.toMap(
-                        inf -> StructureTemplate.transform(placementData, inf.pos).subtract(minPos),
-                        inf -> inf.state.rotate(rotation)
-                ));
+        return builder;
     }
 
     @NotNull
@@ -1,12 +1,9 @@
 package org.minefortress.blueprints.data;
 
-import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.registry.Registries;
 import net.minecraft.structure.StructureTemplate;
 import net.minecraft.util.BlockRotation;
-import net.minecraft.util.math.BlockPos;
-import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintsTagsKeeper;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData;
 
@@ -34,13 +31,7 @@ public final class ClientStructureBlockDataProvider extends AbstractStructureBlo
 
     public static IStructureBlockData buildStructureForClient(StructureTemplate structure, BlockRotation rotation) {
         final var sizeAndPivot = getSizeAndPivot(structure, rotation);
-        final var size = sizeAndPivot.size();
-        final var pivot = sizeAndPivot.pivot();
-
-        final Map<BlockPos, BlockState> structureData = getStrcutureData(structure, rotation, pivot);
-        return StructureBlockData
-                .withBlueprintSize(size)
-                .setLayer(BlueprintDataLayer.GENERAL, structureData).build();
+        return getStructureData(structure, rotation, sizeAndPivot).build();
     }
 
     @Override
@@ -0,0 +1,340 @@
+package org.minefortress.blueprints.data;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.item.Item;
+import net.minecraft.registry.tag.ItemTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3i;
+import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer;
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData;
+import net.remmintan.mods.minefortress.core.utils.SimilarItemsHelper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Stores the blueprint as one palette index per cell of the blueprint box. Every layer is a bit mask over the
+ * same cells, so the layers share the block states instead of keeping their own maps.
+ * Cells are ordered bottom-up: {@code (y * sizeZ + z) * sizeX + x}.
+ */
+public final class DenseStructureBlockData implements IStructureBlockData {
+
+    private static final int EMPTY = 0;
+    private static final int MAX_PALETTE_SIZE = 0xFFFF;
+
+    private final Vec3i size;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Object2IntMap<BlockState> paletteIndexes = new Object2IntOpenHashMap<>();
+    // palette index + 1, EMPTY if the blueprint has no block in the cell
+    private final short[] cells;
+    private final Map<BlueprintDataLayer, Layer> layers = new EnumMap<>(BlueprintDataLayer.class);
+
+    private List<ItemInfo> stacks;
+
+    private DenseStructureBlockData(Vec3i size, Vec3i cellsSize) {
+        this.size = size;
+        this.sizeX = cellsSize.getX();
+        this.sizeY = cellsSize.getY();
+        this.sizeZ = cellsSize.getZ();
+        this.cells = new short[sizeX * sizeY * sizeZ];
+        paletteIndexes.defaultReturnValue(-1);
+    }
+
+    @Override
+    public boolean hasLayer(BlueprintDataLayer layer) {
+        return layers.containsKey(layer);
+    }
+
+    /**
+     * Returns a read-only view of the layer. Prefer {@link #forEachBlock} and {@link #getBlockState} in hot paths,
+     * they don't create a {@link BlockPos} per block.
+     */
+    @Override
+    public Map<BlockPos, BlockState> getLayer(BlueprintDataLayer layer) {
+        final var layerData = layers.get(layer);
+        if (layerData == null) return null;
+        if (layerData.view == null)
+            layerData.view = new LayerView(layerData);
+        return layerData.view;
+    }
+
+    @Override
+    public Vec3i getSize() {
+        return size;
+    }
+
+    @Override
+    public List<ItemInfo> getStacks() {
+        return stacks;
+    }
+
+    @Override
+    public void forEachBlock(BlueprintDataLayer layer, BlockVisitor visitor) {
+        final var layerData = layers.get(layer);
+        if (layerData == null) return;
+        final var mask = layerData.mask;
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            final int x = i % sizeX;
+            final int rest = i / sizeX;
+            visitor.visit(x, rest / sizeZ, rest % sizeZ, getState(layerData, i));
+        }
+    }
+
+    @Override
+    @Nullable
+    public BlockState getBlockState(BlueprintDataLayer layer, int x, int y, int z) {
+        final var layerData = layers.get(layer);
+        if (layerData == null || !contains(x, y, z)) return null;
+        final int index = index(x, y, z);
+        return layerData.mask.get(index) ? getState(layerData, index) : null;
+    }
+
+    private boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    private int index(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    private BlockState getState(Layer layer, int index) {
+        if (layer.overrides != null) {
+            final var override = layer.overrides.get(index);
+            if (override != null) return override;
+        }
+        return getCellState(index);
+    }
+
+    @Nullable
+    private BlockState getCellState(int index) {
+        final int paletteIndex = Short.toUnsignedInt(cells[index]);
+        return paletteIndex == EMPTY ? null : palette.get(paletteIndex - 1);
+    }
+
+    private int getOrAddToPalette(BlockState state) {
+        int paletteIndex = paletteIndexes.getInt(state);
+        if (paletteIndex < 0) {
+            if (palette.size() >= MAX_PALETTE_SIZE)
+                throw new IllegalStateException("Blueprint has too many different block states");
+            palette.add(state);
+            paletteIndex = palette.size();
+            paletteIndexes.put(state, paletteIndex);
+        }
+        return paletteIndex;
+    }
+
+    private List<ItemInfo> calculateStacks() {
+        final var layersToCount = layers.containsKey(BlueprintDataLayer.GENERAL) ?
+                List.of(layers.get(BlueprintDataLayer.GENERAL)) : layers.values();
+
+        final var itemsCount = new Object2IntOpenHashMap<Item>();
+        for (Layer layer : layersToCount) {
+            final var paletteCounts = new int[palette.size()];
+            final var mask = layer.mask;
+            for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+                final var override = layer.overrides == null ? null : layer.overrides.get(i);
+                if (override != null)
+                    itemsCount.addTo(override.getBlock().asItem(), 1);
+                else
+                    paletteCounts[Short.toUnsignedInt(cells[i]) - 1]++;
+            }
+            for (int i = 0; i < paletteCounts.length; i++) {
+                if (paletteCounts[i] > 0)
+                    itemsCount.addTo(palette.get(i).getBlock().asItem(), paletteCounts[i]);
+            }
+        }
+
+        return itemsCount.object2IntEntrySet()
+                .stream()
+                .filter(it -> it.getIntValue() > 0 && !SimilarItemsHelper.isIgnorable(it.getKey()))
+                .map(it -> new ItemInfo(it.getKey(), getItemAmount(it.getKey(), it.getIntValue())))
+                .toList();
+    }
+
+    private static int getItemAmount(Item item, int count) {
+        final var defaultStack = item.getDefaultStack();
+        final var shouldBeDivided = defaultStack.isIn(ItemTags.BEDS) || defaultStack.isIn(ItemTags.DOORS);
+        return shouldBeDivided ? count / 2 : count;
+    }
+
+    /**
+     * Builds the block data from the layers with the coordinates relative to the blueprint origin, used to restore
+     * the saved data. The cells are extended if some of the blocks don't fit the blueprint size.
+     */
+    public static IStructureBlockData fromLayers(Vec3i size, Map<BlueprintDataLayer, Map<BlockPos, BlockState>> layers) {
+        int maxX = size.getX();
+        int maxY = size.getY();
+        int maxZ = size.getZ();
+        for (Map<BlockPos, BlockState> layer : layers.values()) {
+            for (BlockPos pos : layer.keySet()) {
+                maxX = Math.max(maxX, pos.getX() + 1);
+                maxY = Math.max(maxY, pos.getY() + 1);
+                maxZ = Math.max(maxZ, pos.getZ() + 1);
+            }
+        }
+
+        final var builder = builder(size, new Vec3i(maxX, maxY, maxZ));
+        layers.forEach((layer, blocks) -> {
+            builder.addLayer(layer);
+            blocks.forEach((pos, state) -> builder.setBlock(layer, pos.getX(), pos.getY(), pos.getZ(), state));
+        });
+        return builder.build();
+    }
+
+    static Builder builder(Vec3i blueprintSize, Vec3i cellsSize) {
+        return new Builder(blueprintSize, cellsSize);
+    }
+
+    static final class Builder {
+
+        private final DenseStructureBlockData instance;
+
+        private Builder(Vec3i blueprintSize, Vec3i cellsSize) {
+            instance = new DenseStructureBlockData(blueprintSize, cellsSize);
+        }
+
+        int getSizeX() {
+            return instance.sizeX;
+        }
+
+        int getSizeY() {
+            return instance.sizeY;
+        }
+
+        int getSizeZ() {
+            return instance.sizeZ;
+        }
+
+        Builder addLayer(BlueprintDataLayer layer) {
+            instance.layers.computeIfAbsent(layer, it -> new Layer());
+            return this;
+        }
+
+        /**
+         * Puts the block into the layer. The first state put into a cell becomes the cell state, layers putting
+         * a different state into the same cell keep it as an override.
+         */
+        void setBlock(BlueprintDataLayer layer, int x, int y, int z, BlockState state) {
+            if (!instance.contains(x, y, z))
+                throw new IllegalArgumentException("Block " + x + " " + y + " " + z + " is outside of the blueprint");
+
+            final int index = instance.index(x, y, z);
+            final var layerData = instance.layers.computeIfAbsent(layer, it -> new Layer());
+            final var cellState = instance.getCellState(index);
+            if (cellState == null) {
+                instance.cells[index] = (short) instance.getOrAddToPalette(state);
+            } else if (cellState != state) {
+                if (layerData.overrides == null)
+                    layerData.overrides = new Int2ObjectOpenHashMap<>();
+                layerData.overrides.put(index, state);
+            }
+            layerData.mask.set(index);
+        }
+
+        /**
+         * @return the state of the cell regardless of the layers or null if the cell is empty
+         */
+        @Nullable
+        BlockState getBlockState(int x, int y, int z) {
+            return instance.contains(x, y, z) ? instance.getCellState(instance.index(x, y, z)) : null;
+        }
+
+        IStructureBlockData build() {
+            instance.stacks = instance.calculateStacks();
+            return instance;
+        }
+    }
+
+    private static final class Layer {
+        private final BitSet mask = new BitSet();
+        private Int2ObjectMap<BlockState> overrides;
+        private LayerView view;
+    }
+
+    private final class LayerView extends AbstractMap<BlockPos, BlockState> {
+
+        private final Layer layer;
+        private final int size;
+        private Set<Entry<BlockPos, BlockState>> entrySet;
+
+        private LayerView(Layer layer) {
+            this.layer = layer;
+            this.size = layer.mask.cardinality();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public BlockState get(Object key) {
+            if (!(key instanceof BlockPos pos) || !contains(pos.getX(), pos.getY(), pos.getZ())) return null;
+            final int index = index(pos.getX(), pos.getY(), pos.getZ());
+            return layer.mask.get(index) ? getState(layer, index) : null;
+        }
+
+        @NotNull
+        @Override
+        public Set<Entry<BlockPos, BlockState>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<BlockPos, BlockState>> iterator() {
+                        return new LayerIterator(layer);
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+
+    private final class LayerIterator implements Iterator<Map.Entry<BlockPos, BlockState>> {
+
+        private final Layer layer;
+        private int next;
+
+        private LayerIterator(Layer layer) {
+            this.layer = layer;
+            this.next = layer.mask.nextSetBit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public Map.Entry<BlockPos, BlockState> next() {
+            if (next < 0) throw new NoSuchElementException();
+            final int index = next;
+            next = layer.mask.nextSetBit(index + 1);
+
+            final int x = index % sizeX;
+            final int rest = index / sizeX;
+            final var pos = new BlockPos(x, rest / sizeZ, rest % sizeZ);
+            return new AbstractMap.SimpleImmutableEntry<>(pos, getState(layer, index));
+        }
+    }
+
+}
@@ -10,16 +10,12 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.structure.StructureTemplate;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IServerStructureBlockDataManager;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData;
 import org.minefortress.MineFortressMod;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public final class ServerStructureBlockDataManager extends AbstractStructureBlockDataManager implements IServerStructureBlockDataManager {
 
@@ -65,38 +61,21 @@ public final class ServerStructureBlockDataManager extends AbstractStructureBloc
     @Override
     protected IStructureBlockData buildStructure(StructureTemplate structure, BlockRotation rotation, int floorLevel) {
         final var sizeAndPivot = getSizeAndPivot(structure, rotation);
-        final var size = sizeAndPivot.size();
-        final var pivot = sizeAndPivot.pivot();
-
-        final Map<BlockPos, BlockState> structureData = getStrcutureData(structure, rotation, pivot);
-
-        final Map<BlockPos, BlockState> structureEntityData = structureData.entrySet()
-            .stream()
-            .filter(entry -> entry.getValue().getBlock() instanceof BlockEntityProvider || !entry.getValue().getFluidState().isEmpty() || entry.getValue().isIn(BlockTags.TRAPDOORS))
-            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        final Map<BlockPos, BlockState> allBlocksWithoutEntities = structureData.entrySet()
-            .stream()
-            .filter(entry -> {
-                final var state = entry.getValue();
-                return !(state.getBlock() instanceof BlockEntityProvider) && state.getFluidState().isEmpty() && !state.isIn(BlockTags.TRAPDOORS);
-            })
-            .filter(entry -> {
-                final BlockPos pos = entry.getKey();
-                final BlockState state = entry.getValue();
-                return pos.getY() < floorLevel || !state.isAir();
-            })
-            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        final Map<BlockPos, BlockState> manualData = new HashMap<>();
-        final Map<BlockPos, BlockState> automaticData = new HashMap<>();
-
-        for(int x = 0; x < size.getX(); x++) {
-            for (int z = 0; z < size.getZ(); z++) {
+        final var builder = getStructureData(structure, rotation, sizeAndPivot)
+                .addLayer(BlueprintDataLayer.MANUAL)
+                .addLayer(BlueprintDataLayer.AUTOMATIC)
+                .addLayer(BlueprintDataLayer.ENTITY);
+
+        for(int x = 0; x < builder.getSizeX(); x++) {
+            for (int z = 0; z < builder.getSizeZ(); z++) {
                 boolean isManual = true;
-                for (int y = 0; y < size.getY(); y++) {
-                    final BlockPos pos = new BlockPos(x, y, z);
-                    boolean contains = allBlocksWithoutEntities.containsKey(pos);
+                for (int y = 0; y < builder.getSizeY(); y++) {
+                    final BlockState state = builder.getBlockState(x, y, z);
+                    final boolean isEntity = state != null && isEntityBlock(state);
+                    if(isEntity)
+                        builder.setBlock(BlueprintDataLayer.ENTITY, x, y, z, state);
+
+                    final boolean contains = state != null && !isEntity && (y < floorLevel || !state.isAir());
                     if(!contains && y >= floorLevel) {
                         isManual = false;
                         continue;
@@ -104,23 +83,21 @@ public final class ServerStructureBlockDataManager extends AbstractStructureBloc
 
                     if(isManual) {
                         if(contains)
-                            manualData.put(pos, allBlocksWithoutEntities.get(pos));
-                        else if(structureEntityData.containsKey(pos)) {
-                            manualData.put(pos, Blocks.AIR.getDefaultState());
+                            builder.setBlock(BlueprintDataLayer.MANUAL, x, y, z, state);
+                        else if(isEntity) {
+                            builder.setBlock(BlueprintDataLayer.MANUAL, x, y, z, Blocks.AIR.getDefaultState());
                         }
-                    } else {
-                        automaticData.put(pos, allBlocksWithoutEntities.get(pos));
+                    } else if(contains) {
+                        builder.setBlock(BlueprintDataLayer.AUTOMATIC, x, y, z, state);
                     }
                 }
             }
         }
 
-        return StructureBlockData
-                .withBlueprintSize(size)
-                .setLayer(BlueprintDataLayer.GENERAL, structureData)
-                .setLayer(BlueprintDataLayer.MANUAL, manualData)
-                .setLayer(BlueprintDataLayer.AUTOMATIC, automaticData)
-                .setLayer(BlueprintDataLayer.ENTITY, structureEntityData)
-                .build();
+        return builder.build();
+    }
+
+    private static boolean isEntityBlock(BlockState state) {
+        return state.getBlock() instanceof BlockEntityProvider || !state.getFluidState().isEmpty() || state.isIn(BlockTags.TRAPDOORS);
     }
 }
\ No newline at end of file
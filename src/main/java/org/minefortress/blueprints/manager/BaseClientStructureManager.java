@@ -15,10 +15,7 @@ import net.remmintan.mods.minefortress.core.utils.ClientExtensionsKt;
 import net.remmintan.mods.minefortress.core.utils.ClientModUtils;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public abstract class BaseClientStructureManager implements IStructureRenderInfoProvider {
 
@@ -105,14 +102,6 @@ public abstract class BaseClientStructureManager implements IStructureRenderInfo
             return;
         }
 
-        // Get all non-air block positions from the blueprint in its local coordinate system
-        final Set<BlockPos> blueprintNonAirLocalPositions = blockData.getLayer(BlueprintDataLayer.GENERAL)
-                .entrySet()
-                .stream()
-                .filter(entry -> !entry.getValue().isAir())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-
         final int floorLevel = selectedStructure.getFloorLevel();
         final Vec3i blueprintSize = blockData.getSize();
 
@@ -139,64 +128,34 @@ public abstract class BaseClientStructureManager implements IStructureRenderInfo
             }
         }
 
-        // 2. NEW: Check for air directly under the blueprint's "floor" blocks.
-        // "Floor" blocks are non-air blueprint blocks at localY == floorLevel.
-        // Their world position is structureBuildPos.add(localX, 0, localZ)
-        // because structureBuildPos.getY() is already the world Y-level of the floor.
-        final boolean airUnderneathFloorBlocks = blueprintNonAirLocalPositions.stream()
-                .filter(bpLocalPos -> bpLocalPos.getY() == floorLevel) // Filter for blueprint's floor surface blocks
-                .map(bpFloorLocalPos -> {
-                    // Calculate world position of this blueprint floor block
-                    BlockPos worldFloorBlockPos = structureBuildPos.add(
-                            bpFloorLocalPos.getX(),
-                            0, // Y-offset is 0 because structureBuildPos.getY() is the world Y for floorLevel
-                            bpFloorLocalPos.getZ()
-                    );
-                    return worldFloorBlockPos.down(); // Get the position directly under it in the world
-                })
-                .anyMatch(posUnderFloor -> {
-                    // client.world.getBlockState handles Y bounds (returns AIR or VOID_AIR, both .isAir())
-                    return BuildingHelper.canPlaceBlock(this.client.world, posUnderFloor);
-                });
-
-        if (airUnderneathFloorBlocks) {
-            cantBuild = true;
-            return;
-        }
-
-        // 3. Check blocks AT OR ABOVE the blueprint's floor level for collisions
+        // 2-4. One pass over the non-air blueprint blocks, the positions are relative to the blueprint origin:
+        // 2. the "floor" blocks (localY == floorLevel) must not stand on air or replaceable blocks,
+        // 3. the blocks at or above the floor must not collide, the blocks of the upgraded building are allowed,
+        // 4. the blocks below the floor must be placed into solid, non-replaceable ground.
         final boolean isUpgrading = (this instanceof ClientBlueprintManager cbm) && cbm.isUpgrading();
         final BlockBox upgradingBox = isUpgrading ? ((ClientBlueprintManager) this).getUpgradingBuildingBox() : null;
 
-        final boolean partAtOrAboveFloorCollides = blueprintNonAirLocalPositions.stream()
-                .filter(bpLocalPos -> bpLocalPos.getY() >= floorLevel) // Consider blueprint blocks at or above its floor
-                .map(bpLocalPos -> structureBuildPos.add(bpLocalPos.getX(), bpLocalPos.getY() - floorLevel, bpLocalPos.getZ())) // Map to world pos
-                .anyMatch(worldPos -> {
-                    boolean currentCanPlace = BuildingHelper.canPlaceBlock(client.world, worldPos);
-                    if (isUpgrading && upgradingBox != null && upgradingBox.contains(worldPos)) {
-                        // If upgrading, and this block is part of the existing structure, it's "placeable" in context.
-                        currentCanPlace = true;
-                    }
-                    return !currentCanPlace; // Collision if cannot place (and not an allowed overlap during upgrade)
-                });
-
-        if (partAtOrAboveFloorCollides) {
-            cantBuild = true;
-            return;
-        }
-
-        // 4. Check blocks BELOW the blueprint's floor level (foundation/sub-structure parts)
-        // Original logic: These parts must NOT be placeable into air/replaceable blocks,
-        // i.e., they must be placed into solid, non-replaceable ground.
-        final boolean partBelowFloorInvalid = blueprintNonAirLocalPositions.stream()
-                .filter(bpLocalPos -> bpLocalPos.getY() < floorLevel) // Consider blueprint blocks below its floor
-                .map(bpLocalPos -> structureBuildPos.add(bpLocalPos.getX(), bpLocalPos.getY() - floorLevel, bpLocalPos.getZ())) // Map to world pos
-                .anyMatch(worldPos -> BuildingHelper.canPlaceBlock(client.world, worldPos)); // Invalid if it *can* be placed (i.e., targets air/replaceable)
+        final var world = this.client.world;
+        final var worldPos = new BlockPos.Mutable();
+        final boolean[] invalid = {false};
+        blockData.forEachBlock(BlueprintDataLayer.GENERAL, (x, y, z, state) -> {
+            if (invalid[0] || state.isAir()) return;
+            // structureBuildPos.getY() is the world Y for the floorLevel
+            worldPos.set(structureBuildPos.getX() + x, structureBuildPos.getY() + y - floorLevel, structureBuildPos.getZ() + z);
+
+            if (y == floorLevel && BuildingHelper.canPlaceBlock(world, worldPos.down())) {
+                invalid[0] = true;
+            } else if (y >= floorLevel) {
+                final boolean allowedOverlap = upgradingBox != null && upgradingBox.contains(worldPos);
+                if (!allowedOverlap && !BuildingHelper.canPlaceBlock(world, worldPos))
+                    invalid[0] = true;
+            } else if (BuildingHelper.canPlaceBlock(world, worldPos)) {
+                invalid[0] = true;
+            }
+        });
 
-        if (partBelowFloorInvalid) {
+        if (invalid[0]) {
             cantBuild = true;
-            // Original code does not return here, allowing cantBuild to be set and fall through.
-            // This is fine as canBuild() will reflect the final state of cantBuild.
         }
     }
 
@@ -218,12 +177,6 @@ public abstract class BaseClientStructureManager implements IStructureRenderInfo
             intersectsUpgradingBuilding = false;
             return;
         }
-        final Set<BlockPos> blueprintDataPositions = blockData.getLayer(BlueprintDataLayer.GENERAL)
-                .entrySet()
-                .stream()
-                .filter(entry -> !entry.getValue().isAir())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
         final int floorLevel = selectedStructure.getFloorLevel();
         final BlockBox upgradingBuildingBox = cbm.getUpgradingBuildingBox();
         if (upgradingBuildingBox == null) { // Should ideally not happen if cbm.isUpgrading() is true and a valid building is targeted
@@ -231,10 +184,14 @@ public abstract class BaseClientStructureManager implements IStructureRenderInfo
             return;
         }
 
-        intersectsUpgradingBuilding = blueprintDataPositions.stream()
-                .filter(bpLocalPos -> bpLocalPos.getY() >= floorLevel)
-                .map(bpLocalPos -> structureBuildPos.add(bpLocalPos.getX(), bpLocalPos.getY() - floorLevel, bpLocalPos.getZ()))
-                .anyMatch(upgradingBuildingBox::contains);
+        final var worldPos = new BlockPos.Mutable();
+        final boolean[] intersects = {false};
+        blockData.forEachBlock(BlueprintDataLayer.GENERAL, (x, y, z, state) -> {
+            if (intersects[0] || state.isAir() || y < floorLevel) return;
+            worldPos.set(structureBuildPos.getX() + x, structureBuildPos.getY() + y - floorLevel, structureBuildPos.getZ() + z);
+            intersects[0] = upgradingBuildingBox.contains(worldPos);
+        });
+        intersectsUpgradingBuilding = intersects[0];
     }
 
     private IStructureBlockData getBlockData() {
@@ -1,14 +1,18 @@
 package org.minefortress.blueprints.manager;
 
+import com.google.common.collect.Iterables;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.ModLogger;
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintManifestDiff;
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintManifestEntry;
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.*;
 import net.remmintan.mods.minefortress.core.interfaces.combat.IClientPawnsSelectionManager;
 import net.remmintan.mods.minefortress.core.utils.ClientModUtils;
+import net.remmintan.mods.minefortress.networking.c2s.C2SRequestBlueprintsPacket;
 import net.remmintan.mods.minefortress.networking.c2s.C2SSetupCampfirePacket;
 import net.remmintan.mods.minefortress.networking.c2s.ServerboundBlueprintTaskPacket;
 import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames;
@@ -17,14 +21,22 @@ import org.jetbrains.annotations.NotNull;
 import org.minefortress.blueprints.data.ClientStructureBlockDataProvider;
 import org.minefortress.interfaces.IFortressMinecraftClient;
 import org.minefortress.renderer.gui.blueprints.BlueprintsScreen;
+import org.minefortress.utils.ModUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class ClientBlueprintManager extends BaseClientStructureManager implements IClientBlueprintManager {
 
     private final MinecraftClient client;
     private final ClientStructureBlockDataProvider blockDataManager = new ClientStructureBlockDataProvider();
     private final IBlueprintMetadataManager blueprintMetadataManager = new BlueprintMetadataManager();
+    private final ClientBlueprintsCache blueprintsCache = new ClientBlueprintsCache(ModUtils.getBlueprintsCacheFolder());
+    // content hashes of the loaded structures by the blueprint id
+    private final Map<String, String> syncedHashes = new HashMap<>();
 
     private BlueprintMetadata selectedStructure;
     private IBlueprintRotation selectedRotation;
@@ -146,7 +158,46 @@ public final class ClientBlueprintManager extends BaseClientStructureManager imp
     }
 
     @Override
-    public void sync(BlueprintMetadata metadata, NbtCompound tag) {
+    public void syncManifest(List<BlueprintManifestEntry> manifest) {
+        final var manifestHashes = new LinkedHashMap<String, String>();
+        final var manifestMetadata = new HashMap<String, BlueprintMetadata>();
+        for (BlueprintManifestEntry entry : manifest) {
+            final var blueprintId = entry.getMetadata().getId();
+            manifestHashes.put(blueprintId, entry.getHash());
+            manifestMetadata.put(blueprintId, entry.getMetadata());
+        }
+
+        final var diff = BlueprintManifestDiff.of(syncedHashes, manifestHashes);
+        if (!diff.getRemoved().isEmpty() || !diff.getChanged().isEmpty())
+            clearStructure();
+        diff.getRemoved().forEach(this::remove);
+        // the structure is the same, but the metadata could have been edited
+        diff.getUnchanged().forEach(it -> blueprintMetadataManager.sync(manifestMetadata.get(it)));
+
+        final var missingBlueprints = new ArrayList<String>();
+        for (String blueprintId : Iterables.concat(diff.getAdded(), diff.getChanged())) {
+            final var metadata = manifestMetadata.get(blueprintId);
+            final var hash = manifestHashes.get(blueprintId);
+            blueprintsCache.read(hash).ifPresentOrElse(
+                    tag -> load(metadata, tag, hash),
+                    () -> missingBlueprints.add(blueprintId)
+            );
+        }
+
+        if (!missingBlueprints.isEmpty()) {
+            final var packet = new C2SRequestBlueprintsPacket(missingBlueprints);
+            FortressClientNetworkHelper.send(C2SRequestBlueprintsPacket.CHANNEL, packet);
+        }
+    }
+
+    @Override
+    public void sync(BlueprintMetadata metadata, NbtCompound tag, String hash) {
+        blueprintsCache.write(hash, tag);
+        load(metadata, tag, hash);
+    }
+
+    private void load(BlueprintMetadata metadata, NbtCompound tag, String hash) {
+        syncedHashes.put(metadata.getId(), hash);
         this.blueprintMetadataManager.sync(metadata);
         blockDataManager.setBlueprint(metadata.getId(), tag);
         blockDataManager.invalidateBlueprint(metadata.getId());
@@ -160,6 +211,7 @@ public final class ClientBlueprintManager extends BaseClientStructureManager imp
 
     @Override
     public void remove(String blueprintId) {
+        syncedHashes.remove(blueprintId);
         blueprintMetadataManager.remove(blueprintId);
         blockDataManager.removeBlueprint(blueprintId);
         blockDataManager.invalidateBlueprint(blueprintId);
@@ -168,6 +220,7 @@ public final class ClientBlueprintManager extends BaseClientStructureManager imp
     @Override
     public void reset() {
         this.clearStructure();
+        this.syncedHashes.clear();
         this.blueprintMetadataManager.reset();
         this.blockDataManager.reset();
         if (client instanceof IFortressMinecraftClient fortressClient) {
@@ -0,0 +1,63 @@
+package org.minefortress.blueprints.manager;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.remmintan.mods.minefortress.core.ModLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the blueprint structures received from the servers on disk. The files are named by the content hash,
+ * so a changed blueprint simply gets a new file and the same structure is shared between the worlds.
+ */
+final class ClientBlueprintsCache {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{16,128}");
+    private static final String EXTENSION = ".nbt";
+
+    private final Path folder;
+
+    ClientBlueprintsCache(Path folder) {
+        this.folder = folder;
+    }
+
+    Optional<NbtCompound> read(String hash) {
+        final var file = getFile(hash);
+        if (file == null || !Files.isRegularFile(file)) return Optional.empty();
+
+        try (var in = Files.newInputStream(file)) {
+            return Optional.of(NbtIo.readCompressed(in));
+        } catch (IOException e) {
+            ModLogger.LOGGER.warn("Can't read cached blueprint {}, it will be downloaded again", hash, e);
+            return Optional.empty();
+        }
+    }
+
+    void write(String hash, NbtCompound structure) {
+        final var file = getFile(hash);
+        if (file == null || Files.isRegularFile(file)) return;
+
+        try {
+            Files.createDirectories(folder);
+            final var tempFile = Files.createTempFile(folder, hash, ".tmp");
+            try (var out = Files.newOutputStream(tempFile)) {
+                NbtIo.writeCompressed(structure, out);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            ModLogger.LOGGER.warn("Can't cache blueprint {}", hash, e);
+        }
+    }
+
+    private Path getFile(String hash) {
+        // the hash comes from the server, don't let it point outside the cache folder
+        if (!HASH_PATTERN.matcher(hash).matches()) return null;
+        return folder.resolve(hash + EXTENSION);
+    }
+
+}
@@ -1,13 +1,18 @@
 package org.minefortress.blueprints.manager;
 
+import com.google.common.hash.Hashing;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.remmintan.mods.minefortress.core.ModLogger;
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintManifestEntry;
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata;
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintSyncEntry;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.*;
 import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IAreaBasedTask;
@@ -15,23 +20,31 @@ import net.remmintan.mods.minefortress.core.interfaces.tasks.IPlaceCampfireTask;
 import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames;
 import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper;
 import net.remmintan.mods.minefortress.networking.s2c.ClientboundRemoveBlueprintPacket;
-import net.remmintan.mods.minefortress.networking.s2c.ClientboundResetBlueprintPacket;
-import net.remmintan.mods.minefortress.networking.s2c.ClientboundSyncBlueprintPacket;
+import net.remmintan.mods.minefortress.networking.s2c.S2CBlueprintsManifestPacket;
+import net.remmintan.mods.minefortress.networking.s2c.S2CSyncBlueprintsPacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.minefortress.blueprints.data.ServerStructureBlockDataManager;
 import org.minefortress.tasks.AreaBlueprintTask;
 import org.minefortress.tasks.PlaceCampfireTask;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.*;
 
 public class ServerBlueprintManager implements IServerBlueprintManager {
 
+    // the structures are sent in batches of about this size, a bigger structure is sent alone
+    private static final int MAX_SYNC_BATCH_BYTES = 512 * 1024;
+
     private boolean initialized = false;
 
     private ServerStructureBlockDataManager blockDataManager;
     private BlueprintMetadataReader blueprintMetadataReader;
     private final Queue<FortressS2CPacket> scheduledSyncs = new ArrayDeque<>();
+    private final Set<String> requestedBlueprints = new LinkedHashSet<>();
+    private final Map<String, StructureDigest> digests = new HashMap<>();
 
     private final Map<String, BlueprintMetadata> blueprints = new HashMap<>();
 
@@ -51,27 +64,76 @@ public class ServerBlueprintManager implements IServerBlueprintManager {
         if (!initialized) {
             if (blueprints.isEmpty()) readDefaultBlueprints();
 
-            final ClientboundResetBlueprintPacket resetpacket = new ClientboundResetBlueprintPacket();
-            FortressServerNetworkHelper.send(player, FortressChannelNames.FORTRESS_RESET_BLUEPRINT, resetpacket);
-
-            blueprints.forEach((blueprintId, metadata) -> blockDataManager.getStructureNbt(blueprintId)
-                    .ifPresent(it -> {
-                        final var packet = new ClientboundSyncBlueprintPacket(metadata, it);
-                        scheduledSyncs.add(packet);
-                    }));
+            // the client keeps the blueprints it already has and drops the ones missing from the manifest
+            final var manifest = new ArrayList<BlueprintManifestEntry>();
+            blueprints.forEach((blueprintId, metadata) -> getDigest(blueprintId)
+                    .ifPresent(it -> manifest.add(new BlueprintManifestEntry(metadata, it.hash()))));
+            final var manifestPacket = new S2CBlueprintsManifestPacket(manifest);
+            FortressServerNetworkHelper.send(player, S2CBlueprintsManifestPacket.CHANNEL, manifestPacket);
 
             initialized = true;
         }
 
-        if (!scheduledSyncs.isEmpty()) {
+        while (!scheduledSyncs.isEmpty()) {
             final FortressS2CPacket packet = scheduledSyncs.remove();
-            if (packet instanceof ClientboundSyncBlueprintPacket)
-                FortressServerNetworkHelper.send(player, FortressChannelNames.FORTRESS_SYNC_BLUEPRINT, packet);
-            else if (packet instanceof ClientboundRemoveBlueprintPacket)
+            if (packet instanceof ClientboundRemoveBlueprintPacket)
                 FortressServerNetworkHelper.send(player, FortressChannelNames.FORTRESS_REMOVE_BLUEPRINT, packet);
             else
                 throw new IllegalStateException("Wrong blueprint update packet type: " + packet.getClass());
         }
+
+        sendRequestedBlueprints(player);
+    }
+
+    private void sendRequestedBlueprints(ServerPlayerEntity player) {
+        if (requestedBlueprints.isEmpty()) return;
+
+        final var entries = new ArrayList<BlueprintSyncEntry>();
+        int batchBytes = 0;
+        final var iterator = requestedBlueprints.iterator();
+        while (iterator.hasNext()) {
+            final var blueprintId = iterator.next();
+            final var metadata = blueprints.get(blueprintId);
+            final var digest = metadata == null ? Optional.<StructureDigest>empty() : getDigest(blueprintId);
+            if (digest.isEmpty()) {
+                iterator.remove();
+                continue;
+            }
+            if (!entries.isEmpty() && batchBytes + digest.get().size() > MAX_SYNC_BATCH_BYTES)
+                break;
+
+            iterator.remove();
+            final var structure = blockDataManager.getStructureNbt(blueprintId);
+            if (structure.isEmpty()) continue;
+            entries.add(new BlueprintSyncEntry(metadata, digest.get().hash(), structure.get()));
+            batchBytes += digest.get().size();
+        }
+
+        if (!entries.isEmpty()) {
+            final var packet = new S2CSyncBlueprintsPacket(entries);
+            FortressServerNetworkHelper.send(player, S2CSyncBlueprintsPacket.CHANNEL, packet);
+        }
+    }
+
+    private Optional<StructureDigest> getDigest(String blueprintId) {
+        final var cached = digests.get(blueprintId);
+        if (cached != null) return Optional.of(cached);
+
+        final var digest = blockDataManager.getStructureNbt(blueprintId).flatMap(ServerBlueprintManager::digest);
+        digest.ifPresent(it -> digests.put(blueprintId, it));
+        return digest;
+    }
+
+    private static Optional<StructureDigest> digest(NbtCompound structure) {
+        final var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            NbtIo.write(structure, out);
+        } catch (IOException e) {
+            ModLogger.LOGGER.error("Can't serialize blueprint structure", e);
+            return Optional.empty();
+        }
+        final var hash = Hashing.sha256().hashBytes(bytes.toByteArray()).toString();
+        return Optional.of(new StructureDigest(hash, bytes.size()));
     }
 
     private void readDefaultBlueprints() {
@@ -86,10 +148,20 @@ public class ServerBlueprintManager implements IServerBlueprintManager {
     public void remove(String blueprintId) {
         blueprints.remove(blueprintId);
         blockDataManager.remove(blueprintId);
+        digests.remove(blueprintId);
+        requestedBlueprints.remove(blueprintId);
         final var remove = new ClientboundRemoveBlueprintPacket(blueprintId);
         scheduledSyncs.add(remove);
     }
 
+    @Override
+    public void requestBlueprints(List<String> blueprintIds) {
+        for (String blueprintId : blueprintIds) {
+            if (blueprints.containsKey(blueprintId))
+                requestedBlueprints.add(blueprintId);
+        }
+    }
+
     @Override
     public IServerStructureBlockDataManager getBlockDataManager() {
         return blockDataManager;
@@ -111,10 +183,9 @@ public class ServerBlueprintManager implements IServerBlueprintManager {
     @Override
     public IPlaceCampfireTask createInstantPlaceTask(String blueprintId, BlockPos start, BlockRotation rotation) {
         final IStructureBlockData serverStructureInfo = blockDataManager.getBlockData(blueprintId, rotation);
-        final var blocks = serverStructureInfo.getLayer(BlueprintDataLayer.GENERAL);
 
         final var metadata = blueprints.get(blueprintId);
-        return new PlaceCampfireTask(metadata, blocks, start);
+        return new PlaceCampfireTask(metadata, serverStructureInfo, start);
     }
 
     @Override
@@ -139,9 +210,8 @@ public class ServerBlueprintManager implements IServerBlueprintManager {
 
         blueprints.put(blueprintId, newBlueprintMetadata);
         blockDataManager.addOrUpdate(blueprintId, tag);
-
-        final FortressS2CPacket packet = new ClientboundSyncBlueprintPacket(newBlueprintMetadata, tag);
-        scheduledSyncs.add(packet);
+        digests.remove(blueprintId);
+        requestedBlueprints.add(blueprintId);
     }
 
     @Override
@@ -165,6 +235,8 @@ public class ServerBlueprintManager implements IServerBlueprintManager {
         final var wholeManager = tag.getCompound("blueprintsManager");
 
         scheduledSyncs.clear();
+        requestedBlueprints.clear();
+        digests.clear();
         blueprints.clear();
         initialized = false;
 
@@ -177,4 +249,6 @@ public class ServerBlueprintManager implements IServerBlueprintManager {
         }
     }
 
+    private record StructureDigest(String hash, int size) {}
+
 }
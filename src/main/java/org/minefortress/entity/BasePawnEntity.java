@@ -25,6 +25,8 @@ import net.remmintan.mods.minefortress.core.dtos.PawnSkin;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IFortressAwareEntity;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IPawnSkinnable;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IProfessional;
+import net.remmintan.mods.minefortress.core.interfaces.server.IFortressHolder;
+import net.remmintan.mods.minefortress.core.services.FortressRegistry;
 import net.remmintan.mods.minefortress.core.utils.ServerExtensionsKt;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import org.jetbrains.annotations.NotNull;
@@ -47,6 +49,7 @@ public abstract class BasePawnEntity extends HungryEntity implements IFortressAw
     private static final TrackedData<PawnSkin> PAWN_SKIN = DataTracker.registerData(BasePawnEntity.class, MineFortressMod.PAWN_SKIN_TRACKED_DATA_HANDLER);
 
     private volatile ServerPlayerEntity serverPlayer;
+    private IFortressHolder fortressHolder;
 
     protected BasePawnEntity(EntityType<? extends BasePawnEntity> entityType, World world, boolean enableHunger) {
         super(entityType, world, enableHunger);
@@ -104,6 +107,15 @@ public abstract class BasePawnEntity extends HungryEntity implements IFortressAw
 
     private void setFortressCenter(BlockPos fortressCenter) {
         this.dataTracker.set(FORTRESS_CENTER, Optional.ofNullable(fortressCenter));
+        this.fortressHolder = null;
+    }
+
+    @Override
+    public @NotNull Optional<IFortressHolder> getFortressHolder() {
+        if (fortressHolder == null || !FortressRegistry.INSTANCE.isLoaded(fortressHolder)) {
+            fortressHolder = IFortressAwareEntity.super.getFortressHolder().orElse(null);
+        }
+        return Optional.ofNullable(fortressHolder);
     }
 
     @Override
@@ -200,23 +200,12 @@ public class Colonist extends NamedPawnEntity implements IMinefortressEntity, IW
     @Override
     protected void mobTick() {
         super.mobTick();
-        tickProfessionCheck();
         final var target = this.getTarget();
         if(target != null && !target.isAlive()) {
             this.setTarget(null);
         }
     }
 
-    private void tickProfessionCheck() {
-        final String professionId = this.dataTracker.get(PROFESSION_ID);
-        if(DEFAULT_PROFESSION_ID.equals(professionId) || RESERVE_PROFESSION_ID.equals(professionId)) {
-            ServerModUtils.getManagersProvider(this)
-                    .map(IServerManagersProvider::getProfessionsManager)
-                    .flatMap(it -> it.getProfessionsWithAvailablePlaces(RESERVE_PROFESSION_ID.equals(professionId)))
-                    .ifPresent(this::setProfession);
-        }
-    }
-
     @Override
     public void tick() {
         super.tick();
@@ -369,6 +358,7 @@ public class Colonist extends NamedPawnEntity implements IMinefortressEntity, IW
         final var fmOpt = ServerModUtils.getFortressManager(this);
         if (type == FortressEntities.COLONIST_ENTITY_TYPE) {
             this.dataTracker.set(PROFESSION_ID, professionId);
+            fmOpt.ifPresent(it -> it.updatePawnProfession(this));
         } else if (type == FortressEntities.WARRIOR_PAWN_ENTITY_TYPE || type == FortressEntities.ARCHER_PAWN_ENTITY_TYPE) {
             fmOpt.ifPresent(it -> it.replaceColonistWithTypedPawn(this, professionId, type));
         }
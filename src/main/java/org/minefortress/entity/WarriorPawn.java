@@ -17,6 +17,7 @@ import net.minecraft.world.ServerWorldAccess;
 import net.minecraft.world.World;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IProfessional;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWarrior;
+import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import org.jetbrains.annotations.Nullable;
 import org.minefortress.entity.ai.goal.EatGoal;
 import org.minefortress.entity.ai.goal.SelectTargetToAttackGoal;
@@ -79,6 +80,7 @@ public final class WarriorPawn extends TargetedPawn implements IProfessional, IW
     public void readCustomDataFromNbt(NbtCompound nbt) {
         super.readCustomDataFromNbt(nbt);
         this.dataTracker.set(WARRIOR_PROFESSION_KEY, nbt.getString(ServerProfessionManager.PROFESSION_NBT_TAG));
+        ServerModUtils.getFortressManager(this).ifPresent(it -> it.updatePawnProfession(this));
     }
 
     @Override
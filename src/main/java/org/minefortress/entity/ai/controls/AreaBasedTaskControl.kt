@@ -36,7 +36,7 @@ class AreaBasedTaskControl(private val pawn: Colonist) : IAreaBasedTaskControl {
 
     override fun moveToNextBlock(): ITaskBlockInfo? {
         currentBlock?.let { task?.successBlock(it.pos) }
-        currentBlock = task?.getNextBlock()
+        currentBlock = task?.getNextBlock(currentBlock?.pos ?: pawn.blockPos)
         if (task?.isComplete() == true) {
             task?.onCompletion(pawn)
         }
@@ -3,7 +3,6 @@ package org.minefortress.entity.ai.goal;
 import net.minecraft.block.BedBlock;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.util.math.BlockPos;
-import net.remmintan.mods.minefortress.core.interfaces.buildings.IServerBuildingsManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerFortressManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
@@ -25,7 +24,7 @@ public class SleepOnTheBedGoal extends AbstractFortressGoal {
         if(!isNight() || colonist.getTaskControl().hasTask()) return false;
         final var target = colonist.getTarget();
         if(target != null && target.isAlive()) return false;
-        getFreeBed().ifPresent(it -> bedPos = it);
+        claimBed().ifPresent(it -> bedPos = it);
         return bedPos != null;
     }
 
@@ -68,6 +67,7 @@ public class SleepOnTheBedGoal extends AbstractFortressGoal {
     @Override
     public void stop() {
         bedPos = null;
+        releaseBed();
         colonist.getMovementHelper().reset();
         if(colonist.isSleeping()) {
             colonist.wakeUp();
@@ -75,10 +75,16 @@ public class SleepOnTheBedGoal extends AbstractFortressGoal {
     }
 
     @NotNull
-    private Optional<BlockPos> getFreeBed() {
+    private Optional<BlockPos> claimBed() {
         return ServerModUtils.getManagersProvider(colonist)
                 .map(IServerManagersProvider::getBuildingsManager)
-                .flatMap(IServerBuildingsManager::getFreeBed);
+                .flatMap(it -> it.claimBed(colonist.getUuid()));
+    }
+
+    private void releaseBed() {
+        ServerModUtils.getManagersProvider(colonist)
+                .map(IServerManagersProvider::getBuildingsManager)
+                .ifPresent(it -> it.releaseBed(colonist.getUuid()));
     }
 
     private boolean isNight() {
@@ -87,7 +93,7 @@ public class SleepOnTheBedGoal extends AbstractFortressGoal {
     private boolean bedStillValid() {
         if(bedPos == null) return false;
         final var blockState = colonist.getWorld().getBlockState(bedPos);
-        return blockState.isIn(BlockTags.BEDS) && (!blockState.get(BedBlock.OCCUPIED) || colonist.isSleeping());
+        return blockState.isIn(BlockTags.BEDS) && blockState.contains(BedBlock.OCCUPIED) && (!blockState.get(BedBlock.OCCUPIED) || colonist.isSleeping());
     }
 
     private void moveToBed() {
@@ -4,11 +4,11 @@ import net.minecraft.entity.ai.goal.Goal;
 import net.minecraft.entity.ai.pathing.Path;
 import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.BlockPos;
-import net.remmintan.mods.minefortress.blocks.FortressBlocks;
 import net.remmintan.mods.minefortress.core.interfaces.buildings.IFortressBuilding;
-import net.remmintan.mods.minefortress.core.interfaces.buildings.IServerBuildingsManager;
+import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 
 import java.util.EnumSet;
@@ -34,24 +34,16 @@ public final class AttackBuildingGoal extends Goal {
     public boolean canStart() {
         if(lastUpdateTime + 20 > mob.getWorld().getTime()) return false;
         if(!mob.getWorld().isNight()) return false;
+        if(!(mob.getWorld() instanceof ServerWorld serverWorld)) return false;
         lastUpdateTime = mob.getWorld().getTime();
 
         final var mobBlockPos = this.mob.getBlockPos();
         final var followRange = (int) getFollowRange();
 
-        IServerBuildingsManager buildingsManager = null;
-        for (var pos : BlockPos.iterateOutwards(mobBlockPos, followRange, 10, followRange)) {
-            if (this.mob.getWorld().getBlockState(pos).isOf(FortressBlocks.FORTRESS_CAMPFIRE)) {
-                buildingsManager = ServerModUtils.getManagersProvider(mob.getServer(), pos).orElseThrow().getBuildingsManager();
-                break;
-            }
-        }
-
-        if (buildingsManager != null) {
-            buildingsManager
-                    .findNearest(mobBlockPos)
-                    .ifPresent(building -> this.targetBuilding = building);
-        }
+        ServerModUtils.findNearestManagersProvider(serverWorld, mobBlockPos, followRange)
+                .map(IServerManagersProvider::getBuildingsManager)
+                .flatMap(it -> it.findNearest(mobBlockPos))
+                .ifPresent(building -> this.targetBuilding = building);
 
         if(targetBuilding!=null) {
             this.targetPosition = targetBuilding.getNearestCornerXZ(mobBlockPos, mob.getWorld());
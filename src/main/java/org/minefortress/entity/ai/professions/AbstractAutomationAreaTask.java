@@ -1,6 +1,5 @@
 package org.minefortress.entity.ai.professions;
 
-import net.minecraft.world.World;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationArea;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationBlockInfo;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
@@ -30,12 +29,14 @@ abstract class AbstractAutomationAreaTask implements ProfessionDailyTask{
         colonist.resetControls();
         colonist.setCurrentTaskDesc(getTaskDesc());
         getArea(colonist).ifPresent(f -> this.area = f);
-        initIterator(colonist.getWorld());
+        initIterator(colonist);
     }
 
     @Override
     public void stop(Colonist colonist) {
         this.stopTime = colonist.getWorld().getTime();
+        if(this.area != null)
+            this.area.release(colonist.getUuid());
         this.area = null;
         this.iterator = Collections.emptyIterator();
         colonist.resetControls();
@@ -49,12 +50,12 @@ abstract class AbstractAutomationAreaTask implements ProfessionDailyTask{
         return colonist.getWorld().getTime() - stopTime > rand.nextInt(500) + 300;
     }
 
-    private void initIterator(World world) {
+    private void initIterator(Colonist colonist) {
         if(this.area == null) {
             this.iterator = Collections.emptyIterator();
         } else {
             this.area.update();
-            this.iterator = this.area.iterator(world);
+            this.iterator = this.area.iterator(colonist.getWorld(), colonist.getUuid());
         }
     }
 
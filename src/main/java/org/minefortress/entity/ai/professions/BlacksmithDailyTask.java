@@ -1,20 +1,16 @@
 package org.minefortress.entity.ai.professions;
 
-import net.minecraft.block.entity.FurnaceBlockEntity;
 import net.minecraft.item.Item;
 import net.minecraft.item.Items;
 import net.minecraft.util.math.BlockPos;
-import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
-import net.remmintan.mods.minefortress.core.interfaces.buildings.IFortressBuilding;
+import net.remmintan.mods.minefortress.core.interfaces.buildings.IServerBuildingsManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.minefortress.entity.Colonist;
 
 import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.Optional;
 
 public class BlacksmithDailyTask extends AbstractStayNearBlockDailyTask{
 
@@ -34,11 +30,8 @@ public class BlacksmithDailyTask extends AbstractStayNearBlockDailyTask{
         return shouldWork(colonist);
     }
 
-    private static @NotNull List<IFortressBuilding> getBuildings(Colonist colonist) {
-        return ServerModUtils.getManagersProvider(colonist)
-                .map(IServerManagersProvider::getBuildingsManager)
-                .map(it -> it.getBuildings(ProfessionType.BLACKSMITH))
-                .orElse(Collections.emptyList());
+    private static Optional<IServerBuildingsManager> getBuildingsManager(Colonist colonist) {
+        return ServerModUtils.getManagersProvider(colonist).map(IServerManagersProvider::getBuildingsManager);
     }
 
     @Override
@@ -53,41 +46,20 @@ public class BlacksmithDailyTask extends AbstractStayNearBlockDailyTask{
     @Override
     @Nullable
     protected BlockPos getBlockPos(Colonist colonist) {
-        // Use ServerModUtils to get buildings directly
-        final var buildings = getBuildings(colonist);
-
-        if (buildings.isEmpty()) {
+        final var furnaces = getBuildingsManager(colonist)
+                .map(IServerBuildingsManager::getFurnaces)
+                .orElse(Collections.emptyList());
+        if (furnaces.isEmpty()) {
             return null;
         }
 
-        // Choose a random furnace in a random building
-        final var randBuilding = new Random().nextInt(buildings.size());
-        final var randFurnace = new Random().nextInt(buildings.get(randBuilding).getFurnacePos().size());
-        return buildings.get(randBuilding).getFurnacePos().get(randFurnace);
+        // Choose a random furnace
+        return furnaces.get(colonist.getRandom().nextInt(furnaces.size())).getPos();
     }
 
     private boolean atLeastOneFurnaceIsBurning(Colonist colonist){
-        // Use ServerModUtils to get buildings directly
-        final var buildings = getBuildings(colonist);
-        List<BlockPos> furnaces = null;
-
-        for (IFortressBuilding building : buildings) {
-            // Attempt to get the furnace position. If it's null, find all furnaces and cache them.
-            furnaces = building.getFurnacePos();
-
-            if (null != furnaces) {
-                for (BlockPos pos : building.getFurnacePos()) {
-                    final var furnace = (FurnaceBlockEntity) colonist.getWorld().getBlockEntity(pos);
-                    if (furnace != null && furnace.isBurning()) {
-                        return true;
-                    }
-                }
-            } else {
-                // Find and cache furnaces.
-                building.findFurnaces();
-            }
-        }
-
-        return false;
+        return getBuildingsManager(colonist)
+                .map(IServerBuildingsManager::isAnyFurnaceBurning)
+                .orElse(false);
     }
 }
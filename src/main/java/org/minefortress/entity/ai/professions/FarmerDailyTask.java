@@ -3,8 +3,6 @@ package org.minefortress.entity.ai.professions;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.CropBlock;
 import net.minecraft.item.BlockItem;
-import net.minecraft.item.Item;
-import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.registry.tag.FluidTags;
@@ -14,6 +12,7 @@ import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.AutomationActionType;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationBlockInfo;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ResourceCategory;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ServerExtensionsKt;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
@@ -21,22 +20,12 @@ import org.minefortress.entity.Colonist;
 import org.minefortress.fortress.automation.iterators.FarmAreaIterator;
 import org.minefortress.tasks.block.info.BlockStateTaskBlockInfo;
 import org.minefortress.tasks.block.info.DigTaskBlockInfo;
-import org.spongepowered.include.com.google.common.collect.Sets;
 
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Optional;
-import java.util.Set;
 
 public class FarmerDailyTask extends AbstractAutomationAreaTask {
 
-    private static final Set<Item> FARMER_SEEDS = Sets.newHashSet(
-            Items.WHEAT_SEEDS,
-            Items.BEETROOT_SEEDS,
-            Items.CARROT,
-            Items.POTATO
-    );
-
     private IAutomationBlockInfo goal;
 
     @Override
@@ -173,17 +162,7 @@ public class FarmerDailyTask extends AbstractAutomationAreaTask {
         return ServerModUtils.getManagersProvider(colonist)
                 .map(IServerManagersProvider::getResourceManager)
                 .flatMap(srm -> srm
-                        .getAllItems()
-                        .stream()
-                        .filter(it -> !it.isEmpty())
-                        .map(ItemStack::getItem)
-                        .filter(FARMER_SEEDS::contains)
-                        .min(Comparator.comparingInt(it -> {
-                            if (it == Items.WHEAT_SEEDS) return 0;
-                            if (it == Items.POTATO) return 1;
-                            if (it == Items.CARROT) return 2;
-                            return 3;
-                        }))
+                        .getFirstItem(ResourceCategory.SEEDS)
                         .map(it -> {
                             srm.removeItems(Collections.singletonList(new ItemInfo(it, 1)));
                             return (BlockItem) it;
@@ -1,30 +1,23 @@
 package org.minefortress.entity.ai.professions;
 
-import kotlin.jvm.functions.Function1;
-import net.minecraft.block.Blocks;
 import net.minecraft.item.Items;
 import net.minecraft.util.Hand;
-import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.ModLogger;
+import net.remmintan.mods.minefortress.core.dtos.professions.FishingSpot;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
-import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
-import org.minefortress.MineFortressMod;
 import org.minefortress.entity.Colonist;
-import org.minefortress.entity.ai.professions.fishing.FisherBlockFounderKt;
 import org.minefortress.entity.ai.professions.fishing.FisherGoal;
 import org.minefortress.entity.fisher.FortressFishingBobberEntity;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Optional;
 
 public class FisherDailyTask implements ProfessionDailyTask {
     private long stopTime = 0L;
     private long workingTicks = 0L;
 
     private int catchCooldown = 0;
-    private volatile FisherGoal goal;
-    private Future<FisherGoal> goalFuture;
+    private FisherGoal goal;
     private FortressFishingBobberEntity fishingBobberEntity;
 
     @Override
@@ -35,21 +28,12 @@ public class FisherDailyTask implements ProfessionDailyTask {
     @Override
     public void start(Colonist colonist) {
         colonist.setCurrentTaskDesc("Catch fish");
-        this.goal = null;
-        this.goalFuture = MineFortressMod.getExecutor().submit(() -> this.setGoalAsync(colonist));
+        this.goal = findGoal(colonist);
     }
 
     @Override
     public void tick(Colonist colonist) {
         if(catchCooldown > 0) catchCooldown--;
-
-        if(goalFuture != null) {
-            if(goalFuture.isDone()) {
-                setTheGoal();
-            } else {
-                return;
-            }
-        }
         if(goal == null) return;
 
         final var movementHelper = colonist.getMovementHelper();
@@ -95,23 +79,12 @@ public class FisherDailyTask implements ProfessionDailyTask {
 
     }
 
-    private void setTheGoal() {
-        try {
-            this.goal = goalFuture.get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
-        } finally {
-            goalFuture = null;
-        }
-    }
-
     @Override
     public void stop(Colonist colonist) {
         this.stopTime = colonist.getWorld().getTime();
-        if(goalFuture!=null && !goalFuture.isDone()) {
-            goalFuture.cancel(true);
-        }
-        this.goalFuture = null;
+        this.goal = null;
+        ServerModUtils.getManagersProvider(colonist)
+                .ifPresent(it -> it.getFishingSpotsManager().release(colonist.getUuid()));
         this.workingTicks = 0L;
         this.fishingBobberEntity=null;
         colonist.putItemInHand(null);
@@ -120,43 +93,30 @@ public class FisherDailyTask implements ProfessionDailyTask {
 
     @Override
     public boolean shouldContinue(Colonist colonist) {
-        return (goal != null || goalFuture != null) && colonist.getWorld().isDay() && workingTicks < 800L;
+        return goal != null && colonist.getWorld().isDay() && workingTicks < 800L;
     }
 
-    private FisherGoal setGoalAsync(Colonist pawn) {
-        final var buildingsManagerOpt = ServerModUtils
-                .getManagersProvider(pawn)
-                .map(IServerManagersProvider::getBuildingsManager);
-        final var buildingOpt = buildingsManagerOpt.flatMap(it -> it.findNearest(pawn.getBlockPos(), ProfessionType.FISHERMAN));
-        final var world = pawn.getWorld();
+    private FisherGoal findGoal(Colonist pawn) {
+        final var providerOpt = ServerModUtils.getManagersProvider(pawn);
+        if (providerOpt.isEmpty()) return null;
+        final var buildingsManager = providerOpt.get().getBuildingsManager();
+        final var fishingSpotsManager = providerOpt.get().getFishingSpotsManager();
+        final var pawnId = pawn.getUuid();
 
+        Optional<FishingSpot> spot = Optional.empty();
+        final var buildingOpt = buildingsManager.findNearest(pawn.getBlockPos(), ProfessionType.FISHERMAN);
         if(buildingOpt.isPresent()) {
-            final var building = buildingOpt.get();
-            final var center = building.getCenter();
-            final var buildingsManager = buildingsManagerOpt.get();
-            final Function1<BlockPos, Boolean> predicate = it -> world.getBlockState(it).isOf(Blocks.WATER) &&
-                    !buildingsManager.isPartOfAnyBuilding(it);
-            final var goalOpt = FisherBlockFounderKt.getFisherGoal(pawn, center, predicate);
-            if(goalOpt.isPresent()) {
-                return goalOpt.get();
-            }
-
-            final var goalOpt2 = FisherBlockFounderKt.getFisherGoal(
-                    pawn,
-                    center,
-                    it -> world.getBlockState(it).isOf(Blocks.WATER)
-            );
-            if(goalOpt2.isPresent()) {
-                return goalOpt2.get();
-            }
+            final var center = buildingOpt.get().getCenter();
+            spot = fishingSpotsManager.reserve(pawnId, center, it -> !buildingsManager.isPartOfAnyBuilding(it))
+                    .or(() -> fishingSpotsManager.reserve(pawnId, center, it -> true));
         }
 
         // look for water near campfire
-        final var fortressCenter = pawn.getFortressPos();
-        final var goalOpt = FisherBlockFounderKt
-                .getFisherGoal(pawn, fortressCenter, it -> world.getBlockState(it).isOf(Blocks.WATER));
-        if(goalOpt.isPresent()) {
-            return goalOpt.get();
+        if(spot.isEmpty()) {
+            spot = fishingSpotsManager.reserve(pawnId, pawn.getFortressPos(), it -> true);
+        }
+        if(spot.isPresent()) {
+            return new FisherGoal(spot.get().waterPos(), spot.get().standPos());
         }
 
         // if goal is still not set then send a message to the player
@@ -3,7 +3,6 @@ package org.minefortress.entity.ai.professions;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.Items;
 import net.minecraft.registry.tag.BlockTags;
-import net.minecraft.registry.tag.ItemTags;
 import net.minecraft.server.world.ServerWorld;
 import net.remmintan.gobi.helpers.TreeData;
 import net.remmintan.gobi.helpers.TreeFinder;
@@ -12,6 +11,7 @@ import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.AutomationActionType;
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationBlockInfo;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ResourceCategory;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ServerExtensionsKt;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
@@ -107,11 +107,8 @@ public class LumberjackDailyTask extends AbstractAutomationAreaTask {
             return ServerModUtils.getManagersProvider(colonist)
                     .map(IServerManagersProvider::getResourceManager)
                     .flatMap(rm -> rm
-                            .getAllItems()
-                            .stream()
-                            .filter(it -> !it.isEmpty() && it.isIn(ItemTags.SAPLINGS))
-                            .findFirst()
-                            .map(it -> (BlockItem) it.getItem())
+                            .getFirstItem(ResourceCategory.SAPLINGS)
+                            .map(it -> (BlockItem) it)
                             .map(it -> {
                                 rm.removeItems(Collections.singletonList(new ItemInfo(it, 1)));
                                 return it;
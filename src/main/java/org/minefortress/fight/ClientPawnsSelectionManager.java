@@ -4,8 +4,6 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.Mouse;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
-import net.minecraft.util.math.Vec2f;
-import net.minecraft.util.math.Vec3d;
 import net.remmintan.mods.minefortress.core.FortressState;
 import net.remmintan.mods.minefortress.core.dtos.combat.MousePos;
 import net.remmintan.mods.minefortress.core.interfaces.client.ISelectedColonistProvider;
@@ -19,9 +17,7 @@ import net.remmintan.mods.minefortress.core.utils.GlobalProjectionCache;
 import org.minefortress.renderer.CameraTools;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
 
 public class ClientPawnsSelectionManager implements IClientPawnsSelectionManager, ITargetedSelectionManager, ISelectedColonistProvider {
@@ -30,6 +26,9 @@ public class ClientPawnsSelectionManager implements IClientPawnsSelectionManager
     private MousePos mouseEndPos;
 
     private final List<IFortressAwareEntity> selectedPawns = new ArrayList<>();
+    // reused between the selection updates
+    private double[] positions = new double[0];
+    private float[] screenPositions = new float[0];
 
 
     @Override
@@ -86,18 +85,25 @@ public class ClientPawnsSelectionManager implements IClientPawnsSelectionManager
 
             final var world = MinecraftClient.getInstance().world;
 
-            final Map<Vec3d, IFortressAwareEntity> entitesMap = new HashMap<>();
+            final List<IFortressAwareEntity> candidates = new ArrayList<>();
             final var fortressManager = ClientModUtils.getFortressCenterManager();
-            world
-                .getEntities()
-                .forEach(
-                    entity -> {
-                        if (entity instanceof IFortressAwareEntity fae && fortressManager.hasTheSameCenter(fae)) {
-                            final var pos = entity.getPos();
-                            entitesMap.put(pos, fae);
-                        }
-                    }
-                );
+            for (Entity entity : world.getEntities()) {
+                if (entity instanceof IFortressAwareEntity fae && fortressManager.hasTheSameCenter(fae)) {
+                    candidates.add(fae);
+                }
+            }
+
+            final var count = candidates.size();
+            if (positions.length < count * 3) {
+                positions = new double[count * 3];
+                screenPositions = new float[count * 2];
+            }
+            for (int i = 0; i < count; i++) {
+                final var pos = ((Entity) candidates.get(i)).getPos();
+                positions[i * 3] = pos.x;
+                positions[i * 3 + 1] = pos.y;
+                positions[i * 3 + 2] = pos.z;
+            }
 
             //  found min and max x and y
             int minX = Math.min(mouseStartPos.getX(), mouseEndPos.getX());
@@ -105,14 +111,12 @@ public class ClientPawnsSelectionManager implements IClientPawnsSelectionManager
             int minY = Math.min(mouseStartPos.getY(), mouseEndPos.getY());
             int maxY = Math.max(mouseStartPos.getY(), mouseEndPos.getY());
 
-            final var screenPositions = CameraTools.projectToScreenSpace(entitesMap.keySet(), MinecraftClient.getInstance());
-            for (Map.Entry<Vec2f, Vec3d> entry : screenPositions.entrySet()) {
-                final var screenPos = entry.getKey();
-                final var entityPos = entry.getValue();
-                // log screen pos
-                if (screenPos.x >= minX && screenPos.x <= maxX && screenPos.y >= minY && screenPos.y <= maxY) {
-                    final var entity = entitesMap.get(entityPos);
-                    selectedPawns.add(entity);
+            CameraTools.projectToScreenSpace(positions, count, screenPositions, MinecraftClient.getInstance());
+            for (int i = 0; i < count; i++) {
+                final var screenX = screenPositions[i * 2];
+                final var screenY = screenPositions[i * 2 + 1];
+                if (screenX >= minX && screenX <= maxX && screenY >= minY && screenY <= maxY) {
+                    selectedPawns.add(candidates.get(i));
                 }
             }
         }
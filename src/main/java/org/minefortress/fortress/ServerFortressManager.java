@@ -1,5 +1,6 @@
 package org.minefortress.fortress;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.entity.EntityType;
@@ -11,6 +12,7 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.Heightmap;
@@ -28,6 +30,7 @@ import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.ITargetedP
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerFortressManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider;
+import net.remmintan.mods.minefortress.core.services.FortressRegistry;
 import net.remmintan.mods.minefortress.core.utils.ServerExtensionsKt;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames;
@@ -60,6 +63,8 @@ public final class ServerFortressManager implements IServerFortressManager {
     private final MinecraftServer server;
     private final ServerWorld world;
     private final Set<LivingEntity> pawns = new HashSet<>();
+    private final Map<LivingEntity, String> pawnProfessions = new HashMap<>();
+    private final Object2IntOpenHashMap<String> professionsHeadcount = new Object2IntOpenHashMap<>();
 
     private IPawnNameGenerator nameGenerator = new ColonistNameGenerator();
 
@@ -70,6 +75,8 @@ public final class ServerFortressManager implements IServerFortressManager {
 
 
     private boolean needSync = true;
+    private boolean needFootprintUpdate = true;
+    private boolean needProfessionsAssignment = true;
 
     private final BlockPos fortressCenter;
     private int maxColonistsCount = -1;
@@ -84,10 +91,64 @@ public final class ServerFortressManager implements IServerFortressManager {
     }
 
     public void addPawn(LivingEntity colonist) {
-        pawns.add(colonist);
+        registerPawn(colonist);
         scheduleSync();
     }
 
+    private void registerPawn(LivingEntity pawn) {
+        pawns.add(pawn);
+        updatePawnProfession(pawn);
+    }
+
+    private void unregisterPawn(LivingEntity pawn) {
+        pawns.remove(pawn);
+        final var professionId = pawnProfessions.remove(pawn);
+        if (professionId != null) {
+            professionsHeadcount.addTo(professionId, -1);
+            scheduleProfessionsAssignment();
+        }
+    }
+
+    @Override
+    public void updatePawnProfession(LivingEntity pawn) {
+        if (!pawns.contains(pawn)) return;
+        final var professionId = pawn instanceof IProfessional professional ? professional.getProfessionId() : null;
+        final var previousProfessionId = professionId == null ? pawnProfessions.remove(pawn) : pawnProfessions.put(pawn, professionId);
+        if (Objects.equals(professionId, previousProfessionId)) return;
+
+        if (previousProfessionId != null)
+            professionsHeadcount.addTo(previousProfessionId, -1);
+        if (professionId != null)
+            professionsHeadcount.addTo(professionId, 1);
+        scheduleProfessionsAssignment();
+    }
+
+    @Override
+    public int countPawnsWithProfession(String professionId) {
+        return professionsHeadcount.getInt(professionId);
+    }
+
+    @Override
+    public void scheduleProfessionsAssignment() {
+        needProfessionsAssignment = true;
+    }
+
+    private void assignProfessions() {
+        needProfessionsAssignment = false;
+        if (countPawnsWithProfession(Colonist.RESERVE_PROFESSION_ID) <= 0) return;
+
+        final var professionsManager = getManagersProvider().getProfessionsManager();
+        // the pawns can be replaced with the typed ones while assigning the professions
+        for (LivingEntity pawn : List.copyOf(pawns)) {
+            if (!(pawn instanceof Colonist colonist) || !colonist.isAlive()) continue;
+            if (!Colonist.RESERVE_PROFESSION_ID.equals(colonist.getProfessionId())) continue;
+
+            final var professionId = professionsManager.getProfessionsWithAvailablePlaces(true);
+            if (professionId.isEmpty()) break;
+            colonist.setProfession(professionId.get());
+        }
+    }
+
     @Override
     public void setPawnsSkin(PawnSkin pawnsSkin) {
         this.pawnsSkin = pawnsSkin;
@@ -132,7 +193,7 @@ public final class ServerFortressManager implements IServerFortressManager {
                     false
             );
             if(pawn instanceof LivingEntity le)
-                pawns.add(le);
+                registerPawn(le);
         }
     }
 
@@ -165,9 +226,11 @@ public final class ServerFortressManager implements IServerFortressManager {
         infoTag.putString(ServerProfessionManager.PROFESSION_NBT_TAG, warriorId);
 
         colonist.damage(getOutOfWorldDamageSource(), Float.MAX_VALUE);
-        pawns.remove(colonist);
+        unregisterPawn(colonist);
+        getManagersProvider().getBuildingsManager().releaseBed(colonist.getUuid());
         final var typedReplacement = entityType.spawn(world, infoTag, (it) -> {}, pos, SpawnReason.EVENT, true, false);
-        pawns.add(typedReplacement);
+        if (typedReplacement != null)
+            registerPawn(typedReplacement);
         getManagersProvider().getFightManager().sync();
     }
 
@@ -191,10 +254,7 @@ public final class ServerFortressManager implements IServerFortressManager {
     }
 
     public int getReservedPawnsCount() {
-        return (int) getProfessionals()
-                .stream()
-                .filter(it -> it.getProfessionId().equals(Colonist.RESERVE_PROFESSION_ID))
-                .count();
+        return countPawnsWithProfession(Colonist.RESERVE_PROFESSION_ID);
     }
 
     public void killAllPawns() {
@@ -215,20 +275,26 @@ public final class ServerFortressManager implements IServerFortressManager {
 
     private void tickFortress() {
         keepColonistsBelowMax();
+        updateFootprint();
 
         final var deadPawns = pawns.stream()
                 .filter(is -> !is.isAlive()).toList();
         if(!deadPawns.isEmpty()) {
+            final var buildingsManager = getManagersProvider().getBuildingsManager();
             for(LivingEntity pawn : deadPawns) {
+                buildingsManager.releaseBed(pawn.getUuid());
                 if(pawn instanceof IProfessional professional) {
                     final String professionId = professional.getProfessionId();
                     getManagersProvider().getProfessionsManager().decreaseAmount(professionId, true);
                 }
-                pawns.remove(pawn);
+                unregisterPawn(pawn);
             }
             scheduleSync();
         }
 
+        if (needProfessionsAssignment)
+            assignProfessions();
+
 
         if(this.fortressCenter != null) {
             final var colonistsCount = this.pawns.size();
@@ -252,6 +318,8 @@ public final class ServerFortressManager implements IServerFortressManager {
         if(maxX < this.fortressCenter.getX()+10) maxX = this.fortressCenter.getX()+10;
         if(maxZ < this.fortressCenter.getZ()+10) maxZ = this.fortressCenter.getZ()+10;
 
+        needFootprintUpdate = true;
+
         for (int i = 0; i < 5; i++) {
             spawnPawnNearCampfire();
         }
@@ -373,6 +441,7 @@ public final class ServerFortressManager implements IServerFortressManager {
             this.spawnPawns = tag.getBoolean("spawnPawns");
         }
 
+        this.needFootprintUpdate = true;
         this.scheduleSync();
     }
 
@@ -519,6 +588,22 @@ public final class ServerFortressManager implements IServerFortressManager {
         if(minX > pos.getX()) minX = pos.getX();
         if(maxZ < pos.getZ()) maxZ = pos.getZ();
         if(minZ > pos.getZ()) minZ = pos.getZ();
+        needFootprintUpdate = true;
+    }
+
+    private void updateFootprint() {
+        // the campfire block entity can be re-registered without the manager being re-read, so refresh it from time to time
+        if(!needFootprintUpdate && getWorld().getTime() % 100 != 0) return;
+        needFootprintUpdate = false;
+
+        final BlockBox footprint;
+        if(minX == Integer.MAX_VALUE) {
+            footprint = new BlockBox(fortressCenter);
+        } else {
+            final var y = fortressCenter.getY();
+            footprint = new BlockBox(minX, y, minZ, maxX, y, maxZ);
+        }
+        FortressRegistry.INSTANCE.updateFootprint(getWorld(), fortressCenter, footprint);
     }
 
     @Override
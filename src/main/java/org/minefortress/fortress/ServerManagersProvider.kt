@@ -7,6 +7,7 @@ import net.minecraft.util.math.BlockPos
 import net.remmintan.mods.minefortress.core.interfaces.automation.server.IServerAutomationAreaManager
 import net.remmintan.mods.minefortress.core.interfaces.buildings.IServerBuildingsManager
 import net.remmintan.mods.minefortress.core.interfaces.combat.IServerFightManager
+import net.remmintan.mods.minefortress.core.interfaces.professions.IServerFishingSpotsManager
 import net.remmintan.mods.minefortress.core.interfaces.professions.IServerProfessionsManager
 import net.remmintan.mods.minefortress.core.interfaces.resources.IServerResourceManager
 import net.remmintan.mods.minefortress.core.interfaces.server.*
@@ -16,6 +17,7 @@ import net.remmintan.mods.minefortress.core.utils.getFortressOwner
 import org.minefortress.fight.ServerFightManager
 import org.minefortress.fortress.automation.areas.AreasServerManager
 import org.minefortress.fortress.buildings.FortressBuildingManager
+import org.minefortress.fortress.fishing.FishingSpotsManager
 import org.minefortress.fortress.resources.server.ServerResourceManager
 import org.minefortress.professions.ServerProfessionManager
 import org.minefortress.tasks.ServerTaskManager
@@ -26,13 +28,14 @@ class ServerManagersProvider(private val fortressPos: BlockPos, world: ServerWor
     private val managers = mutableMapOf<Class<out IServerManager>, IServerManager>()
 
     init {
-        registerManager(IServerTaskManager::class.java, ServerTaskManager())
+        registerManager(IServerTaskManager::class.java, ServerTaskManager(fortressPos))
         registerManager(IServerProfessionsManager::class.java, ServerProfessionManager(fortressPos, world))
         registerManager(IServerResourceManager::class.java, ServerResourceManager(world.server))
         registerManager(IServerBuildingsManager::class.java, FortressBuildingManager(fortressPos, world))
         registerManager(IServerAutomationAreaManager::class.java, AreasServerManager())
         registerManager(IServerFightManager::class.java, ServerFightManager(fortressPos))
         registerManager(ITasksCreator::class.java, TasksCreator(world))
+        registerManager(IServerFishingSpotsManager::class.java, FishingSpotsManager(fortressPos, world))
     }
 
     private fun registerManager(managerInterface: Class<out IServerManager>, manager: IServerManager) {
@@ -0,0 +1,146 @@
+package org.minefortress.fortress.automation.areas;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.remmintan.mods.minefortress.core.automation.iterators.ResetableIterator;
+import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomationBlockInfo;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Part of the automation area which is worked by one worker at a time. The worker leases the slice and renews the
+ * lease with every taken block, the lease of the worker which stopped without releasing it expires.
+ */
+final class AreaSlice {
+
+    private static final long LEASE_TICKS = 20 * 60;
+    private static final long WORK_CHECK_TICKS = 20;
+
+    private final long key;
+    private final List<BlockPos> positions;
+
+    // index of the next position to check
+    private int cursor;
+    // index of the last handed out position, the slice continues from it after the restart
+    private int progress;
+    @Nullable
+    private ResetableIterator<IAutomationBlockInfo> iterator;
+
+    @Nullable
+    private UUID leaseHolder;
+    private long leaseExpiry;
+
+    // the area asks every free slice whether it has work on each worker request, the answer is kept for a while
+    private boolean hasWork;
+    private long workCheckedUntil;
+
+    AreaSlice(long key, List<BlockPos> positions) {
+        this.key = key;
+        this.positions = positions;
+    }
+
+    long getKey() {
+        return key;
+    }
+
+    List<BlockPos> getPositions() {
+        return positions;
+    }
+
+    boolean isFinished() {
+        return progress >= positions.size();
+    }
+
+    boolean isLeased(long time) {
+        return leaseHolder != null && time < leaseExpiry;
+    }
+
+    boolean tryLease(UUID workerId, long time) {
+        if (isFinished()) return false;
+        if (isLeased(time) && !workerId.equals(leaseHolder)) return false;
+        leaseHolder = workerId;
+        leaseExpiry = time + LEASE_TICKS;
+        return true;
+    }
+
+    void release(UUID workerId) {
+        if (workerId.equals(leaseHolder))
+            leaseHolder = null;
+    }
+
+    void restart() {
+        reset();
+        workCheckedUntil = 0;
+        cursor = 0;
+        progress = 0;
+    }
+
+    void reset() {
+        if (iterator != null)
+            iterator.reset();
+        iterator = null;
+    }
+
+    boolean hasNext(World world, BiFunction<Iterator<BlockPos>, World, ResetableIterator<IAutomationBlockInfo>> factory) {
+        if (isFinished()) return false;
+        if (iterator == null) {
+            cursor = progress;
+            iterator = factory.apply(new PositionsIterator(), world);
+        }
+        if (iterator.hasNext()) return true;
+
+        progress = positions.size();
+        iterator = null;
+        return false;
+    }
+
+    boolean hasWork(World world, BiFunction<Iterator<BlockPos>, World, ResetableIterator<IAutomationBlockInfo>> factory) {
+        if (isFinished()) return false;
+        final var time = world.getTime();
+        if (time >= workCheckedUntil) {
+            hasWork = hasNext(world, factory);
+            workCheckedUntil = time + WORK_CHECK_TICKS;
+        }
+        return hasWork;
+    }
+
+    IAutomationBlockInfo next(World world, BiFunction<Iterator<BlockPos>, World, ResetableIterator<IAutomationBlockInfo>> factory) {
+        if (!hasNext(world, factory)) throw new NoSuchElementException();
+        // the filtered iterator has already read the position it returns
+        progress = cursor - 1;
+        leaseExpiry = world.getTime() + LEASE_TICKS;
+        return iterator.next();
+    }
+
+    NbtCompound toNbt() {
+        final var tag = new NbtCompound();
+        tag.putLong("key", key);
+        tag.putInt("progress", progress);
+        return tag;
+    }
+
+    void readProgress(NbtCompound tag) {
+        progress = Math.min(tag.getInt("progress"), positions.size());
+        cursor = progress;
+    }
+
+    private final class PositionsIterator implements Iterator<BlockPos> {
+        @Override
+        public boolean hasNext() {
+            return cursor < positions.size();
+        }
+
+        @Override
+        public BlockPos next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return positions.get(cursor++);
+        }
+    }
+
+}
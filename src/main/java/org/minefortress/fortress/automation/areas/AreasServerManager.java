@@ -1,5 +1,7 @@
 package org.minefortress.fortress.automation.areas;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtList;
 import net.minecraft.server.MinecraftServer;
@@ -10,51 +12,92 @@ import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomati
 import net.remmintan.mods.minefortress.core.interfaces.automation.server.IServerAutomationAreaManager;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
 import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper;
+import net.remmintan.mods.minefortress.networking.s2c.S2CSyncAreasDeltaPacket;
 import net.remmintan.mods.minefortress.networking.s2c.S2CSyncAreasPacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+/**
+ * The areas are sent to the client as the deltas: only the added, the changed and the removed areas since the
+ * previous packet. Every packet has the next sequence number, the whole list is sent only on join and when the client
+ * misses a delta.
+ */
 public final class AreasServerManager implements IServerAutomationAreaManager {
 
     private boolean needSync = false;
+    // an area was added, removed or changed since the last delta
+    private boolean areasChanged = false;
     private final List<ServerAutomationAreaInfo> areas = new ArrayList<>();
 
+    // versions of the areas the client has
+    private final Object2IntMap<UUID> sentVersions = new Object2IntOpenHashMap<>();
+    private long syncSequence = 0;
+
     private int tickCounter = 0;
     private int refreshPointer = 0;
 
     public void addArea(IAutomationAreaInfo area) {
         areas.add(new ServerAutomationAreaInfo(area));
-        sync();
+        areasChanged = true;
     }
 
     public void removeArea(UUID id) {
         final var areasToRemove = areas.stream().filter(it -> it.getId().equals(id)).toList();
         areasToRemove.forEach(ServerAutomationAreaInfo::reset);
-        areas.removeAll(areasToRemove);
-        sync();
+        if (areas.removeAll(areasToRemove))
+            areasChanged = true;
     }
 
 
     public void tick(@NotNull MinecraftServer server, @NotNull ServerWorld world, @Nullable ServerPlayerEntity player) {
         if (player == null) return;
 
-        if(tickCounter++ % 20 == 0) {
-            if(areas.isEmpty()) return;
+        if(tickCounter++ % 20 == 0 && !areas.isEmpty()) {
             if(refreshPointer >= areas.size()) refreshPointer = 0;
-            areas.get(refreshPointer++).refresh(world);
-            sync();
+            if(areas.get(refreshPointer++).refresh(world))
+                areasChanged = true;
         }
 
         if(needSync) {
-            final var automationAreaInfos = areas.stream().map(IAutomationAreaInfo.class::cast).toList();
-            FortressServerNetworkHelper.send(player, S2CSyncAreasPacket.CHANNEL, new S2CSyncAreasPacket(automationAreaInfos));
+            sendAllAreas(player);
             needSync = false;
+        } else if(areasChanged) {
+            sendChangedAreas(player);
+        }
+        areasChanged = false;
+    }
+
+    private void sendAllAreas(ServerPlayerEntity player) {
+        sentVersions.clear();
+        areas.forEach(it -> sentVersions.put(it.getId(), it.getVersion()));
+
+        final var automationAreaInfos = areas.stream().map(IAutomationAreaInfo.class::cast).toList();
+        final var packet = new S2CSyncAreasPacket(++syncSequence, automationAreaInfos);
+        FortressServerNetworkHelper.send(player, S2CSyncAreasPacket.CHANNEL, packet);
+    }
+
+    private void sendChangedAreas(ServerPlayerEntity player) {
+        final var changedAreas = new ArrayList<IAutomationAreaInfo>();
+        final var removedIds = new HashSet<>(sentVersions.keySet());
+        for (ServerAutomationAreaInfo area : areas) {
+            final var id = area.getId();
+            removedIds.remove(id);
+            if (!sentVersions.containsKey(id) || sentVersions.getInt(id) != area.getVersion()) {
+                changedAreas.add(area);
+                sentVersions.put(id, area.getVersion());
+            }
         }
+        if (changedAreas.isEmpty() && removedIds.isEmpty()) return;
+
+        removedIds.forEach(sentVersions::removeInt);
+        final var packet = new S2CSyncAreasDeltaPacket(++syncSequence, changedAreas, List.copyOf(removedIds));
+        FortressServerNetworkHelper.send(player, S2CSyncAreasDeltaPacket.CHANNEL, packet);
     }
 
     @Override
@@ -64,6 +107,9 @@ public final class AreasServerManager implements IServerAutomationAreaManager {
                 .map(ServerAutomationAreaInfo.class::cast);
     }
 
+    /**
+     * Sends all the areas with the next tick instead of the delta.
+     */
     public void sync() {
         needSync = true;
     }
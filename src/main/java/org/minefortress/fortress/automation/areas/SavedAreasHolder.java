@@ -9,38 +9,81 @@ import net.remmintan.mods.minefortress.core.interfaces.tasks.ITasksModelBuilderI
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITasksRenderInfoProvider;
 import net.remmintan.mods.minefortress.core.utils.BuildingHelper;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public final class SavedAreasHolder implements ITasksModelBuilderInfoProvider, ITasksRenderInfoProvider, ISavedAreasHolder {
 
+    private static final long NO_SEQUENCE = -1;
+
     private boolean needsUpdate = true;
+    private boolean areasChanged = false;
     private List<IAutomationAreaInfo> savedAreas = Collections.emptyList();
+    private Map<UUID, IClientTask> selections = Collections.emptyMap();
+    // the sequence of the last applied areas packet
+    private long sequence = NO_SEQUENCE;
+    private boolean resyncRequested = false;
 
     @Override
-    public void setSavedAreas(List<IAutomationAreaInfo> savedAreas) {
+    public void setSavedAreas(long sequence, List<IAutomationAreaInfo> savedAreas) {
+        this.sequence = sequence;
+        this.resyncRequested = false;
         this.savedAreas = Collections.unmodifiableList(savedAreas);
+        this.selections = savedAreas.stream()
+                .collect(Collectors.toUnmodifiableMap(IAutomationAreaInfo::getId, this::toClientSelection));
         this.setNeedRebuild(true);
     }
 
+    @Override
+    public boolean applyDelta(long sequence, List<IAutomationAreaInfo> changedAreas, List<UUID> removedIds) {
+        if (this.sequence == NO_SEQUENCE || sequence != this.sequence + 1) {
+            // the deltas are ignored until all the areas come, the missing ones are requested only once
+            this.sequence = NO_SEQUENCE;
+            final var needRequest = !resyncRequested;
+            resyncRequested = true;
+            return !needRequest;
+        }
+        this.sequence = sequence;
+
+        final var areas = new LinkedHashMap<UUID, IAutomationAreaInfo>();
+        savedAreas.forEach(it -> areas.put(it.getId(), it));
+        // the unchanged areas keep their selections, so their outlines aren't rebuilt
+        final var newSelections = new HashMap<>(selections);
+        for (UUID id : removedIds) {
+            areas.remove(id);
+            newSelections.remove(id);
+        }
+        for (IAutomationAreaInfo area : changedAreas) {
+            areas.put(area.getId(), area);
+            newSelections.put(area.getId(), toClientSelection(area));
+        }
+
+        this.savedAreas = List.copyOf(areas.values());
+        this.selections = Collections.unmodifiableMap(newSelections);
+        this.areasChanged = true;
+        return true;
+    }
+
     @Override
     public boolean isNeedRebuild() {
-        return needsUpdate;
+        return needsUpdate || areasChanged;
     }
 
     @Override
     public void setNeedRebuild(boolean rebuildNeeded) {
         this.needsUpdate = rebuildNeeded;
+        if (!rebuildNeeded)
+            this.areasChanged = false;
+    }
+
+    @Override
+    public boolean isNeedFullRebuild() {
+        return needsUpdate;
     }
 
     @Override
-    public Set<IClientTask> getAllSelections() {
-        return savedAreas.stream()
-                .map(this::toClientSelection)
-                .collect(Collectors.toSet());
+    public Map<UUID, IClientTask> getAllSelections() {
+        return selections;
     }
 
     @Override
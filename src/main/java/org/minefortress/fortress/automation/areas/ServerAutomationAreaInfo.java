@@ -1,7 +1,11 @@
 package org.minefortress.fortress.automation.areas;
 
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.remmintan.mods.minefortress.core.automation.iterators.ResetableIterator;
@@ -12,6 +16,7 @@ import net.remmintan.mods.minefortress.core.interfaces.automation.area.IAutomati
 import org.minefortress.fortress.automation.iterators.FarmAreaIterator;
 import org.minefortress.fortress.automation.iterators.LoggingAreaIterator;
 import org.minefortress.fortress.automation.iterators.MineAreaIterator;
+import org.jetbrains.annotations.Nullable;
 import org.minefortress.utils.AreasUtils;
 
 import java.time.LocalDateTime;
@@ -19,46 +24,141 @@ import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * The area is split into the slices, by the 16x16 columns or by the chunk sections for the quarries. Every worker
+ * leases its own slice, so the workers don't compete for the same blocks and don't walk to the same spot.
+ */
 public final class ServerAutomationAreaInfo extends AutomationAreaInfo implements IAutomationArea {
 
+    private static final Comparator<BlockPos> AREA_ORDER = Comparator.comparingInt(BlockPos::getY)
+            .reversed()
+            .thenComparingInt(BlockPos::getX)
+            .thenComparingInt(BlockPos::getZ);
+    private static final UUID NO_WORKER = new UUID(0L, 0L);
+
     private LocalDateTime updated;
-    private ResetableIterator<IAutomationBlockInfo> currentIterator;
+    private List<AreaSlice> slices;
+    private Map<Long, AreaSlice> slicesByKey;
+    // the saplings planned in this pass over the area, shared by the slices so the trees don't grow too close
+    // across the slice borders
+    private final Set<BlockPos> plannedSaplings = new HashSet<>();
     private boolean reset = false;
+    // bumped every time the blocks of the area change, so the manager knows which areas to send to the client
+    private int version = 0;
 
     public ServerAutomationAreaInfo(IAutomationAreaInfo info) {
         this(info.getClientArea(), info.getAreaType(), info.getId(), LocalDateTime.MIN);
     }
 
     private ServerAutomationAreaInfo(List<BlockPos> area, ProfessionsSelectionType areaType, UUID id, LocalDateTime updated) {
-        super(
-            area
-                .stream()
-                .sorted(
-                    Comparator.comparingInt(BlockPos::getY)
-                        .reversed()
-                        .thenComparingInt(BlockPos::getX)
-                        .thenComparingInt(BlockPos::getZ)
-                ).toList(),
-            areaType,
-            id
-        );
+        super(area.stream().sorted(AREA_ORDER).toList(), areaType, id);
         this.updated = updated;
+        setSlices(splitIntoSlices(Collections.emptyList()));
     }
 
     @Override
     public Iterator<IAutomationBlockInfo> iterator(World world) {
+        return iterator(world, NO_WORKER);
+    }
+
+    @Override
+    public Iterator<IAutomationBlockInfo> iterator(World world, UUID workerId) {
         if(this.reset) {
             return Collections.emptyIterator();
         }
-        if(currentIterator == null || !currentIterator.hasNext()){
-            this.currentIterator = switch (getAreaType()) {
-                case FARMING -> new FarmAreaIterator(this.getServerArea(), world);
-                case QUARRY -> new MineAreaIterator(this.getServerArea(), world);
-                case LOGGING -> new LoggingAreaIterator(this.getServerArea(), world);
-            };
+        restartIfFinished(world.getTime());
+        return new WorkerIterator(world, workerId);
+    }
+
+    @Override
+    public void release(UUID workerId) {
+        slices.forEach(it -> it.release(workerId));
+    }
+
+    @Override
+    public boolean isEmpty(World world) {
+        if(this.reset) return true;
+        final var time = world.getTime();
+        restartIfFinished(time);
+        for (AreaSlice slice : slices) {
+            if (slice.isLeased(time) || slice.hasWork(world, this::createIterator)) return false;
         }
+        return true;
+    }
 
-        return currentIterator;
+    /**
+     * Starts the new pass over the area once every slice is worked out, the same way the single iterator
+     * was recreated after it had reached the end.
+     */
+    private void restartIfFinished(long time) {
+        for (AreaSlice slice : slices) {
+            if (!slice.isFinished() || slice.isLeased(time)) return;
+        }
+        slices.forEach(AreaSlice::restart);
+        plannedSaplings.clear();
+    }
+
+    @Nullable
+    private AreaSlice leaseSlice(UUID workerId, long time) {
+        for (AreaSlice slice : slices) {
+            if (isBelowUnfinishedSlice(slice)) continue;
+            if (slice.tryLease(workerId, time)) return slice;
+        }
+        return null;
+    }
+
+    /**
+     * The quarry is dug out top-down, the section is taken only after the section above it is done.
+     */
+    private boolean isBelowUnfinishedSlice(AreaSlice slice) {
+        if (getAreaType() != ProfessionsSelectionType.QUARRY) return false;
+        final var above = slicesByKey.get(ChunkSectionPos.offset(slice.getKey(), Direction.UP));
+        return above != null && !above.isFinished();
+    }
+
+    private ResetableIterator<IAutomationBlockInfo> createIterator(Iterator<BlockPos> positions, World world) {
+        return switch (getAreaType()) {
+            case FARMING -> new FarmAreaIterator(positions, world);
+            case QUARRY -> new MineAreaIterator(positions, world);
+            case LOGGING -> new LoggingAreaIterator(positions, world, plannedSaplings);
+        };
+    }
+
+    /**
+     * Groups the area blocks into the slices keeping the area order. The previous slices with the same blocks are
+     * kept with their progress and leases.
+     */
+    private List<AreaSlice> splitIntoSlices(List<AreaSlice> previousSlices) {
+        final Map<Long, List<BlockPos>> positions = new LinkedHashMap<>();
+        for (BlockPos pos : getServerArea()) {
+            positions.computeIfAbsent(getSliceKey(pos), it -> new ArrayList<>()).add(pos);
+        }
+
+        final Map<Long, AreaSlice> previous = new HashMap<>();
+        previousSlices.forEach(it -> previous.put(it.getKey(), it));
+        final var newSlices = new ArrayList<AreaSlice>(positions.size());
+        positions.forEach((key, slicePositions) -> {
+            final var previousSlice = previous.remove(key);
+            if (previousSlice != null && previousSlice.getPositions().equals(slicePositions)) {
+                newSlices.add(previousSlice);
+            } else {
+                newSlices.add(new AreaSlice(key, slicePositions));
+            }
+        });
+        previous.values().forEach(AreaSlice::reset);
+        return newSlices;
+    }
+
+    private void setSlices(List<AreaSlice> slices) {
+        this.slices = slices;
+        this.slicesByKey = new HashMap<>();
+        slices.forEach(it -> slicesByKey.put(it.getKey(), it));
+    }
+
+    private long getSliceKey(BlockPos pos) {
+        if (getAreaType() == ProfessionsSelectionType.QUARRY)
+            return ChunkSectionPos.from(pos).asLong();
+        return ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ()));
     }
 
     @Override
@@ -68,9 +168,22 @@ public final class ServerAutomationAreaInfo extends AutomationAreaInfo implement
         }
     }
 
-    public void refresh(World world) {
+    /**
+     * @return true if the area has changed and has to be sent to the client again
+     */
+    public boolean refresh(World world) {
         final var area = this.getClientArea();
-        super.area = getRefreshedArea(world, area);
+        final var refreshedArea = getRefreshedArea(world, area).stream().sorted(AREA_ORDER).toList();
+        if (refreshedArea.equals(area)) return false;
+
+        super.area = refreshedArea;
+        setSlices(splitIntoSlices(slices));
+        version++;
+        return true;
+    }
+
+    public int getVersion() {
+        return version;
     }
 
     private List<BlockPos> getRefreshedArea(World world, List<BlockPos> area) {
@@ -96,8 +209,7 @@ public final class ServerAutomationAreaInfo extends AutomationAreaInfo implement
     }
 
     public void reset() {
-        if(this.currentIterator != null)
-            this.currentIterator.reset();
+        slices.forEach(AreaSlice::reset);
         this.reset = true;
     }
 
@@ -107,6 +219,9 @@ public final class ServerAutomationAreaInfo extends AutomationAreaInfo implement
         tag.putLongArray("blocks", getClientArea().stream().map(BlockPos::asLong).toList());
         tag.putString("areaType", getAreaType().name());
         tag.putString("updated", updated.toString());
+        final var slicesTag = new NbtList();
+        slices.forEach(it -> slicesTag.add(it.toNbt()));
+        tag.put("slices", slicesTag);
         return tag;
     }
 
@@ -115,11 +230,51 @@ public final class ServerAutomationAreaInfo extends AutomationAreaInfo implement
         var areaType = ProfessionsSelectionType.valueOf(tag.getString("areaType"));
         var blocks = tag.getLongArray("blocks");
         var blockPosList = Arrays.stream(blocks).mapToObj(BlockPos::fromLong).toList();
-        if(tag.contains("updated")) {
-            var updated = LocalDateTime.parse(tag.getString("updated"));
-            return new ServerAutomationAreaInfo(blockPosList, areaType, id, updated);
-        } else {
-            return new ServerAutomationAreaInfo(blockPosList, areaType, id, LocalDateTime.MIN);
+        var updated = tag.contains("updated") ? LocalDateTime.parse(tag.getString("updated")) : LocalDateTime.MIN;
+        final var info = new ServerAutomationAreaInfo(blockPosList, areaType, id, updated);
+        info.readSlicesProgress(tag.getList("slices", NbtList.COMPOUND_TYPE));
+        return info;
+    }
+
+    private void readSlicesProgress(NbtList slicesTag) {
+        for (int i = 0; i < slicesTag.size(); i++) {
+            final var sliceTag = slicesTag.getCompound(i);
+            final var slice = slicesByKey.get(sliceTag.getLong("key"));
+            if (slice != null)
+                slice.readProgress(sliceTag);
+        }
+    }
+
+    /**
+     * Goes through the blocks of the slice leased by the worker and leases the next free slice when it's done.
+     */
+    private final class WorkerIterator implements Iterator<IAutomationBlockInfo> {
+
+        private final World world;
+        private final UUID workerId;
+        @Nullable
+        private AreaSlice slice;
+
+        private WorkerIterator(World world, UUID workerId) {
+            this.world = world;
+            this.workerId = workerId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (reset) return false;
+            while (slice == null || !slice.hasNext(world, ServerAutomationAreaInfo.this::createIterator)) {
+                if (slice != null) slice.release(workerId);
+                slice = leaseSlice(workerId, world.getTime());
+                if (slice == null) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public IAutomationBlockInfo next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return slice.next(world, ServerAutomationAreaInfo.this::createIterator);
         }
     }
 
@@ -12,13 +12,13 @@ import net.remmintan.mods.minefortress.core.automation.iterators.AbstractFiltere
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.AutomationActionType;
 import net.remmintan.mods.minefortress.core.utils.BuildingHelper;
 
-import java.util.List;
+import java.util.Iterator;
 
 public class FarmAreaIterator extends AbstractFilteredIterator {
 
     private final World world;
-    public FarmAreaIterator(List<BlockPos> areaBlocks, World world) {
-        super(areaBlocks.listIterator());
+    public FarmAreaIterator(Iterator<BlockPos> areaBlocks, World world) {
+        super(areaBlocks);
         this.world = world;
     }
 
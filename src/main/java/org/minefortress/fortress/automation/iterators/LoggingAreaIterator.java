@@ -16,11 +16,15 @@ public class LoggingAreaIterator extends AbstractFilteredIterator {
     private final World world;
 
     private final Map<BlockPos, AutomationBlockInfo> cache = new HashMap<>();
-    private final Set<BlockPos> existingSaplings = new HashSet<>();
+    private final Set<BlockPos> existingSaplings;
 
-    public LoggingAreaIterator(List<BlockPos> blocks, World world) {
-        super(blocks.listIterator());
+    /**
+     * @param existingSaplings the saplings planned by the other iterators over the same area, the new ones are added
+     */
+    public LoggingAreaIterator(Iterator<BlockPos> blocks, World world, Set<BlockPos> existingSaplings) {
+        super(blocks);
         this.world=world;
+        this.existingSaplings = existingSaplings;
     }
 
     @Override
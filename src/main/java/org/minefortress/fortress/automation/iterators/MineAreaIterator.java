@@ -8,14 +8,14 @@ import net.remmintan.mods.minefortress.core.automation.iterators.AbstractFiltere
 import net.remmintan.mods.minefortress.core.interfaces.automation.area.AutomationActionType;
 import net.remmintan.mods.minefortress.core.utils.BuildingHelper;
 
-import java.util.List;
+import java.util.Iterator;
 
 public class MineAreaIterator extends AbstractFilteredIterator {
 
     private final World world;
 
-    public MineAreaIterator(List<BlockPos> blocks, World world) {
-        super(blocks.listIterator());
+    public MineAreaIterator(Iterator<BlockPos> blocks, World world) {
+        super(blocks);
         this.world = world;
     }
 
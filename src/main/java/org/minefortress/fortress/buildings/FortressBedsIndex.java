@@ -0,0 +1,111 @@
+package org.minefortress.fortress.buildings;
+
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Keeps track of every bed in the fortress buildings and of the pawns sleeping in them.
+ * Free beds are kept in insertion order so claiming a bed doesn't need to look through the buildings.
+ */
+final class FortressBedsIndex {
+
+    private final Map<BlockPos, Bed> beds = new HashMap<>();
+    private final Map<BlockPos, Set<BlockPos>> bedsByBuilding = new HashMap<>();
+    private final Set<BlockPos> freeBeds = new LinkedHashSet<>();
+    private final Map<UUID, BlockPos> claims = new HashMap<>();
+
+    int getBuildingsCount() {
+        return bedsByBuilding.size();
+    }
+
+    boolean containsBuilding(BlockPos buildingPos) {
+        return bedsByBuilding.containsKey(buildingPos);
+    }
+
+    void addBuilding(BlockPos buildingPos, Collection<BlockPos> bedPositions, Predicate<BlockPos> preserved) {
+        removeBuilding(buildingPos);
+        final var buildingBeds = new HashSet<BlockPos>();
+        for (BlockPos bedPos : bedPositions) {
+            final var pos = bedPos.toImmutable();
+            final var bed = new Bed();
+            bed.preserved = preserved.test(pos);
+            beds.put(pos, bed);
+            buildingBeds.add(pos);
+            if (bed.preserved)
+                freeBeds.add(pos);
+        }
+        bedsByBuilding.put(buildingPos, buildingBeds);
+    }
+
+    void removeBuilding(BlockPos buildingPos) {
+        final var buildingBeds = bedsByBuilding.remove(buildingPos);
+        if (buildingBeds == null) return;
+        for (BlockPos pos : buildingBeds) {
+            final var bed = beds.remove(pos);
+            freeBeds.remove(pos);
+            if (bed != null && bed.occupant != null)
+                claims.remove(bed.occupant);
+        }
+    }
+
+    void setPreserved(BlockPos pos, boolean preserved) {
+        final var bed = beds.get(pos);
+        if (bed == null || bed.preserved == preserved) return;
+        bed.preserved = preserved;
+        if (!preserved) {
+            freeBeds.remove(pos);
+            if (bed.occupant != null) {
+                claims.remove(bed.occupant);
+                bed.occupant = null;
+            }
+        } else if (bed.occupant == null) {
+            freeBeds.add(pos);
+        }
+    }
+
+    /**
+     * Returns the bed already claimed by the pawn or claims the first free bed accepted by the predicate.
+     */
+    Optional<BlockPos> claim(UUID pawnId, Predicate<BlockPos> canSleepAt) {
+        final var claimed = claims.get(pawnId);
+        if (claimed != null) return Optional.of(claimed);
+
+        final var iterator = freeBeds.iterator();
+        while (iterator.hasNext()) {
+            final var pos = iterator.next();
+            if (!canSleepAt.test(pos)) continue;
+
+            iterator.remove();
+            beds.get(pos).occupant = pawnId;
+            claims.put(pawnId, pos);
+            return Optional.of(pos);
+        }
+
+        return Optional.empty();
+    }
+
+    void release(UUID pawnId) {
+        final var pos = claims.remove(pawnId);
+        if (pos == null) return;
+        final var bed = beds.get(pos);
+        if (bed == null) return;
+        bed.occupant = null;
+        if (bed.preserved)
+            freeBeds.add(pos);
+    }
+
+    void clear() {
+        beds.clear();
+        bedsByBuilding.clear();
+        freeBeds.clear();
+        claims.clear();
+    }
+
+    private static final class Bed {
+        private boolean preserved = true;
+        private UUID occupant;
+    }
+
+}
@@ -1,11 +1,12 @@
 package org.minefortress.fortress.buildings;
 
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import net.minecraft.block.BedBlock;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.FurnaceBlockEntity;
 import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
@@ -28,8 +29,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public class FortressBuildingManager implements IAutomationAreaProvider, IServerBuildingsManager {
@@ -38,10 +37,9 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
     private final List<BlockPos> buildings = new ArrayList<>();
     private final ServerWorld world;
     private final BlockPos fortressPos;
-    private final Cache<BlockPos, Object> bedsCache =
-            CacheBuilder.newBuilder()
-                    .expireAfterWrite(10, TimeUnit.SECONDS)
-                    .build();
+    private final FortressBedsIndex bedsIndex = new FortressBedsIndex();
+    private final FortressFurnacesIndex furnacesIndex = new FortressFurnacesIndex();
+    private final FortressBuildingsIndex buildingsIndex = new FortressBuildingsIndex();
     private boolean needSync = false;
 
     public FortressBuildingManager(BlockPos fortressPos, ServerWorld world) {
@@ -65,6 +63,7 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
         final var blockEntity = world.getBlockEntity(buildingPos);
         if (blockEntity instanceof FortressBuildingBlockEntity b) {
             b.init(fortressPos, metadata, start, end, blockData);
+            index(b);
         }
 
         getFortressManager().expandTheVillage(start);
@@ -78,23 +77,79 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
     public void destroyBuilding(BlockPos pos) {
         if (buildings.remove(pos))
             this.scheduleSync();
-        getBuilding(pos).ifPresent(IFortressBuilding::destroy);
+        final var building = getBuilding(pos);
+        bedsIndex.removeBuilding(pos);
+        furnacesIndex.removeBuilding(pos);
+        buildingsIndex.remove(pos);
+        building.ifPresent(IFortressBuilding::destroy);
     }
 
-    public Optional<BlockPos> getFreeBed(){
-        final var freeBed = getBuildingsStream()
-                .map(it -> it.getFreeBed(getWorld()))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(it -> !bedsCache.asMap().containsKey(it))
-                .findFirst();
+    @Override
+    public Optional<BlockPos> claimBed(UUID pawnId) {
+        indexMissingBuildings();
+        return bedsIndex.claim(pawnId, this::canSleepAt);
+    }
+
+    @Override
+    public void releaseBed(UUID pawnId) {
+        bedsIndex.release(pawnId);
+    }
+
+    @Override
+    public void updateBedState(BlockPos bedPos, boolean preserved) {
+        bedsIndex.setPreserved(bedPos, preserved);
+    }
+
+    @Override
+    public void updateFurnaceState(BlockPos furnacePos, boolean preserved) {
+        furnacesIndex.setPreserved(furnacePos, preserved, getWorld());
+    }
+
+    @Override
+    public boolean isAnyFurnaceBurning() {
+        indexMissingBuildings();
+        return furnacesIndex.isAnyBurning();
+    }
+
+    @Override
+    public List<FurnaceBlockEntity> getFurnaces() {
+        indexMissingBuildings();
+        return furnacesIndex.getFurnaces(getWorld());
+    }
 
-        freeBed.ifPresent(it -> bedsCache.put(it, new Object()));
-        return freeBed;
+    private boolean canSleepAt(BlockPos bedPos) {
+        final var blockState = getWorld().getBlockState(bedPos);
+        return blockState.isIn(BlockTags.BEDS) && blockState.contains(BedBlock.OCCUPIED) && !blockState.get(BedBlock.OCCUPIED);
+    }
+
+    /**
+     * Buildings read from the save are indexed once their block entities are loaded.
+     */
+    private void indexMissingBuildings() {
+        if (bedsIndex.getBuildingsCount() == buildings.size()
+                && furnacesIndex.getBuildingsCount() == buildings.size()
+                && buildingsIndex.size() == buildings.size()) return;
+        for (BlockPos pos : buildings) {
+            if (!isIndexed(pos))
+                getBuildingFromWorld(pos).ifPresent(this::index);
+        }
+    }
+
+    private boolean isIndexed(BlockPos pos) {
+        return bedsIndex.containsBuilding(pos) && furnacesIndex.containsBuilding(pos) && buildingsIndex.contains(pos);
+    }
+
+    private void index(IFortressBuilding building) {
+        buildingsIndex.add(building);
+        bedsIndex.addBuilding(building.getPos(), building.getBeds(), building::isBlockPreserved);
+        final var isBlacksmith = building.getMetadata().getRequirement().getType() == ProfessionType.BLACKSMITH;
+        final var furnaces = isBlacksmith ? building.getFurnacePos() : List.<BlockPos>of();
+        furnacesIndex.addBuilding(building.getPos(), furnaces, building::isBlockPreserved, getWorld());
     }
 
     public long getTotalBedsCount() {
-        return getBuildingsStream().mapToLong(it -> it.getMetadata().getCapacity()).reduce(0, Long::sum);
+        indexMissingBuildings();
+        return buildingsIndex.getTotalCapacity();
     }
 
     @Override
@@ -111,9 +166,18 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
         if(!buildings.isEmpty()) {
             buildingPointer = buildingPointer % buildings.size();
             final var pos = buildings.get(buildingPointer++);
-            if (this.getBuilding(pos).isEmpty()) {
+            final var building = this.getBuildingFromWorld(pos);
+            if (building.isEmpty()) {
                 buildings.remove(pos);
+                bedsIndex.removeBuilding(pos);
+                furnacesIndex.removeBuilding(pos);
+                buildingsIndex.remove(pos);
                 this.scheduleSync();
+            } else if (!isIndexed(pos)) {
+                index(building.get());
+            } else {
+                buildingsIndex.updateBuilding(building.get());
+                furnacesIndex.refreshBuilding(pos, world);
             }
         }
     }
@@ -124,10 +188,8 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
 
     @Override
     public boolean hasRequiredBuilding(ProfessionType type, int level, int minCount) {
-        return getBuildingsStream()
-                .filter(b -> b.satisfiesRequirement(type, level))
-                .mapToInt(it -> it.getMetadata().getCapacity())
-                .sum() > minCount;
+        indexMissingBuildings();
+        return buildingsIndex.getCapacity(type, level) > minCount;
     }
 
     @Override
@@ -147,8 +209,7 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
     @Override
     public Stream<IAutomationArea> getAutomationAreaByProfessionType(ProfessionType type) {
         if (type != ProfessionType.FARMER) return Stream.empty();
-        return getBuildingsStream()
-                .filter(building -> building.satisfiesRequirement(type, 0))
+        return getBuildings(type).stream()
                 .map(IFortressBuilding::getAutomationArea)
                 .filter(Optional::isPresent)
                 .map(Optional::get);
@@ -156,7 +217,8 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
 
     @Override
     public boolean isPartOfAnyBuilding(BlockPos pos) {
-        return getBuildingsStream().anyMatch(it -> it.isPartOfTheBuilding(pos));
+        indexMissingBuildings();
+        return buildingsIndex.isPartOfAnyBuilding(pos);
     }
 
     @Override
@@ -166,42 +228,49 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
 
     @Override
     public Optional<IFortressBuilding> findNearest(BlockPos pos, ProfessionType type) {
-        final Predicate<IFortressBuilding> buildingsFilter = type == null ?
-                it -> true :
-                it -> it.satisfiesRequirement(type, 0);
-
-        return getBuildingsStream()
-                .filter(buildingsFilter)
-                .sorted(Comparator.comparing(it -> it.getCenter().getSquaredDistance(pos)))
-                .filter(it -> it.getHealth() > 0)
-                .findFirst();
+        indexMissingBuildings();
+        final var nearestPos = buildingsIndex.findNearest(
+                pos,
+                type,
+                it -> getBuilding(it).map(building -> building.getHealth() > 0).orElse(false)
+        );
+        return nearestPos == null ? Optional.empty() : getBuilding(nearestPos);
     }
 
     @NotNull
     public Optional<IFortressBuilding> getBuilding(BlockPos pos) {
+        final var indexed = buildingsIndex.getBuilding(pos);
+        if (indexed != null) return Optional.of(indexed);
+
+        final var building = getBuildingFromWorld(pos);
+        if (buildingsIndex.contains(pos))
+            building.ifPresent(buildingsIndex::updateBuilding);
+        return building;
+    }
+
+    @NotNull
+    private Optional<IFortressBuilding> getBuildingFromWorld(BlockPos pos) {
         final var blockEntity = getWorld().getBlockEntity(pos);
         return blockEntity instanceof IFortressBuilding b ? Optional.of(b) : Optional.empty();
     }
 
     @NotNull
     public List<IFortressBuilding> getBuildings(ProfessionType profession) {
-        return getBuildingsStream()
-                .filter(it -> it.satisfiesRequirement(profession, 0))
-                .toList();
+        return getBuildings(profession, 0);
     }
 
     @Override
     public List<IFortressBuilding> getBuildings(ProfessionType type, int level) {
-        return getBuildingsStream()
-                .filter(it -> it.satisfiesRequirement(type, level))
-                .toList();
+        indexMissingBuildings();
+        return toBuildings(buildingsIndex.getBuildings(type, level).stream());
     }
 
-    private @NotNull Stream<IFortressBuilding> getBuildingsStream() {
-        return buildings.stream()
+    private @NotNull List<IFortressBuilding> toBuildings(Stream<BlockPos> positions) {
+        return positions
                 .map(this::getBuilding)
                 .filter(Optional::isPresent)
-                .map(Optional::get);
+                .map(Optional::get)
+                .toList();
     }
 
     @Override
@@ -215,7 +284,9 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
     }
 
     public Optional<HostileEntity> getRandomBuildingAttacker() {
-        final var attackersList = getBuildingsStream()
+        indexMissingBuildings();
+        final var attackersList = toBuildings(buildingsIndex.getAllBuildings().stream())
+                .stream()
                 .map(IFortressBuilding::getAttackers)
                 .flatMap(Collection::stream)
                 .toList();
@@ -245,7 +316,9 @@ public class FortressBuildingManager implements IAutomationAreaProvider, IServer
 
     private void reset() {
         buildings.clear();
-        bedsCache.invalidateAll();
+        bedsIndex.clear();
+        furnacesIndex.clear();
+        buildingsIndex.clear();
         buildingPointer = 0;
         this.scheduleSync();
     }
@@ -0,0 +1,191 @@
+package org.minefortress.fortress.buildings;
+
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
+import net.remmintan.mods.minefortress.core.interfaces.buildings.IFortressBuilding;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of the fortress buildings. The bounds of every building are bucketed by the chunks they cover
+ * and the buildings are grouped by the profession they are required for, so the queries don't need to go
+ * through the block entities in the world.
+ */
+final class FortressBuildingsIndex {
+
+    private final Map<BlockPos, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, List<Entry>> chunks = new HashMap<>();
+    private final Map<ProfessionType, List<Entry>> byProfession = new EnumMap<>(ProfessionType.class);
+    private long totalCapacity = 0;
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean contains(BlockPos buildingPos) {
+        return entries.containsKey(buildingPos);
+    }
+
+    void add(IFortressBuilding building) {
+        final var pos = building.getPos().toImmutable();
+        remove(pos);
+
+        final var entry = new Entry(pos, building);
+        entries.put(pos, entry);
+        forEachChunk(entry.bounds, key -> chunks.computeIfAbsent(key, it -> new ArrayList<>()).add(entry));
+        if (entry.type != null)
+            byProfession.computeIfAbsent(entry.type, it -> new ArrayList<>()).add(entry);
+        totalCapacity += entry.capacity;
+    }
+
+    void remove(BlockPos buildingPos) {
+        final var entry = entries.remove(buildingPos);
+        if (entry == null) return;
+
+        forEachChunk(entry.bounds, key -> {
+            final var chunkEntries = chunks.get(key);
+            if (chunkEntries == null) return;
+            chunkEntries.remove(entry);
+            if (chunkEntries.isEmpty())
+                chunks.remove(key);
+        });
+        if (entry.type != null) {
+            final var professionEntries = byProfession.get(entry.type);
+            professionEntries.remove(entry);
+            if (professionEntries.isEmpty())
+                byProfession.remove(entry.type);
+        }
+        totalCapacity -= entry.capacity;
+    }
+
+    /**
+     * @return the cached building or null if its block entity was unloaded or removed since it was indexed
+     */
+    @Nullable
+    IFortressBuilding getBuilding(BlockPos buildingPos) {
+        final var entry = entries.get(buildingPos);
+        return entry == null ? null : entry.getLoadedBuilding();
+    }
+
+    void updateBuilding(IFortressBuilding building) {
+        final var entry = entries.get(building.getPos());
+        if (entry == null)
+            add(building);
+        else
+            entry.building = building;
+    }
+
+    long getTotalCapacity() {
+        return totalCapacity;
+    }
+
+    boolean isPartOfAnyBuilding(BlockPos pos) {
+        final var chunkEntries = chunks.get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (chunkEntries == null) return false;
+        for (Entry entry : chunkEntries) {
+            if (entry.bounds.contains(pos))
+                return true;
+        }
+        return false;
+    }
+
+    int getCapacity(ProfessionType type, int level) {
+        int capacity = 0;
+        for (Entry entry : getEntries(type)) {
+            if (entry.level >= level)
+                capacity += entry.capacity;
+        }
+        return capacity;
+    }
+
+    /**
+     * @param type the profession the building should be required for or null to look through all the buildings
+     * @return the building with the closest center that is accepted by the filter
+     */
+    @Nullable
+    BlockPos findNearest(BlockPos pos, @Nullable ProfessionType type, Predicate<BlockPos> filter) {
+        final Collection<Entry> candidates = type == null ? entries.values() : getEntries(type);
+
+        Entry nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (Entry entry : candidates) {
+            final var distance = entry.center.getSquaredDistance(pos);
+            if (distance < nearestDistance && filter.test(entry.pos)) {
+                nearest = entry;
+                nearestDistance = distance;
+            }
+        }
+        return nearest == null ? null : nearest.pos;
+    }
+
+    List<BlockPos> getBuildings(ProfessionType type, int level) {
+        final var professionEntries = getEntries(type);
+        final var result = new ArrayList<BlockPos>(professionEntries.size());
+        for (Entry entry : professionEntries) {
+            if (entry.level >= level)
+                result.add(entry.pos);
+        }
+        return result;
+    }
+
+    Collection<BlockPos> getAllBuildings() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    void clear() {
+        entries.clear();
+        chunks.clear();
+        byProfession.clear();
+        totalCapacity = 0;
+    }
+
+    private List<Entry> getEntries(@Nullable ProfessionType type) {
+        if (type == null) return Collections.emptyList();
+        return byProfession.getOrDefault(type, Collections.emptyList());
+    }
+
+    private static void forEachChunk(BlockBox box, LongConsumer action) {
+        for (int chunkX = box.getMinX() >> 4; chunkX <= box.getMaxX() >> 4; chunkX++) {
+            for (int chunkZ = box.getMinZ() >> 4; chunkZ <= box.getMaxZ() >> 4; chunkZ++) {
+                action.accept(ChunkPos.toLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final BlockPos pos;
+        // the same bounds as IFortressBuilding#isPartOfTheBuilding checks
+        private final BlockBox bounds;
+        private final BlockPos center;
+        @Nullable
+        private final ProfessionType type;
+        private final int level;
+        private final int capacity;
+        private IFortressBuilding building;
+
+        private Entry(BlockPos pos, IFortressBuilding building) {
+            this.pos = pos;
+            this.bounds = BlockBox.create(building.getStart().down(1), building.getEnd().up(1));
+            this.center = building.getCenter();
+            final var metadata = building.getMetadata();
+            final var requirement = metadata.getRequirement();
+            this.type = requirement.getType();
+            this.level = requirement.getLevel();
+            this.capacity = metadata.getCapacity();
+            this.building = building;
+        }
+
+        @Nullable
+        private IFortressBuilding getLoadedBuilding() {
+            if (building instanceof BlockEntity be && be.isRemoved()) return null;
+            return building;
+        }
+    }
+
+}
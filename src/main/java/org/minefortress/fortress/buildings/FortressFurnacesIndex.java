@@ -0,0 +1,143 @@
+package org.minefortress.fortress.buildings;
+
+import net.minecraft.block.entity.FurnaceBlockEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+import org.minefortress.interfaces.FortressFurnace;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the furnaces of the blacksmith buildings together with their block entities. The furnaces report when they
+ * start or stop burning, so checking whether any of them is burning doesn't look through the buildings and the world.
+ * The block entity of the unloaded chunk is removed, such furnace is bound again once the chunk is loaded back.
+ */
+final class FortressFurnacesIndex {
+
+    private final Map<BlockPos, Set<BlockPos>> furnacesByBuilding = new HashMap<>();
+    // in the order the buildings were added
+    private final Map<BlockPos, Furnace> furnaces = new LinkedHashMap<>();
+    private final Set<BlockPos> burningFurnaces = new HashSet<>();
+
+    int getBuildingsCount() {
+        return furnacesByBuilding.size();
+    }
+
+    boolean containsBuilding(BlockPos buildingPos) {
+        return furnacesByBuilding.containsKey(buildingPos);
+    }
+
+    void addBuilding(BlockPos buildingPos, Collection<BlockPos> furnacePositions, Predicate<BlockPos> preserved, World world) {
+        removeBuilding(buildingPos);
+        final var buildingFurnaces = new HashSet<BlockPos>();
+        for (BlockPos furnacePos : furnacePositions) {
+            final var pos = furnacePos.toImmutable();
+            final var furnace = new Furnace(pos);
+            furnace.preserved = preserved.test(pos);
+            furnaces.put(pos, furnace);
+            buildingFurnaces.add(pos);
+            furnace.getBlockEntity(world);
+        }
+        furnacesByBuilding.put(buildingPos, buildingFurnaces);
+    }
+
+    void removeBuilding(BlockPos buildingPos) {
+        final var buildingFurnaces = furnacesByBuilding.remove(buildingPos);
+        if (buildingFurnaces == null) return;
+        for (BlockPos pos : buildingFurnaces) {
+            final var furnace = furnaces.remove(pos);
+            if (furnace != null)
+                furnace.unbind();
+        }
+    }
+
+    /**
+     * Binds the furnaces of the building which lost their block entities.
+     */
+    void refreshBuilding(BlockPos buildingPos, World world) {
+        final var buildingFurnaces = furnacesByBuilding.get(buildingPos);
+        if (buildingFurnaces == null) return;
+        for (BlockPos pos : buildingFurnaces) {
+            furnaces.get(pos).getBlockEntity(world);
+        }
+    }
+
+    void setPreserved(BlockPos pos, boolean preserved, World world) {
+        final var furnace = furnaces.get(pos);
+        if (furnace == null || furnace.preserved == preserved) return;
+        furnace.preserved = preserved;
+        furnace.unbind();
+        furnace.getBlockEntity(world);
+    }
+
+    boolean isAnyBurning() {
+        final var iterator = burningFurnaces.iterator();
+        while (iterator.hasNext()) {
+            final var furnace = furnaces.get(iterator.next());
+            if (furnace != null && furnace.blockEntity != null && !furnace.blockEntity.isRemoved())
+                return true;
+            iterator.remove();
+        }
+        return false;
+    }
+
+    List<FurnaceBlockEntity> getFurnaces(World world) {
+        final var result = new ArrayList<FurnaceBlockEntity>();
+        for (Furnace furnace : furnaces.values()) {
+            final var blockEntity = furnace.getBlockEntity(world);
+            if (blockEntity != null)
+                result.add(blockEntity);
+        }
+        return result;
+    }
+
+    void clear() {
+        furnaces.values().forEach(Furnace::unbind);
+        furnaces.clear();
+        furnacesByBuilding.clear();
+        burningFurnaces.clear();
+    }
+
+    private final class Furnace {
+        private final BlockPos pos;
+        private boolean preserved = true;
+        @Nullable
+        private FurnaceBlockEntity blockEntity;
+
+        private Furnace(BlockPos pos) {
+            this.pos = pos;
+        }
+
+        @Nullable
+        FurnaceBlockEntity getBlockEntity(World world) {
+            if (blockEntity != null && !blockEntity.isRemoved()) return blockEntity;
+            unbind();
+            // the destroyed furnace isn't used until it's repaired
+            if (!preserved || !world.isChunkLoaded(pos)) return null;
+            if (world.getBlockEntity(pos) instanceof FurnaceBlockEntity furnace) {
+                blockEntity = furnace;
+                ((FortressFurnace) furnace).set_BurningListener(this::setBurning);
+                setBurning(furnace.isBurning());
+            }
+            return blockEntity;
+        }
+
+        void unbind() {
+            if (blockEntity != null)
+                ((FortressFurnace) blockEntity).set_BurningListener(null);
+            blockEntity = null;
+            burningFurnaces.remove(pos);
+        }
+
+        private void setBurning(boolean burning) {
+            if (burning) {
+                burningFurnaces.add(pos);
+            } else {
+                burningFurnaces.remove(pos);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,234 @@
+package org.minefortress.fortress.fishing;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+import net.remmintan.mods.minefortress.core.dtos.professions.FishingSpot;
+import net.remmintan.mods.minefortress.core.interfaces.professions.IServerFishingSpotsManager;
+import net.remmintan.mods.minefortress.core.interfaces.server.IFortressServerWorld;
+import net.remmintan.mods.minefortress.core.interfaces.server.ITickableManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Fishing spots on the shores in the loaded chunks around the fortress. The chunks are scanned a few per tick and
+ * scanned again when a block near the surface changes. The chunk sections without water in their palette are skipped,
+ * so the scan checks the blocks only in the columns with the water on the surface.
+ */
+public final class FishingSpotsManager implements IServerFishingSpotsManager, ITickableManager, IFortressServerWorld.BlockChangeListener {
+
+    private static final int RADIUS_CHUNKS = 6;
+    private static final int CHUNKS_PER_TICK = 1;
+    // the chunks loaded after their last scan are picked up by the full rescan
+    private static final int RESCAN_INTERVAL_TICKS = 20 * 60;
+    private static final int STAND_DISTANCE = 2;
+
+    private final ServerWorld world;
+    private final ChunkPos centerChunk;
+    private final Long2ObjectMap<List<FishingSpot>> spotsByChunk = new Long2ObjectOpenHashMap<>();
+    private final LongLinkedOpenHashSet dirtyChunks = new LongLinkedOpenHashSet();
+    private final Map<UUID, FishingSpot> reservations = new HashMap<>();
+    private final Set<BlockPos> reservedPositions = new HashSet<>();
+    private int ticksToRescan = 0;
+
+    public FishingSpotsManager(BlockPos fortressPos, ServerWorld world) {
+        this.world = world;
+        this.centerChunk = new ChunkPos(fortressPos);
+        ((IFortressServerWorld) world).add_BlockChangeListener(this);
+    }
+
+    @Override
+    public Optional<FishingSpot> reserve(UUID pawnId, BlockPos near, Predicate<BlockPos> waterFilter) {
+        release(pawnId);
+        releaseStale();
+
+        // the spots of the nearest ring of chunks having any are chosen at random, so the fishers spread over the shore
+        final var nearChunk = new ChunkPos(near);
+        final var maxRing = Math.max(
+                Math.abs(nearChunk.x - centerChunk.x),
+                Math.abs(nearChunk.z - centerChunk.z)
+        ) + RADIUS_CHUNKS;
+        final var candidates = new ArrayList<FishingSpot>();
+        for (int ring = 0; ring <= maxRing && candidates.isEmpty(); ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) continue;
+                    final var spots = spotsByChunk.get(ChunkPos.toLong(nearChunk.x + dx, nearChunk.z + dz));
+                    if (spots == null) continue;
+                    for (FishingSpot spot : spots) {
+                        if (isFree(spot) && waterFilter.test(spot.waterPos()) && isValid(spot))
+                            candidates.add(spot);
+                    }
+                }
+            }
+        }
+        if (candidates.isEmpty()) return Optional.empty();
+
+        final var spot = candidates.get(world.random.nextInt(candidates.size()));
+        reservations.put(pawnId, spot);
+        reservedPositions.add(spot.waterPos());
+        reservedPositions.add(spot.standPos());
+        return Optional.of(spot);
+    }
+
+    @Override
+    public void release(UUID pawnId) {
+        final var spot = reservations.remove(pawnId);
+        if (spot == null) return;
+        reservedPositions.remove(spot.waterPos());
+        reservedPositions.remove(spot.standPos());
+    }
+
+    @Override
+    public void tick(@NotNull MinecraftServer server, @NotNull ServerWorld world, @Nullable ServerPlayerEntity player) {
+        if (ticksToRescan-- <= 0) {
+            ticksToRescan = RESCAN_INTERVAL_TICKS;
+            for (int x = centerChunk.x - RADIUS_CHUNKS; x <= centerChunk.x + RADIUS_CHUNKS; x++) {
+                for (int z = centerChunk.z - RADIUS_CHUNKS; z <= centerChunk.z + RADIUS_CHUNKS; z++) {
+                    dirtyChunks.add(ChunkPos.toLong(x, z));
+                }
+            }
+        }
+
+        for (int i = 0; i < CHUNKS_PER_TICK && !dirtyChunks.isEmpty(); i++) {
+            scanChunk(dirtyChunks.removeFirstLong());
+        }
+    }
+
+    @Override
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        final var x = pos.getX();
+        final var z = pos.getZ();
+        if (!isInArea(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(z))) return;
+        // only the blocks on the surface make or break the spots
+        final var topY = world.getTopY(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
+        if (!oldState.isOf(Blocks.WATER) && !newState.isOf(Blocks.WATER) && pos.getY() < topY - 3) return;
+
+        // the stand position may be in the neighbour chunk
+        for (int dx = -STAND_DISTANCE; dx <= STAND_DISTANCE; dx += 2 * STAND_DISTANCE) {
+            for (int dz = -STAND_DISTANCE; dz <= STAND_DISTANCE; dz += 2 * STAND_DISTANCE) {
+                final var chunkX = ChunkSectionPos.getSectionCoord(x + dx);
+                final var chunkZ = ChunkSectionPos.getSectionCoord(z + dz);
+                if (isInArea(chunkX, chunkZ))
+                    dirtyChunks.add(ChunkPos.toLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    /**
+     * Releases the spots of the fishers which died or were removed without stopping their task.
+     */
+    private void releaseStale() {
+        final var iterator = reservations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
+            final var pawn = world.getEntity(entry.getKey());
+            if (pawn != null && pawn.isAlive()) continue;
+            reservedPositions.remove(entry.getValue().waterPos());
+            reservedPositions.remove(entry.getValue().standPos());
+            iterator.remove();
+        }
+    }
+
+    private boolean isInArea(int chunkX, int chunkZ) {
+        return Math.abs(chunkX - centerChunk.x) <= RADIUS_CHUNKS && Math.abs(chunkZ - centerChunk.z) <= RADIUS_CHUNKS;
+    }
+
+    private boolean isFree(FishingSpot spot) {
+        return !reservedPositions.contains(spot.waterPos()) && !reservedPositions.contains(spot.standPos());
+    }
+
+    private boolean isValid(FishingSpot spot) {
+        return world.isChunkLoaded(spot.waterPos())
+                && world.isChunkLoaded(spot.standPos())
+                && world.getBlockState(spot.waterPos()).isOf(Blocks.WATER)
+                && isStandPos(world, spot.standPos());
+    }
+
+    private void scanChunk(long chunkKey) {
+        final var chunk = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey));
+        if (chunk == null) {
+            spotsByChunk.remove(chunkKey);
+            return;
+        }
+
+        final var spots = new ArrayList<FishingSpot>();
+        final var sectionsWithWater = new Boolean[chunk.getSectionArray().length];
+        final var startX = chunk.getPos().getStartX();
+        final var startZ = chunk.getPos().getStartZ();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                final var surfaceY = chunk.sampleHeightmap(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
+                if (!hasWater(chunk, surfaceY, sectionsWithWater)) continue;
+
+                final var waterPos = new BlockPos(startX + x, surfaceY, startZ + z);
+                if (!chunk.getBlockState(waterPos).isOf(Blocks.WATER)) continue;
+                final var standPos = findStandPos(waterPos);
+                if (standPos != null)
+                    spots.add(new FishingSpot(waterPos, standPos));
+            }
+        }
+
+        if (spots.isEmpty()) {
+            spotsByChunk.remove(chunkKey);
+        } else {
+            spotsByChunk.put(chunkKey, spots);
+        }
+    }
+
+    private static boolean hasWater(WorldChunk chunk, int y, Boolean[] sectionsWithWater) {
+        final var sectionIndex = chunk.getSectionIndex(y);
+        if (sectionIndex < 0 || sectionIndex >= sectionsWithWater.length) return false;
+        if (sectionsWithWater[sectionIndex] == null) {
+            final var section = chunk.getSection(sectionIndex);
+            sectionsWithWater[sectionIndex] = !section.isEmpty()
+                    && section.getBlockStateContainer().hasAny(state -> state.isOf(Blocks.WATER));
+        }
+        return sectionsWithWater[sectionIndex];
+    }
+
+    /**
+     * Looks for the nearest surface block next to the water the fisher can stand on.
+     */
+    @Nullable
+    private BlockPos findStandPos(BlockPos waterPos) {
+        for (int distance = 1; distance <= STAND_DISTANCE; distance++) {
+            for (int dx = -distance; dx <= distance; dx++) {
+                for (int dz = -distance; dz <= distance; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != distance) continue;
+                    final var x = waterPos.getX() + dx;
+                    final var z = waterPos.getZ() + dz;
+                    if (!world.isChunkLoaded(ChunkSectionPos.getSectionCoord(x), ChunkSectionPos.getSectionCoord(z))) continue;
+
+                    final var pos = new BlockPos(x, world.getTopY(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z) - 1, z);
+                    if (isStandPos(world, pos))
+                        return pos;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStandPos(World world, BlockPos pos) {
+        final var state = world.getBlockState(pos);
+        return !state.isAir()
+                && !state.isOf(Blocks.WATER)
+                && world.getBlockState(pos.up()).isAir()
+                && world.getBlockState(pos.up(2)).isAir();
+    }
+
+}
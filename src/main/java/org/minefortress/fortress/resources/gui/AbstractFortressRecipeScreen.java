@@ -6,6 +6,8 @@ import net.minecraft.client.gui.screen.ingame.HandledScreen;
 import net.minecraft.client.gui.screen.recipebook.RecipeBookProvider;
 import net.minecraft.client.gui.screen.recipebook.RecipeBookWidget;
 import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.screen.slot.Slot;
+import net.minecraft.screen.slot.SlotActionType;
 import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.MathHelper;
@@ -82,6 +84,12 @@ public abstract class AbstractFortressRecipeScreen<T extends AbstractFortressRec
         return super.mouseClicked(mouseX, mouseY, button);
     }
 
+    @Override
+    protected void onMouseClick(Slot slot, int slotId, int button, SlotActionType actionType) {
+        this.handler.sendRowsOffset();
+        super.onMouseClick(slot, slotId, button, actionType);
+    }
+
     @Override
     protected boolean isClickOutsideBounds(double mouseX, double mouseY, int left, int top, int button) {
         final var slotAt = super.getSlotAt(mouseX, mouseY);
@@ -7,31 +7,60 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.recipe.Recipe;
 import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
 import net.minecraft.screen.AbstractRecipeScreenHandler;
 import net.minecraft.screen.ScreenHandlerType;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
-import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
+import net.remmintan.mods.minefortress.core.dtos.CraftableRecipes;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ICraftableRecipesHandler;
 import net.remmintan.mods.minefortress.core.interfaces.resources.IScrollableHandler;
 import net.remmintan.mods.minefortress.core.interfaces.resources.IServerResourceManager;
+import net.remmintan.mods.minefortress.core.utils.RecipesHelper;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import net.remmintan.mods.minefortress.networking.c2s.ServerboundScrollCurrentScreenPacket;
 import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames;
 import net.remmintan.mods.minefortress.networking.helpers.FortressClientNetworkHelper;
+import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper;
+import net.remmintan.mods.minefortress.networking.s2c.S2CSyncCraftableRecipesPacket;
+import net.remmintan.mods.minefortress.networking.s2c.S2CSyncScreenStacksPacket;
+import org.jetbrains.annotations.Nullable;
 import org.minefortress.fortress.resources.client.FortressItemStack;
 import org.minefortress.interfaces.FortressSimpleInventory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
-public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> extends AbstractRecipeScreenHandler<T> implements IScrollableHandler {
+/**
+ * The fortress items are stored in the screen inventory and shown through a window of {@link #WINDOW_ROWS} rows.
+ * The client moves the window locally and receives the whole items list through {@link S2CSyncScreenStacksPacket},
+ * the server learns the scrolled row only right before the client clicks a slot.
+ * <p>
+ * The recipes craftable from the items are sent along with them, so the recipe book shows them right away instead
+ * of matching every recipe against the items. Only the screens whose recipe book uses them send them, see
+ * {@link #getCraftableRecipesType()}.
+ */
+public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> extends AbstractRecipeScreenHandler<T> implements IScrollableHandler, ICraftableRecipesHandler {
+
+    private static final int WINDOW_ROWS = 4;
+    private static final int WINDOW_SIZE = WINDOW_ROWS * 9;
 
     private final SimpleInventory screenInventory = new SimpleInventory(999);
-    private final VirtualInventory virtualInventory;
+    private final WindowInventory windowInventory = new WindowInventory();
     private final IServerResourceManager IServerResourceManager;
+    private final Map<Item, Integer> itemsBefore;
+
+    // the server side copies of the stored stacks the client has
+    private final List<ItemStack> sentStoredStacks = new ArrayList<>();
+    private boolean needStoredStacksReset = true;
+
+    private int rowsOffset = 0;
+    private int sentRowsOffset = 0;
 
-    private int clientCurrentRow = 5;
+    // the client side recipes received from the server and not yet shown by the recipe book
+    @Nullable
+    private Set<Recipe<?>> craftableRecipes;
 
     protected final PlayerEntity player;
     protected final World world;
@@ -41,34 +70,52 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
         this.IServerResourceManager = resourceManager;
         this.player = player;
         this.world = player.getWorld();
-        this.virtualInventory = Objects.nonNull(IServerResourceManager) ? new VirtualInventory(IServerResourceManager.getAllItems()) : null;
+        if (Objects.nonNull(IServerResourceManager)) {
+            final var items = IServerResourceManager.getAllItems().stream().filter(it -> !it.isEmpty()).toList();
+            for (int index = 0; index < items.size() && index < screenInventory.size(); index++) {
+                screenInventory.setStack(index, items.get(index));
+            }
+            this.itemsBefore = countItems();
+        } else {
+            this.itemsBefore = Collections.emptyMap();
+        }
     }
 
     public int getRowsCount() {
-        final var rowsCount = ((virtualInventory != null ? virtualInventory.size() : slots.size())) / 9;
-        return rowsCount + (virtualInventory != null && virtualInventory.full() ? 1 : 0);
+        int lastIndex = -1;
+        for (int index = 0; index < screenInventory.size(); index++) {
+            if (!screenInventory.getStack(index).isEmpty())
+                lastIndex = index;
+        }
+        // one more empty row to put the new items into
+        final var rowsCount = lastIndex / 9 + 2;
+        return MathHelper.clamp(rowsCount, WINDOW_ROWS, screenInventory.size() / 9);
     }
 
     @Override
     public void setStackInSlot(int slot, int revision, ItemStack stack) {
-        while (slots.size() <= slot) {
-            for (int column = 0; column < 9; ++column) {
-                this.addSlot(new FortressNotInsertableSlot(this.screenInventory, column + clientCurrentRow * 9, 8 + column * 18, 80 + clientCurrentRow * 18));
-            }
-            clientCurrentRow++;
+        // the client has its own window position, the window slots are synced by the index in the whole list
+        if (isClientWindowSlot(slot)) {
+            super.setStackInSlot(slot, revision, getSlot(slot).getStack());
+            return;
         }
         super.setStackInSlot(slot, revision, stack);
     }
 
     @Override
     public void updateSlotStacks(int revision, List<ItemStack> stacks, ItemStack cursorStack) {
-        while (slots.size() < stacks.size()) {
-            for (int column = 0; column < 9; ++column) {
-                this.addSlot(new FortressNotInsertableSlot(this.screenInventory, column + clientCurrentRow * 9, 8 + column * 18, 80 + clientCurrentRow * 18));
-            }
-            clientCurrentRow++;
+        final var clientStacks = new ArrayList<>(stacks);
+        for (int slot = 0; slot < clientStacks.size(); slot++) {
+            if (isClientWindowSlot(slot))
+                clientStacks.set(slot, getSlot(slot).getStack());
         }
-        super.updateSlotStacks(revision, stacks, cursorStack);
+        super.updateSlotStacks(revision, clientStacks, cursorStack);
+    }
+
+    private boolean isClientWindowSlot(int slot) {
+        return IServerResourceManager == null
+                && slot < slots.size()
+                && getSlot(slot).inventory == windowInventory;
     }
 
     @Override
@@ -79,24 +126,11 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
     protected void createDefaultsScrollableSlots() {
         for (int row = 0; row < 3; ++row) {
             for (int column = 0; column < 9; ++column) {
-                this.addSlot(new FortressNotInsertableSlot(this.screenInventory, column + row * 9, 8 + column * 18, 84 + row * 18));
+                this.addSlot(new FortressNotInsertableSlot(this.windowInventory, column + row * 9, 8 + column * 18, 84 + row * 18));
             }
         }
         for (int column = 0; column < 9; ++column) {
-            this.addSlot(new FortressNotInsertableSlot(this.screenInventory, column + 27, 8 + column * 18, 142));
-        }
-
-        if(this.IServerResourceManager != null) {
-            int rowsCount = getRowsCount();
-            if(rowsCount > 4) {
-                for (int row = 0; row < rowsCount-4; row++) {
-                    for (int column = 0; column < 9; ++column) {
-                        this.addSlot(new FortressNotInsertableSlot(this.screenInventory, column + (row+4) * 9, 8 + column * 18, 150 + row * 18));
-                    }
-                }
-            }
-
-            this.scrollItems(0f);
+            this.addSlot(new FortressNotInsertableSlot(this.windowInventory, column + 27, 8 + column * 18, 142));
         }
     }
 
@@ -148,20 +182,35 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
     public void onClosed(PlayerEntity player) {
         super.onClosed(player);
         if (player instanceof ServerPlayerEntity serverPlayer) {
-
-
             returnInputs();
 
-            final var diff = this.virtualInventory.getDiff();
+            final var itemsAfter = countItems();
+            final var items = new HashSet<>(itemsBefore.keySet());
+            items.addAll(itemsAfter.keySet());
             ServerModUtils.getManagersProvider(serverPlayer).ifPresent(provider -> {
                 final var serverResourceManager = provider.getResourceManager();
-                diff.added.forEach(stack -> serverResourceManager.increaseItemAmount(stack.item(), stack.amount()));
-                diff.updated.forEach(stack -> serverResourceManager.increaseItemAmount(stack.item(), stack.amount()));
-                diff.removed.forEach(stack -> serverResourceManager.increaseItemAmount(stack.item(), -stack.amount()));
+                for (Item item : items) {
+                    final var diff = itemsAfter.getOrDefault(item, 0) - itemsBefore.getOrDefault(item, 0);
+                    if (diff != 0)
+                        serverResourceManager.increaseItemAmount(item, diff);
+                }
             });
         }
     }
 
+    /**
+     * The same item may end up in several stacks, so the items are counted over the whole list.
+     */
+    private Map<Item, Integer> countItems() {
+        final var counts = new HashMap<Item, Integer>();
+        for (int index = 0; index < screenInventory.size(); index++) {
+            final var stack = screenInventory.getStack(index);
+            if (!stack.isEmpty())
+                counts.merge(stack.getItem(), stack.getCount(), Integer::sum);
+        }
+        return counts;
+    }
+
     protected void returnInputs() {
         new FortressInputSlotFiller(this).returnInputs();
     }
@@ -174,40 +223,119 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
 
     protected abstract T getInput();
 
-    @Override
+    /**
+     * Moves the window over the stored items on the client only.
+     */
     public void scrollItems(float position) {
-        if(IServerResourceManager == null) {
-            final var packet = new ServerboundScrollCurrentScreenPacket(position);
-            FortressClientNetworkHelper.send(FortressChannelNames.SCROLL_CURRENT_SCREEN, packet);
-            return;
-        }
+        final var totalAdditionalRows = getRowsCount() - WINDOW_ROWS;
+        this.rowsOffset = Math.max((int)((double)(position * (float)totalAdditionalRows) + 0.5), 0);
+    }
+
+    /**
+     * Tells the server where the client window is, must be called before the click on a slot.
+     */
+    public void sendRowsOffset() {
+        if (IServerResourceManager != null || rowsOffset == sentRowsOffset) return;
+        final var packet = new ServerboundScrollCurrentScreenPacket(rowsOffset);
+        FortressClientNetworkHelper.send(FortressChannelNames.SCROLL_CURRENT_SCREEN, packet);
+        sentRowsOffset = rowsOffset;
+    }
+
+    @Override
+    public void setRowsOffset(int rowsOffset) {
+        this.rowsOffset = MathHelper.clamp(rowsOffset, 0, screenInventory.size() / 9 - WINDOW_ROWS);
+    }
+
+    @Override
+    public void updateStoredStacks(boolean reset, Map<Integer, ItemStack> stacks) {
+        if (reset)
+            screenInventory.clear();
+        stacks.forEach((index, stack) -> {
+            if (index >= 0 && index < screenInventory.size())
+                screenInventory.setStack(index, stack);
+        });
+    }
+
+    @Override
+    public void sendContentUpdates() {
+        super.sendContentUpdates();
+        sendStoredStacks();
+    }
+
+    @Override
+    public void syncState() {
+        super.syncState();
+        needStoredStacksReset = true;
+        sendStoredStacks();
+        sendCraftableRecipes();
+    }
 
-        final var totalRows = getRowsCount();
-        int totalAdditionalRows = totalRows - 4;
-        int rowOffset = (int)((double)(position * (float)totalAdditionalRows) + 0.5);
-        if (rowOffset < 0) {
-            rowOffset = 0;
+    private void sendCraftableRecipes() {
+        final var recipeType = getCraftableRecipesType();
+        if (recipeType == null || !(player instanceof ServerPlayerEntity serverPlayer) || IServerResourceManager == null) return;
+        final var craftable = IServerResourceManager.getCraftableRecipes(recipeType);
+        final var packet = new S2CSyncCraftableRecipesPacket(syncId, craftable);
+        FortressServerNetworkHelper.send(serverPlayer, S2CSyncCraftableRecipesPacket.CHANNEL, packet);
+    }
+
+    @Override
+    public void setCraftableRecipes(CraftableRecipes craftable) {
+        final var recipeType = getCraftableRecipesType();
+        if (recipeType == null) return;
+        final var recipes = RecipesHelper.getSortedRecipes(world.getRecipeManager(), recipeType);
+        // the client has other recipes than the server, the recipe book matches the items on its own
+        if (recipes.size() != craftable.recipesCount()) return;
+
+        final Set<Recipe<?>> craftableRecipes = Collections.newSetFromMap(new IdentityHashMap<>());
+        final var bits = craftable.craftable();
+        for (int i = bits.nextSetBit(0); i >= 0 && i < recipes.size(); i = bits.nextSetBit(i + 1)) {
+            craftableRecipes.add(recipes.get(i).value());
         }
-        for (int row = 0; row < totalRows; ++row) {
-            for (int column = 0; column < 9; ++column) {
-                var currentRow = row + rowOffset;
-                if (currentRow >= totalRows) {
-                    currentRow -= totalRows;
-                }
-                int m = column + currentRow * 9;
-                if (m >= 0 && m < this.virtualInventory.size()) {
-                    screenInventory.setStack(column + row * 9, virtualInventory.get(m));
-                    continue;
-                }
-                screenInventory.setStack(column + row * 9, ItemStack.EMPTY);
+        this.craftableRecipes = craftableRecipes;
+    }
+
+    /**
+     * @return the craftable recipes received since the last call or null if there are none
+     */
+    @Nullable
+    public Set<Recipe<?>> takeCraftableRecipes() {
+        final var recipes = this.craftableRecipes;
+        this.craftableRecipes = null;
+        return recipes;
+    }
+
+    /**
+     * @return the type of the recipes craftable from the items sent to the client, or null if the recipe book
+     * of the screen matches the items on its own and doesn't use them
+     */
+    @Nullable
+    protected RecipeType<?> getCraftableRecipesType() {
+        return null;
+    }
+
+    private void sendStoredStacks() {
+        if (!(player instanceof ServerPlayerEntity serverPlayer) || IServerResourceManager == null) return;
+
+        if (needStoredStacksReset) {
+            sentStoredStacks.clear();
+            for (int index = 0; index < screenInventory.size(); index++) {
+                sentStoredStacks.add(ItemStack.EMPTY);
             }
         }
 
-        this.virtualInventory.setRowsOffset(rowOffset);
-    }
+        final var changedStacks = new HashMap<Integer, ItemStack>();
+        for (int index = 0; index < screenInventory.size(); index++) {
+            final var stack = screenInventory.getStack(index);
+            if (!ItemStack.areEqual(stack, sentStoredStacks.get(index))) {
+                changedStacks.put(index, stack.copy());
+                sentStoredStacks.set(index, stack.copy());
+            }
+        }
+        if (changedStacks.isEmpty() && !needStoredStacksReset) return;
 
-    public VirtualInventory getVirtualInventory() {
-        return virtualInventory;
+        final var packet = new S2CSyncScreenStacksPacket(syncId, needStoredStacksReset, changedStacks);
+        FortressServerNetworkHelper.send(serverPlayer, S2CSyncScreenStacksPacket.CHANNEL, packet);
+        needStoredStacksReset = false;
     }
 
     @Override
@@ -238,14 +366,6 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
             super(inventory, index, x, y);
         }
 
-        @Override
-        public void setStackNoCallbacks(ItemStack stack) {
-            final var handler = AbstractFortressRecipeScreenHandler.this;
-            if(handler.virtualInventory != null)
-                handler.virtualInventory.set(this.getIndex(), stack);
-            super.setStackNoCallbacks(stack);
-        }
-
         @Override
         public boolean canInsert(ItemStack stack) {
             return this.getStack().isEmpty() || ItemStack.canCombine(this.getStack(), stack);
@@ -258,15 +378,16 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
             }
             ItemStack itemStack = this.getStack();
             if (itemStack.isEmpty()) {
-                if(this.inventory instanceof FortressSimpleInventory fortressSimpleInventory) {
-                    final var i = fortressSimpleInventory.index_Of(stack);
-                    if(i != -1) {
-                        this.inventory.getStack(i).increment(count);
-                        stack.decrement(count);
-                    } else {
-                        final var split = stack.split(count);
-                        this.setStackNoCallbacks(split);
-                    }
+                // the stack of the same item may be outside of the window
+                final var handler = AbstractFortressRecipeScreenHandler.this;
+                final var i = ((FortressSimpleInventory) handler.screenInventory).index_Of(stack);
+                if(i != -1) {
+                    handler.screenInventory.getStack(i).increment(count);
+                    handler.screenInventory.markDirty();
+                    stack.decrement(count);
+                } else {
+                    final var split = stack.split(count);
+                    this.setStackNoCallbacks(split);
                 }
             } else if (ItemStack.canCombine(itemStack, stack)) {
                 itemStack.increment(count);
@@ -277,97 +398,69 @@ public abstract class AbstractFortressRecipeScreenHandler<T extends Inventory> e
         }
     }
 
-    protected final class VirtualInventory {
-
-        private final Map<Item, Integer> itemsBefore;
-        private final List<ItemStack> items;
-
-        private int rowsOffset = 0;
+    /**
+     * The rows of the screen inventory visible in the window.
+     */
+    private final class WindowInventory implements Inventory {
 
-        VirtualInventory(List<ItemStack> items) {
-            this.items = new ArrayList<>(items.stream().filter(it -> !it.isEmpty()).toList());
-            this.itemsBefore = this.items
-                    .stream()
-                    .collect(Collectors.collectingAndThen(Collectors.toMap(ItemStack::getItem, ItemStack::getCount), Collections::unmodifiableMap));
+        private int toStoredIndex(int slot) {
+            return slot + rowsOffset * 9;
         }
 
-        boolean full() {
-            return this.items.stream().noneMatch(ItemStack::isEmpty);
+        @Override
+        public int size() {
+            return WINDOW_SIZE;
         }
 
-        ItemStack get(int index) {
-            return this.items.get(index);
+        @Override
+        public boolean isEmpty() {
+            for (int slot = 0; slot < WINDOW_SIZE; slot++) {
+                if (!getStack(slot).isEmpty()) return false;
+            }
+            return true;
         }
 
-        boolean hasItem(Item item) {
-            return this.items.stream().anyMatch(it -> it.getItem().equals(item));
+        @Override
+        public ItemStack getStack(int slot) {
+            return screenInventory.getStack(toStoredIndex(slot));
         }
 
-        void addItem(ItemStack itemStack) {
-            for (int i = 0; i < items.size(); i++) {
-                if (items.get(i).isEmpty()) {
-                    items.set(i, itemStack);
-                    return;
-                }
-            }
+        @Override
+        public ItemStack removeStack(int slot, int amount) {
+            return screenInventory.removeStack(toStoredIndex(slot), amount);
         }
 
-        void set(int index, ItemStack stack) {
-            final var slots = AbstractFortressRecipeScreenHandler.this.slots;
-
-            final var storageSlotsCount = slots.size() - AbstractFortressRecipeScreenHandler.this.getCraftingSlotCount();
-            while (storageSlotsCount>items.size()) {
-                this.items.add(ItemStack.EMPTY);
-            }
-
-            final var realIndex = index + rowsOffset * 9;
-            final var itemsCount = this.items.size();
-
-            final var insertIndex = realIndex < itemsCount ? realIndex : (realIndex - itemsCount);
+        @Override
+        public ItemStack removeStack(int slot) {
+            return screenInventory.removeStack(toStoredIndex(slot));
+        }
 
-            if(this.items.get(insertIndex).isEmpty() || stack.isEmpty() || this.items.get(insertIndex).equals(stack))
-                this.items.set(insertIndex, stack);
-            else
-                throw new IllegalStateException();
+        @Override
+        public void setStack(int slot, ItemStack stack) {
+            screenInventory.setStack(toStoredIndex(slot), stack);
         }
 
-        void setRowsOffset(int rowsOffset) {
-            this.rowsOffset = rowsOffset;
+        @Override
+        public int getMaxCountPerStack() {
+            return screenInventory.getMaxCountPerStack();
         }
 
-        int size() {
-            return this.items.size();
+        @Override
+        public void markDirty() {
+            screenInventory.markDirty();
         }
 
-        InventoryDiff getDiff() {
-            final var itemsAfter = this.items.stream()
-                    .filter(it -> !it.isEmpty())
-                    .map(ItemStack::getItem)
-                    .collect(Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet));
-
-            final var itemsToRemove = itemsBefore.entrySet()
-                    .stream()
-                    .filter(it -> !itemsAfter.contains(it.getKey()))
-                    .map(it -> new ItemInfo(it.getKey(), it.getValue()))
-                    .toList();
-
-            final var itemsToAdd = items.stream()
-                    .filter(it -> !it.isEmpty())
-                    .filter(it -> !itemsBefore.containsKey(it.getItem()))
-                    .map(it -> new ItemInfo(it.getItem(), it.getCount()))
-                    .toList();
-
-            final var itemsToUpdate = items.stream()
-                    .filter(it -> !it.isEmpty())
-                    .filter(it -> itemsBefore.containsKey(it.getItem()))
-                    .map(it -> new ItemInfo(it.getItem(), it.getCount() - itemsBefore.get(it.getItem())))
-                    .toList();
-
-            return new InventoryDiff(itemsToAdd, itemsToUpdate, itemsToRemove);
+        @Override
+        public boolean canPlayerUse(PlayerEntity player) {
+            return true;
         }
 
+        @Override
+        public void clear() {
+            for (int slot = 0; slot < WINDOW_SIZE; slot++) {
+                setStack(slot, ItemStack.EMPTY);
+            }
+        }
     }
 
-    protected record InventoryDiff(List<ItemInfo> added, List<ItemInfo> updated, List<ItemInfo> removed) {}
-
 }
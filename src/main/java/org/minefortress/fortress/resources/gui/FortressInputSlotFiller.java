@@ -55,10 +55,6 @@ public final class FortressInputSlotFiller implements RecipeGridAligner<Integer>
             if (!this.handler.canInsertIntoSlot(i)) continue;
             ItemStack itemStack = this.handler.getSlot(i).getStack().copy();
             this.inventory.addStack(itemStack);
-            final var virtualInventory = this.handler.getVirtualInventory();
-            if(!virtualInventory.hasItem(itemStack.getItem())) {
-                virtualInventory.addItem(itemStack);
-            }
             this.handler.getSlot(i).setStackNoCallbacks(itemStack);
         }
         this.handler.clearCraftingSlots();
@@ -132,10 +128,6 @@ public final class FortressInputSlotFiller implements RecipeGridAligner<Integer>
             this.inventory.removeStack(i, 1);
         } else {
             this.inventory.removeStack(i);
-            final var virtualInventory = this.handler.getVirtualInventory();
-            if(virtualInventory != null) {
-                virtualInventory.set(i, ItemStack.EMPTY);
-            }
         }
         itemStack.setCount(1);
         if (slot.getStack().isEmpty()) {
@@ -8,7 +8,6 @@ import net.minecraft.recipe.Recipe;
 import net.minecraft.recipe.RecipeEntry;
 import net.minecraft.recipe.RecipeType;
 import net.minecraft.screen.AbstractRecipeScreenHandler;
-import org.minefortress.fortress.resources.gui.craft.FortressCraftingScreenHandler;
 import org.minefortress.interfaces.FortressSimpleInventory;
 
 public class FortressRecipeBookWidget extends RecipeBookWidget {
@@ -18,6 +17,7 @@ public class FortressRecipeBookWidget extends RecipeBookWidget {
 
     public FortressRecipeBookWidget(RecipeType<? extends Recipe<? extends Inventory>> recipeType) {
         this.recipeType = recipeType;
+        this.recipeFinder = new FortressRecipeMatcher();
     }
 
     @Override
@@ -43,10 +43,17 @@ public class FortressRecipeBookWidget extends RecipeBookWidget {
 
     public void update() {
         super.update();
-        if(this.craftingScreenHandler instanceof FortressCraftingScreenHandler fortressHandler) {
+        if(this.craftingScreenHandler instanceof AbstractFortressRecipeScreenHandler<?> fortressHandler) {
             final var screenInventory = (FortressSimpleInventory) fortressHandler.getScreenInventory();
             final var changeCount = screenInventory.get_ChangeCount();
-            if (this.cachedInvChangeCount != changeCount) {
+            final var craftableRecipes = fortressHandler.takeCraftableRecipes();
+            if (craftableRecipes != null) {
+                // the server has already matched the recipes against the same items
+                this.recipeFinder.clear();
+                ((FortressRecipeMatcher) this.recipeFinder).setCraftableRecipes(craftableRecipes);
+                this.refreshResults(false);
+                this.cachedInvChangeCount = changeCount;
+            } else if (this.cachedInvChangeCount != changeCount) {
                 this.recipeFinder.clear();
                 screenInventory.populate_RecipeFinder(this.recipeFinder);
                 this.craftingScreenHandler.populateRecipeFinder(this.recipeFinder);
@@ -0,0 +1,43 @@
+package org.minefortress.fortress.resources.gui;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeMatcher;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Answers with the craftable recipes matched on the server until the matcher is cleared or gets the items
+ * to match on the client.
+ */
+class FortressRecipeMatcher extends RecipeMatcher {
+
+    @Nullable
+    private Set<Recipe<?>> craftableRecipes;
+
+    void setCraftableRecipes(Set<Recipe<?>> craftableRecipes) {
+        this.craftableRecipes = craftableRecipes;
+    }
+
+    @Override
+    public void addInput(ItemStack stack, int maxCount) {
+        this.craftableRecipes = null;
+        super.addInput(stack, maxCount);
+    }
+
+    @Override
+    public void clear() {
+        this.craftableRecipes = null;
+        super.clear();
+    }
+
+    @Override
+    public boolean match(Recipe<?> recipe, @Nullable IntList output, int multiplier) {
+        // the server doesn't send which items would be used, only whether the recipe can be made once
+        if (craftableRecipes != null && output == null && multiplier == 1)
+            return craftableRecipes.contains(recipe);
+        return super.match(recipe, output, multiplier);
+    }
+}
@@ -7,6 +7,7 @@ import net.minecraft.inventory.CraftingResultInventory;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.recipe.RecipeMatcher;
+import net.minecraft.recipe.RecipeType;
 import net.minecraft.recipe.book.RecipeBookCategory;
 import net.minecraft.screen.CraftingScreenHandler;
 import net.minecraft.screen.slot.CraftingResultSlot;
@@ -83,6 +84,11 @@ public class FortressCraftingScreenHandler extends AbstractFortressRecipeScreenH
         return 10;
     }
 
+    @Override
+    protected RecipeType<?> getCraftableRecipesType() {
+        return RecipeType.CRAFTING;
+    }
+
     @Override
     public RecipeBookCategory getCategory() {
         return RecipeBookCategory.CRAFTING;
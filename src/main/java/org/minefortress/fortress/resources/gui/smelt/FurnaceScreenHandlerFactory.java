@@ -1,6 +1,5 @@
 package org.minefortress.fortress.resources.gui.smelt;
 
-import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.block.entity.FurnaceBlockEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
@@ -10,14 +9,9 @@ import net.minecraft.screen.ScreenHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
-import net.remmintan.mods.minefortress.core.interfaces.blueprints.ProfessionType;
-import net.remmintan.mods.minefortress.core.interfaces.buildings.IFortressBuilding;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.Objects;
-
 public class FurnaceScreenHandlerFactory implements NamedScreenHandlerFactory {
 
     private final BlockPos furnacePos;
@@ -38,25 +32,17 @@ public class FurnaceScreenHandlerFactory implements NamedScreenHandlerFactory {
             final var provider = ServerModUtils.getManagersProvider(serverPlayer).orElseThrow();
             final var professionManager = provider.getProfessionsManager();
             final var blacksmithsCount = professionManager.getProfession("blacksmith").getAmount();
-            final var otherFurnacePositions = provider
+            final var furnaces = provider
                     .getBuildingsManager()
-                    .getBuildings(ProfessionType.BLACKSMITH)
+                    .getFurnaces()
                     .stream()
                     .limit(blacksmithsCount)
-                    .map(IFortressBuilding::getFurnacePos)
-                    .filter(Objects::nonNull)
                     .toList();
+            if (furnacePos == null && furnaces.isEmpty()) return null;
 
-            final BlockPos selectedFurnacePos = furnacePos == null ?  otherFurnacePositions.get(0).get(0) : furnacePos;
-            final var otherFurnacesDelegates = otherFurnacePositions.stream().flatMap(List::stream).limit(blacksmithsCount)
-                    .map(it -> {
-                        final var blockEnt = player.getWorld().getBlockEntity(it);
-                        if (blockEnt instanceof FurnaceBlockEntity furnaceBlockEntity) {
-                            return (PropertyDelegate) new FortressFurnacePropertyDelegateImpl(furnaceBlockEntity, furnaceBlockEntity.getPos().equals(selectedFurnacePos));
-                        }
-                        return null;
-                    })
-                    .filter(Objects::nonNull)
+            final BlockPos selectedFurnacePos = furnacePos == null ? furnaces.get(0).getPos() : furnacePos;
+            final var otherFurnacesDelegates = furnaces.stream()
+                    .map(it -> (PropertyDelegate) new FortressFurnacePropertyDelegateImpl(it, it.getPos().equals(selectedFurnacePos)))
                     .toList();
 
             final var selectedBlockEnt = player.getWorld().getBlockEntity(selectedFurnacePos);
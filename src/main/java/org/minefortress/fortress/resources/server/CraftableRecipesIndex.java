@@ -0,0 +1,112 @@
+package org.minefortress.fortress.resources.server;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.Ingredient;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.recipe.RecipeMatcher;
+import net.minecraft.recipe.RecipeType;
+import net.remmintan.mods.minefortress.core.dtos.CraftableRecipes;
+import net.remmintan.mods.minefortress.core.utils.RecipesHelper;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Recipes which can be made from the fortress resources. Every recipe is indexed by the items of its ingredients,
+ * so a resource change matches again only the recipes using the changed item instead of all the recipes
+ * every time the crafting screen is opened.
+ */
+final class CraftableRecipesIndex {
+
+    private final ToIntFunction<Item> amounts;
+    private final Map<RecipeType<?>, TypeIndex> indexes = new HashMap<>();
+    @Nullable
+    private RecipeManager recipeManager;
+
+    CraftableRecipesIndex(ToIntFunction<Item> amounts) {
+        this.amounts = amounts;
+    }
+
+    void invalidate(Item item) {
+        for (TypeIndex index : indexes.values()) {
+            index.invalidate(item);
+        }
+    }
+
+    CraftableRecipes getCraftableRecipes(RecipeManager recipeManager, RecipeType<?> type) {
+        if (this.recipeManager != recipeManager) {
+            // the recipe manager is replaced when the data packs are reloaded
+            indexes.clear();
+            this.recipeManager = recipeManager;
+        }
+        final var index = indexes.computeIfAbsent(type, it -> new TypeIndex(RecipesHelper.getSortedRecipes(recipeManager, it)));
+        return new CraftableRecipes(index.recipes.size(), index.getCraftable());
+    }
+
+    private static Set<Item> getIngredientItems(RecipeEntry<?> recipe) {
+        final var items = new HashSet<Item>();
+        for (Ingredient ingredient : recipe.value().getIngredients()) {
+            for (ItemStack stack : ingredient.getMatchingStacks()) {
+                items.add(stack.getItem());
+            }
+        }
+        return items;
+    }
+
+    private final class TypeIndex {
+
+        private final List<RecipeEntry<?>> recipes;
+        private final List<Set<Item>> ingredientItems = new ArrayList<>();
+        private final Map<Item, IntList> recipesByItem = new HashMap<>();
+        private final BitSet craftable = new BitSet();
+        private final BitSet dirty = new BitSet();
+
+        TypeIndex(List<RecipeEntry<?>> recipes) {
+            this.recipes = recipes;
+            for (int i = 0; i < recipes.size(); i++) {
+                final var items = getIngredientItems(recipes.get(i));
+                ingredientItems.add(items);
+                for (Item item : items) {
+                    recipesByItem.computeIfAbsent(item, it -> new IntArrayList()).add(i);
+                }
+            }
+            dirty.set(0, recipes.size());
+        }
+
+        void invalidate(Item item) {
+            final var recipeIndexes = recipesByItem.get(item);
+            if (recipeIndexes == null) return;
+            for (int i = 0; i < recipeIndexes.size(); i++) {
+                dirty.set(recipeIndexes.getInt(i));
+            }
+        }
+
+        BitSet getCraftable() {
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                craftable.set(i, isCraftable(i));
+            }
+            dirty.clear();
+            return (BitSet) craftable.clone();
+        }
+
+        private boolean isCraftable(int index) {
+            final var recipe = recipes.get(index).value();
+            if (recipe.isIgnoredInRecipeBook() || recipe.getIngredients().isEmpty()) return false;
+
+            // only the items of the recipe matter, so the matcher doesn't get all the fortress resources
+            final var matcher = new RecipeMatcher();
+            for (Item item : ingredientItems.get(index)) {
+                final var amount = amounts.applyAsInt(item);
+                if (amount > 0)
+                    matcher.addInput(new ItemStack(item, amount), Integer.MAX_VALUE);
+            }
+            return matcher.match(recipe, null);
+        }
+    }
+
+}
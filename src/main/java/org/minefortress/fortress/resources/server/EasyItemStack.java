@@ -1,22 +1,35 @@
 package org.minefortress.fortress.resources.server;
 
 import net.minecraft.item.Item;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.ObjIntConsumer;
 
 class EasyItemStack {
 
     private final Item item;
+    // notified with the previous amount every time the amount changes
+    @Nullable
+    private final ObjIntConsumer<EasyItemStack> amountListener;
 
     EasyItemStack(Item item) {
+        this(item, null);
+    }
+
+    EasyItemStack(Item item, @Nullable ObjIntConsumer<EasyItemStack> amountListener) {
         this.item = item;
+        this.amountListener = amountListener;
     }
 
     private int amount = 0;
 
     void decrease() {
+        final var before = amount;
         amount--;
         if (amount < 0) {
             amount = 0;
         }
+        onAmountChanged(before);
     }
 
     int getAmount() {
@@ -24,19 +37,30 @@ class EasyItemStack {
     }
 
     void increaseBy(int amount) {
+        final var before = this.amount;
         this.amount += amount;
+        onAmountChanged(before);
     }
 
     void decreaseBy(int amount) {
         if(this.amount  < amount) throw new RuntimeException("Tried to decrease by more than the amount of items in the stack");
+        final var before = this.amount;
         this.amount -= amount;
         if (this.amount < 0) {
             this.amount = 0;
         }
+        onAmountChanged(before);
     }
 
     void setAmount(int amount) {
+        final var before = this.amount;
         this.amount = amount;
+        onAmountChanged(before);
+    }
+
+    private void onAmountChanged(int before) {
+        if (amountListener != null && before != amount)
+            amountListener.accept(this, before);
     }
 
     boolean hasEnough(int amount) {
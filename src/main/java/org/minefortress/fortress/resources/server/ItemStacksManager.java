@@ -2,23 +2,69 @@ package org.minefortress.fortress.resources.server;
 
 import net.minecraft.item.Item;
 import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ResourceCategory;
 import net.remmintan.mods.minefortress.core.utils.SimilarItemsHelper;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 class ItemStacksManager {
 
     private final Map<Item, EasyItemStack> stacks = new HashMap<>();
+    @Nullable
+    private final ResourceCategoriesIndex categoriesIndex;
+    @Nullable
+    private final Consumer<Item> changeListener;
+
+    ItemStacksManager() {
+        this(false, null);
+    }
+
+    /**
+     * @param indexCategories keep the non-empty stacks of every {@link ResourceCategory}
+     * @param changeListener notified with the item every time its amount changes
+     */
+    ItemStacksManager(boolean indexCategories, @Nullable Consumer<Item> changeListener) {
+        this.categoriesIndex = indexCategories ? new ResourceCategoriesIndex() : null;
+        this.changeListener = changeListener;
+    }
 
     public void clear() {
+        if (changeListener != null)
+            stacks.keySet().forEach(changeListener);
         stacks.clear();
+        if (categoriesIndex != null)
+            categoriesIndex.clear();
     }
 
     public EasyItemStack getStack(Item item) {
-        return stacks.computeIfAbsent(item, EasyItemStack::new);
+        if (categoriesIndex == null && changeListener == null)
+            return stacks.computeIfAbsent(item, EasyItemStack::new);
+        return stacks.computeIfAbsent(item, it -> new EasyItemStack(it, this::onAmountChanged));
+    }
+
+    /**
+     * Doesn't create the stack for the item, unlike {@link #getStack(Item)}.
+     */
+    public int getAmount(Item item) {
+        final var stack = stacks.get(item);
+        return stack == null ? 0 : stack.getAmount();
+    }
+
+    private void onAmountChanged(EasyItemStack stack, int before) {
+        // the categories keep only the non-empty stacks
+        if (categoriesIndex != null && (before > 0) != (stack.getAmount() > 0))
+            categoriesIndex.update(stack);
+        if (changeListener != null)
+            changeListener.accept(stack.getItem());
+    }
+
+    public Optional<Item> getFirstItem(ResourceCategory category) {
+        if (categoriesIndex == null)
+            throw new IllegalStateException("The categories are not indexed");
+        return categoriesIndex.getFirstItem(category);
     }
 
     public List<EasyItemStack> getNonEmptySimilarStacks(Item item) {
@@ -0,0 +1,91 @@
+package org.minefortress.fortress.resources.server;
+
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.entity.effect.StatusEffectCategory;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.item.Item;
+import net.minecraft.item.Items;
+import net.minecraft.registry.tag.ItemTags;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ResourceCategory;
+
+import java.util.*;
+
+/**
+ * Non-empty stacks of every resource category kept in the category order. The stack is added when it gets the
+ * first item and removed when it gets empty, so looking for the pawn food or seeds doesn't go through all the items.
+ */
+final class ResourceCategoriesIndex {
+
+    private static final List<Item> FARMER_SEEDS = List.of(
+            Items.WHEAT_SEEDS,
+            Items.POTATO,
+            Items.CARROT,
+            Items.BEETROOT_SEEDS
+    );
+
+    private final Map<ResourceCategory, NavigableSet<EasyItemStack>> nonEmptyStacks = new EnumMap<>(ResourceCategory.class);
+
+    ResourceCategoriesIndex() {
+        for (ResourceCategory category : ResourceCategory.values()) {
+            nonEmptyStacks.put(category, new TreeSet<>(getComparator(category)));
+        }
+    }
+
+    void update(EasyItemStack stack) {
+        for (ResourceCategory category : ResourceCategory.values()) {
+            if (!isInCategory(stack.getItem(), category)) continue;
+            final var stacks = nonEmptyStacks.get(category);
+            if (stack.getAmount() > 0) {
+                stacks.add(stack);
+            } else {
+                stacks.remove(stack);
+            }
+        }
+    }
+
+    Optional<Item> getFirstItem(ResourceCategory category) {
+        final var stacks = nonEmptyStacks.get(category);
+        return stacks.isEmpty() ? Optional.empty() : Optional.of(stacks.first().getItem());
+    }
+
+    void clear() {
+        nonEmptyStacks.values().forEach(Set::clear);
+    }
+
+    private static boolean isInCategory(Item item, ResourceCategory category) {
+        return switch (category) {
+            case FOOD -> isEatable(item);
+            case SEEDS -> FARMER_SEEDS.contains(item);
+            case SAPLINGS -> item.getRegistryEntry().isIn(ItemTags.SAPLINGS);
+        };
+    }
+
+    private static boolean isEatable(Item item) {
+        if (!item.isFood())
+            return false;
+
+        //noinspection DataFlowIssue
+        for (Pair<StatusEffectInstance, Float> statusEffect : item.getFoodComponent().getStatusEffects()) {
+            if (statusEffect.getFirst().getEffectType().getCategory() == StatusEffectCategory.HARMFUL)
+                return false;
+        }
+        return true;
+    }
+
+    private static Comparator<EasyItemStack> getComparator(ResourceCategory category) {
+        final Comparator<EasyItemStack> order = switch (category) {
+            case FOOD -> Comparator.comparingDouble((EasyItemStack it) -> getNutrition(it.getItem())).reversed();
+            case SEEDS -> Comparator.comparingInt(it -> FARMER_SEEDS.indexOf(it.getItem()));
+            case SAPLINGS -> (a, b) -> 0;
+        };
+        // the different items must never be equal for the set
+        return order.thenComparingInt(it -> Item.getRawId(it.getItem()));
+    }
+
+    private static double getNutrition(Item item) {
+        final var foodComponent = item.getFoodComponent();
+        //noinspection DataFlowIssue
+        return foodComponent.getHunger() * foodComponent.getSaturationModifier() * 2.0f;
+    }
+
+}
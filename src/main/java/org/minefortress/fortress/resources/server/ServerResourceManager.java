@@ -4,11 +4,14 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtList;
+import net.minecraft.recipe.RecipeType;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.remmintan.mods.minefortress.core.dtos.CraftableRecipes;
 import net.remmintan.mods.minefortress.core.dtos.ItemInfo;
 import net.remmintan.mods.minefortress.core.interfaces.resources.IServerResourceManager;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ResourceCategory;
 import net.remmintan.mods.minefortress.core.interfaces.server.ITickableManager;
 import net.remmintan.mods.minefortress.core.interfaces.server.IWritableManager;
 import net.remmintan.mods.minefortress.core.utils.ServerExtensionsKt;
@@ -28,7 +31,8 @@ public class ServerResourceManager implements IServerResourceManager, ITickableM
 
     private final Synchronizer synchronizer = new Synchronizer();
 
-    private final ItemStacksManager resources = new ItemStacksManager();
+    private final CraftableRecipesIndex craftableRecipes = new CraftableRecipesIndex(this::getAmount);
+    private final ItemStacksManager resources = new ItemStacksManager(true, craftableRecipes::invalidate);
     private final Map<UUID, ItemStacksManager> reservedResources = new HashMap<>();
     private final MinecraftServer server;
 
@@ -291,6 +295,20 @@ public class ServerResourceManager implements IServerResourceManager, ITickableM
                 .toList();
     }
 
+    @Override
+    public Optional<Item> getFirstItem(ResourceCategory category) {
+        return resources.getFirstItem(category);
+    }
+
+    @Override
+    public CraftableRecipes getCraftableRecipes(RecipeType<?> type) {
+        return craftableRecipes.getCraftableRecipes(server.getRecipeManager(), type);
+    }
+
+    private int getAmount(Item item) {
+        return resources.getAmount(item);
+    }
+
     @Override
     public boolean hasItems(List<ItemInfo> infos) {
         if (ServerExtensionsKt.isCreativeFortress(server)) return true;
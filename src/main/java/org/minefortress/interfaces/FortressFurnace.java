@@ -0,0 +1,14 @@
+package org.minefortress.interfaces;
+
+import it.unimi.dsi.fastutil.booleans.BooleanConsumer;
+import org.jetbrains.annotations.Nullable;
+
+public interface FortressFurnace {
+
+    /**
+     * The listener is notified from the furnace tick when the furnace starts or stops burning.
+     */
+    void set_BurningListener(@Nullable BooleanConsumer listener);
+    void report_BurningState();
+
+}
@@ -134,7 +134,7 @@ public abstract class FortressMinecraftClientMixin extends ReentrantThreadExecut
         clientBlueprintManager = new ClientBlueprintManager(client);
 
 
-        blueprintRenderer = new BlueprintRenderer(this::getProperBlockDataProviderBasedOnState, client, blockBufferBuilderStorage);
+        blueprintRenderer = new BlueprintRenderer(this::getProperBlockDataProviderBasedOnState, client);
         Map<RenderLayer, BufferBuilder> selectionBufferBuilderStorage = Map.ofEntries(
                 entry(RenderLayer.getLines(), new BufferBuilder(256)),
                 entry(FortressRenderLayer.getLinesNoDepth(), new BufferBuilder(256))
@@ -0,0 +1,49 @@
+package org.minefortress.mixins.entity;
+
+import it.unimi.dsi.fastutil.booleans.BooleanConsumer;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.AbstractFurnaceBlockEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+import org.minefortress.interfaces.FortressFurnace;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(AbstractFurnaceBlockEntity.class)
+public abstract class AbstractFurnaceBlockEntityMixin implements FortressFurnace {
+
+    @Unique
+    @Nullable
+    private BooleanConsumer burningListener;
+    @Unique
+    private boolean reportedBurning;
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private static void reportBurningState(World world, BlockPos pos, BlockState state, AbstractFurnaceBlockEntity blockEntity, CallbackInfo ci) {
+        ((FortressFurnace) blockEntity).report_BurningState();
+    }
+
+    @Override
+    public void set_BurningListener(@Nullable BooleanConsumer listener) {
+        this.burningListener = listener;
+        this.reportedBurning = isFurnaceBurning();
+    }
+
+    @Override
+    public void report_BurningState() {
+        final var burning = isFurnaceBurning();
+        if (burningListener == null || burning == reportedBurning) return;
+        reportedBurning = burning;
+        burningListener.accept(burning);
+    }
+
+    @Unique
+    private boolean isFurnaceBurning() {
+        return ((AbstractFurnaceBlockEntity) (Object) this).isBurning();
+    }
+
+}
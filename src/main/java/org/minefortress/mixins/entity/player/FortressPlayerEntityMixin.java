@@ -7,10 +7,12 @@ import net.minecraft.entity.data.TrackedData;
 import net.minecraft.entity.data.TrackedDataHandlerRegistry;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.remmintan.mods.minefortress.core.dtos.SupportLevel;
 import net.remmintan.mods.minefortress.core.interfaces.entities.player.IFortressPlayerEntity;
+import net.remmintan.mods.minefortress.core.services.FortressOwners;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.minefortress.MineFortressMod;
@@ -72,6 +74,8 @@ public abstract class FortressPlayerEntityMixin extends LivingEntity implements
     @Override
     public void set_FortressPos(@Nullable BlockPos blockPos) {
         this.dataTracker.set(FORTRESS_POS, Optional.ofNullable(blockPos));
+        if ((Object) this instanceof ServerPlayerEntity serverPlayer)
+            FortressOwners.INSTANCE.setFortress(serverPlayer, blockPos);
     }
 
     @Override
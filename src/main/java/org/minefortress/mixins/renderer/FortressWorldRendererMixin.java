@@ -17,6 +17,7 @@ import net.remmintan.mods.minefortress.core.FortressGamemodeUtilsKt;
 import net.remmintan.mods.minefortress.core.FortressState;
 import net.remmintan.mods.minefortress.core.interfaces.client.IClientManagersProvider;
 import net.remmintan.mods.minefortress.core.utils.ClientModUtils;
+import net.remmintan.panama.RenderHelper;
 import org.joml.Matrix4f;
 import org.joml.Vector4f;
 import org.minefortress.interfaces.IFortressMinecraftClient;
@@ -53,6 +54,8 @@ public abstract class FortressWorldRendererMixin  {
 
     @Inject(method = "setupTerrain", at = @At("TAIL"))
     public void setupTerrain(Camera camera, Frustum frustum, boolean hasForcedFrustum, boolean spectator, CallbackInfo ci) {
+        RenderHelper.uploadScheduledBuffers();
+
         final IFortressMinecraftClient fortressClient = (IFortressMinecraftClient) this.client;
         fortressClient.get_BlueprintRenderer().prepareForRender();
         fortressClient.get_SelectionRenderer().prepareForRender();
@@ -1,5 +1,6 @@
 package org.minefortress.mixins.world;
 
+import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.render.WorldRenderer;
@@ -7,6 +8,7 @@ import net.minecraft.client.world.ClientWorld;
 import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.profiler.Profiler;
 import net.minecraft.world.MutableWorldProperties;
 import net.minecraft.world.World;
@@ -47,6 +49,11 @@ public abstract class ClientWorldMixin extends World implements ITasksInformatio
         return tasksHolder;
     }
 
+    @Inject(method = "handleBlockUpdate", at = @At("TAIL"))
+    public void refreshTasksOnBlockUpdate(BlockPos pos, BlockState state, int flags, CallbackInfo ci) {
+        tasksHolder.onBlockChanged(pos);
+    }
+
     @Inject(method = "tick", at = @At("TAIL"))
     public void tick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
         if(shouldKeepTicking.getAsBoolean()) {
@@ -0,0 +1,35 @@
+package org.minefortress.mixins.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.remmintan.mods.minefortress.core.interfaces.server.IFortressServerWorld;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+@Mixin(ServerWorld.class)
+public abstract class ServerWorldMixin implements IFortressServerWorld {
+
+    @Unique
+    private final Set<BlockChangeListener> blockChangeListeners = Collections.newSetFromMap(new WeakHashMap<>());
+
+    @Override
+    public void add_BlockChangeListener(BlockChangeListener listener) {
+        blockChangeListeners.add(listener);
+    }
+
+    @Inject(method = "onBlockChanged", at = @At("HEAD"))
+    private void notifyBlockChangeListeners(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        for (BlockChangeListener listener : blockChangeListeners) {
+            listener.onBlockChanged(pos, oldBlock, newBlock);
+        }
+    }
+
+}
@@ -65,6 +65,7 @@ public final class ServerProfessionManager extends ProfessionManager implements
             return;
 
         profession.setAmount(profession.getAmount() + 1);
+        getServerFortressManager().scheduleProfessionsAssignment();
         sync();
     }
 
@@ -186,11 +187,7 @@ public final class ServerProfessionManager extends ProfessionManager implements
     }
 
     private long countPawnsWithProfession(String professionId) {
-        return getServerFortressManager()
-                .getProfessionals()
-                .stream()
-                .filter(pawn -> pawn.getProfessionId().equals(professionId))
-                .count();
+        return getServerFortressManager().countPawnsWithProfession(professionId);
     }
 
     private IServerFortressManager getServerFortressManager() {
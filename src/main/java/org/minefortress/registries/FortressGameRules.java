@@ -0,0 +1,26 @@
+package org.minefortress.registries;
+
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleFactory;
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleRegistry;
+import net.minecraft.world.GameRules;
+
+public class FortressGameRules {
+
+    // blocks placed by the finished blueprints per tick, the rest is placed during the next ticks
+    public static final GameRules.Key<GameRules.IntRule> FINALIZATION_BLOCKS_PER_TICK = GameRuleRegistry.register(
+            "minefortressFinalizationBlocksPerTick",
+            GameRules.Category.UPDATES,
+            GameRuleFactory.createIntRule(256, 1)
+    );
+
+    public static final GameRules.Key<GameRules.IntRule> FINALIZATION_MILLIS_PER_TICK = GameRuleRegistry.register(
+            "minefortressFinalizationMillisPerTick",
+            GameRules.Category.UPDATES,
+            GameRuleFactory.createIntRule(5, 1)
+    );
+
+    public static void register() {
+        // the rules are registered when the class is loaded
+    }
+
+}
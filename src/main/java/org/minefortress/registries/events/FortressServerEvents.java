@@ -1,6 +1,7 @@
 package org.minefortress.registries.events;
 
 
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -9,6 +10,8 @@ import net.remmintan.mods.minefortress.core.interfaces.IFortressModVersionHolder
 import net.remmintan.mods.minefortress.core.interfaces.entities.player.IFortressPlayerEntity;
 import net.remmintan.mods.minefortress.core.interfaces.entities.player.IFortressServerPlayerEntity;
 import net.remmintan.mods.minefortress.core.interfaces.server.IFortressServer;
+import net.remmintan.mods.minefortress.core.services.FortressOwners;
+import net.remmintan.mods.minefortress.core.services.FortressRegistry;
 import net.remmintan.mods.minefortress.core.services.PatronStatusService;
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils;
 import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper;
@@ -35,6 +38,7 @@ public class FortressServerEvents {
             }
 
             final var player = handler.player;
+            FortressOwners.INSTANCE.setFortress(player, ((IFortressPlayerEntity) player).get_FortressPos().orElse(null));
             syncTheFortressGamemode((IFortressServer) server, player);
 
             if (ServerModUtils.hasFortress(player)) {
@@ -73,6 +77,13 @@ public class FortressServerEvents {
             }
         });
 
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> FortressOwners.INSTANCE.remove(handler.player));
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            FortressRegistry.INSTANCE.clear();
+            FortressOwners.INSTANCE.clear();
+        });
+
         PlayerSleepEvents.INSTANCE.register();
         BlueprintWorldEvents.INSTANCE.register();
         PlayerBlockEvents.INSTANCE.register();
@@ -3,23 +3,18 @@ package org.minefortress.renderer;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.render.GameRenderer;
-import net.minecraft.util.math.Vec2f;
 import net.minecraft.util.math.Vec3d;
 import net.remmintan.mods.minefortress.core.utils.GlobalProjectionCache;
 import org.jetbrains.annotations.NotNull;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.lwjgl.system.MemoryUtil;
 import org.minefortress.interfaces.FortressGameRenderer;
 
-import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-
 public class CameraTools {
 
+    // matrices and vectors reused between the calls, so the projection doesn't allocate anything per call
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
     private static Vec3d mouseBasedViewVector;
 
     public static Vec3d getMouseBasedViewVector(MinecraftClient minecraft, double xpos, double ypos) {
@@ -30,92 +25,51 @@ public class CameraTools {
         return mouseBasedViewVector;
     }
 
-    public static Map<Vec2f, Vec3d> projectToScreenSpace(Set<Vec3d> positions, MinecraftClient minecraft) {
-        final var winWidth = minecraft.getWindow().getWidth();
+    /**
+     * Projects the world positions to the window coordinates.
+     * The view-projection matrix is calculated once for all the positions. The positions are moved relative to
+     * the player before the projection, so far away coordinates don't lose precision in floats.
+     *
+     * @param positions x, y, z of every position one after another
+     * @param count amount of positions to project
+     * @param screenPositions receives x, y in window coordinates (y grows downwards) for every position
+     */
+    public static void projectToScreenSpace(double[] positions, int count, float[] screenPositions, MinecraftClient minecraft) {
+        final var scratch = SCRATCH.get();
         final var winHeight = minecraft.getWindow().getHeight();
-        final var modelViewBuffer = getModelViewMatrix(minecraft, true);
-        final var projectionBuffer = getProjectionMatrix(minecraft);
-        final var viewport = getViewport(winWidth, winHeight);
-        final var resultingViewBuffer = MemoryUtil.memAllocFloat(3);
+        final var viewProjection = scratch.setViewProjection(minecraft);
+        final var viewport = scratch.setViewport(minecraft);
+        final var result = scratch.result;
 
-        Map<Vec2f, Vec3d> screenPositions = new HashMap<>();
-
-        for (Vec3d position : positions) {
-            resultingViewBuffer.position(0);
-            GLU.gluProject((float) position.x, (float) position.y, (float) position.z, modelViewBuffer, projectionBuffer, viewport, resultingViewBuffer);
-            screenPositions.put(new Vec2f(resultingViewBuffer.get(0) , winHeight-resultingViewBuffer.get(1)), position);
+        final var player = minecraft.player;
+        final double originX = player == null ? 0 : player.getX();
+        final double originY = player == null ? 0 : player.getY();
+        final double originZ = player == null ? 0 : player.getZ();
+
+        for (int i = 0; i < count; i++) {
+            viewProjection.project(
+                    (float) (positions[i * 3] - originX),
+                    (float) (positions[i * 3 + 1] - originY),
+                    (float) (positions[i * 3 + 2] - originZ),
+                    viewport,
+                    result
+            );
+            screenPositions[i * 2] = result.x;
+            screenPositions[i * 2 + 1] = winHeight - result.y;
         }
-
-        return screenPositions;
     }
 
     private static Vec3d getMouseBasedViewVector(double xpos, double ypos, MinecraftClient minecraft) {
-        int winWidth = minecraft.getWindow().getWidth();
-        int winHeight = minecraft.getWindow().getHeight();
-
-        FloatBuffer resultingViewBuffer = MemoryUtil.memAllocFloat(3);
-        resultingViewBuffer.position(0);
-        FloatBuffer modelViewBuffer = getModelViewMatrix(minecraft, false);
-        FloatBuffer projectionBuffer = getProjectionMatrix(minecraft);
-        IntBuffer viewport = getViewport(winWidth, winHeight);
-
-        GLU.gluUnProject((float) xpos, (float)(winHeight - ypos) , 1.0f, modelViewBuffer, projectionBuffer, viewport, resultingViewBuffer);
+        final var scratch = SCRATCH.get();
+        final int winHeight = minecraft.getWindow().getHeight();
+        final var viewProjection = scratch.setViewProjection(minecraft);
+        final var viewport = scratch.setViewport(minecraft);
 
-        return calculateResultingVector(resultingViewBuffer);
-    }
-
-    private static IntBuffer getViewport(int winWidth, int winHeight) {
-        IntBuffer viewport = MemoryUtil.memAllocInt(4);
-        viewport.position(0);
-        viewport.put(0);
-        viewport.put(0);
-        viewport.put(winWidth);
-        viewport.put(winHeight);
-        viewport.rewind();
-        return viewport;
-    }
-
-    private static Vec3d calculateResultingVector(FloatBuffer resultingViewBuffer) {
-        Vector3f resultingViewVector = new Vector3f(resultingViewBuffer.get(0), resultingViewBuffer.get(1), resultingViewBuffer.get(2));
+        final var resultingViewVector = viewProjection.unproject((float) xpos, (float) (winHeight - ypos), 1.0f, viewport, scratch.result);
         resultingViewVector.normalize();
         return new Vec3d(resultingViewVector);
     }
 
-    private static FloatBuffer getModelViewMatrix(MinecraftClient minecraft, boolean translateToPlayer) {
-        final var modelViewMatrix = new Matrix4f(RenderSystem.getModelViewMatrix());
-        final var player = minecraft.player;
-        if(player != null) {
-            final var xRads = (float) Math.toRadians(player.getPitch());
-            modelViewMatrix.rotate(xRads, new Vector3f(1, 0,0));
-            final float yRads = (float) Math.toRadians(player.getYaw() + 180f);
-            modelViewMatrix.rotate(yRads, new Vector3f(0, 1,0));
-
-            if(translateToPlayer) {
-                final var offset = new Vector3f(
-                        (float) -player.getX(),
-                        (float) -player.getY(),
-                        (float) -player.getZ()
-                );
-                modelViewMatrix.translate(offset);
-            }
-        }
-        FloatBuffer modelViewBuffer = MemoryUtil.memAllocFloat(16);
-        modelViewBuffer.position(0);
-        modelViewMatrix.get(modelViewBuffer);
-
-        modelViewBuffer.rewind();
-        return modelViewBuffer;
-    }
-
-    private  static FloatBuffer getProjectionMatrix(MinecraftClient minecraft) {
-        Matrix4f projectionMatrix = getProjectionMatrix4f(minecraft);
-        FloatBuffer projectionBuffer = MemoryUtil.memAllocFloat(16);
-        projectionBuffer.position(0);
-        projectionMatrix.get(projectionBuffer);
-        projectionBuffer.rewind();
-        return projectionBuffer;
-    }
-
     @NotNull
     public static Matrix4f getProjectionMatrix4f(MinecraftClient minecraft) {
         final GameRenderer gameRenderer = minecraft.gameRenderer;
@@ -129,4 +83,35 @@ public class CameraTools {
         return new Matrix4f(gameRenderer.getBasicProjectionMatrix(fov));
     }
 
+    private static final class Scratch {
+        private final Matrix4f viewProjection = new Matrix4f();
+        private final int[] viewport = new int[4];
+        private final Vector3f result = new Vector3f();
+
+        /**
+         * Sets the matrix to projection * model view with the camera rotated as the player and placed at the origin.
+         */
+        private Matrix4f setViewProjection(MinecraftClient minecraft) {
+            final GameRenderer gameRenderer = minecraft.gameRenderer;
+            final double fov = ((FortressGameRenderer) gameRenderer).get_Fov(1.0f, true);
+            viewProjection.set(gameRenderer.getBasicProjectionMatrix(fov));
+            viewProjection.mul(RenderSystem.getModelViewMatrix());
+
+            final var player = minecraft.player;
+            if (player != null) {
+                viewProjection.rotateX((float) Math.toRadians(player.getPitch()));
+                viewProjection.rotateY((float) Math.toRadians(player.getYaw() + 180f));
+            }
+            return viewProjection;
+        }
+
+        private int[] setViewport(MinecraftClient minecraft) {
+            viewport[0] = 0;
+            viewport[1] = 0;
+            viewport[2] = minecraft.getWindow().getWidth();
+            viewport[3] = minecraft.getWindow().getHeight();
+            return viewport;
+        }
+    }
+
 }
@@ -1,13 +1,16 @@
 package org.minefortress.tasks;
 
+import com.google.common.collect.Iterables;
 import com.mojang.datafixers.util.Pair;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.item.Item;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITask;
@@ -18,6 +21,7 @@ import net.remmintan.mods.minefortress.core.utils.ServerExtensionsKt;
 import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames;
 import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper;
 import net.remmintan.mods.minefortress.networking.s2c.ClientboundTaskExecutedPacket;
+import net.remmintan.mods.minefortress.networking.s2c.S2CRemoveTaskPositionsPacket;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -36,6 +40,8 @@ public abstract class AbstractTask implements ITask, ITaskWithPreparation {
 
     protected int totalParts;
     private int completedParts;
+    // kept to resume the task after loading the fortress, the finished parts are skipped in prepareTask
+    private final List<Pair<BlockPos, BlockPos>> finishedParts = new ArrayList<>();
 
     private int assignedWorkers = 0;
 
@@ -93,6 +99,7 @@ public abstract class AbstractTask implements ITask, ITaskWithPreparation {
         } while (true);
 
         this.totalParts = parts.size();
+        this.parts.removeAll(finishedParts);
     }
 
     @Override
@@ -101,13 +108,19 @@ public abstract class AbstractTask implements ITask, ITaskWithPreparation {
         if(completedParts > totalParts) {
             throw new IllegalStateException("Completed parts cannot be greater than total parts");
         }
+        finishedParts.add(part.getStartAndEnd());
 
+        final var owner = ServerExtensionsKt.getFortressOwner(worker.getServer(), worker.getFortressPos());
         if(parts.isEmpty() && totalParts <= completedParts) {
-            final var owner = ServerExtensionsKt.getFortressOwner(worker.getServer(), worker.getFortressPos());
             if (owner != null) {
                 this.sendFinishTaskNotificationToPlayer(owner);
             }
             taskFinishListeners.forEach(Runnable::run);
+        } else if (owner != null) {
+            final var startAndEnd = part.getStartAndEnd();
+            final var finishedPositions = PositionSet.box(startAndEnd.getFirst(), startAndEnd.getSecond());
+            final var packet = new S2CRemoveTaskPositionsPacket(id, finishedPositions);
+            FortressServerNetworkHelper.send(owner, S2CRemoveTaskPositionsPacket.CHANNEL, packet);
         }
     }
 
@@ -144,9 +157,34 @@ public abstract class AbstractTask implements ITask, ITaskWithPreparation {
     @Override
     @NotNull
     public List<TaskInformationDto> toTaskInformationDto() {
-        final var blocks = new ArrayList<BlockPos>();
-        BlockPos.iterate(startingBlock, endingBlock).forEach(it -> blocks.add(it.toImmutable()));
-        return Collections.singletonList(new TaskInformationDto(id, blocks, taskType));
+        final var positions = withoutFinishedParts(PositionSet.box(startingBlock, endingBlock));
+        return Collections.singletonList(new TaskInformationDto(id, positions, taskType));
+    }
+
+    protected PositionSet withoutFinishedParts(PositionSet positions) {
+        if (finishedParts.isEmpty()) return positions;
+        final var finishedPositions = finishedParts
+                .stream()
+                .map(it -> BlockPos.iterate(it.getFirst(), it.getSecond()))
+                .toList();
+        return positions.without(PositionSet.of(Iterables.concat(finishedPositions)));
+    }
+
+    protected void writeFinishedParts(NbtCompound tag) {
+        final var partsEnds = new long[finishedParts.size() * 2];
+        for (int i = 0; i < finishedParts.size(); i++) {
+            partsEnds[i * 2] = finishedParts.get(i).getFirst().asLong();
+            partsEnds[i * 2 + 1] = finishedParts.get(i).getSecond().asLong();
+        }
+        tag.putLongArray("finishedParts", partsEnds);
+    }
+
+    protected void readFinishedParts(NbtCompound tag) {
+        final var partsEnds = tag.getLongArray("finishedParts");
+        for (int i = 0; i + 1 < partsEnds.length; i += 2) {
+            finishedParts.add(Pair.of(BlockPos.fromLong(partsEnds[i]), BlockPos.fromLong(partsEnds[i + 1])));
+        }
+        this.completedParts = finishedParts.size();
     }
 
     protected void sendFinishTaskNotificationToPlayer(ServerPlayerEntity player) {
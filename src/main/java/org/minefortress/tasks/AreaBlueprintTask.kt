@@ -1,16 +1,14 @@
 package org.minefortress.tasks
 
-import net.minecraft.block.BedBlock
-import net.minecraft.block.enums.BedPart
-import net.minecraft.entity.LivingEntity
-import net.minecraft.item.Item
-import net.minecraft.registry.tag.BlockTags
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet
+import net.minecraft.nbt.NbtCompound
 import net.minecraft.util.math.BlockBox
 import net.minecraft.util.math.BlockPos
 import net.minecraft.util.math.Vec3i
 import net.minecraft.world.World
 import net.remmintan.mods.minefortress.core.TaskType
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData
@@ -18,9 +16,7 @@ import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IFortressA
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IAreaBasedTask
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITaskBlockInfo
 import net.remmintan.mods.minefortress.core.utils.*
-import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames
-import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper
-import net.remmintan.mods.minefortress.networking.s2c.ClientboundTaskExecutedPacket
+import org.minefortress.blueprints.data.DenseStructureBlockData
 import org.minefortress.tasks.block.info.BlockStateTaskBlockInfo
 import org.minefortress.tasks.block.info.DigTaskBlockInfo
 import java.util.*
@@ -37,33 +33,43 @@ class AreaBlueprintTask(
     override val areaData: Pair<BlockPos, Double>
     private val startPos = placePos.down(metadata.floorLevel)
     private val endPos = startPos.add(blueprintData.size)
-    private val blocksQueue: Queue<ITaskBlockInfo> = LinkedList()
+    // everything in the way is dug out top-down first, then the blueprint is built bottom-up
+    private val digBlocks = TaskBlocksPool(bottomUp = false)
+    private val buildBlocks = TaskBlocksPool(bottomUp = true)
+    // the blocks failed too many times don't hold the next levels back, they are retried when the rest is done
+    private val failedBlocks: Queue<ITaskBlockInfo> = LinkedList()
+    private val failuresCount: MutableMap<BlockPos, Int> = mutableMapOf()
     private val totalManualBlocks: Int
     private val succeededBlocks: MutableSet<BlockPos> = mutableSetOf()
 
     private var canceled: Boolean = false
+    private var finalized: Boolean = false
     private var assignedWorkers = 0
 
     init {
         val areaBox = BlockBox.create(startPos, endPos)
         areaData = areaBox.center to areaBox.dimensions.len() / 1.5
 
-        val manualLayer = blueprintData.getLayer(BlueprintDataLayer.MANUAL)
-        val autoLayer = blueprintData.getLayer(BlueprintDataLayer.AUTOMATIC)
-        val entityLayer = blueprintData.getLayer(BlueprintDataLayer.ENTITY)
+        // a position can be in several layers, it's dug out only once
+        val digPositions = LongOpenHashSet()
+        val pos = BlockPos.Mutable()
+        for (layer in PERSISTED_LAYERS) {
+            blueprintData.forEachBlock(layer) { x, y, z, state ->
+                if (state.isAir) return@forEachBlock
+                pos.set(startPos.x + x, startPos.y + y, startPos.z + z)
+                if (!digPositions.contains(pos.asLong()) && !BuildingHelper.canPlaceBlock(world, pos)) {
+                    digPositions.add(pos.asLong())
+                    digBlocks.add(DigTaskBlockInfo(pos.toImmutable()))
+                }
+            }
+        }
 
-        val digPositions = (manualLayer + autoLayer + entityLayer)
-            .filterValues { !it.isAir }
-            .keys
-            .map { it.add(startPos) }
-            .filter { !BuildingHelper.canPlaceBlock(world, it) }
-            .map { DigTaskBlockInfo(it) }
-        blocksQueue.addAll(digPositions)
-
-        val preparedBlockInfos = manualLayer
-            .map { (p, s) -> BlockStateTaskBlockInfo(s.block.asItem(), p.add(startPos), s) }
-        blocksQueue.addAll(preparedBlockInfos)
-        totalManualBlocks = preparedBlockInfos.size
+        var manualBlocks = 0
+        blueprintData.forEachBlock(BlueprintDataLayer.MANUAL) { x, y, z, state ->
+            buildBlocks.add(BlockStateTaskBlockInfo(state.block.asItem(), startPos.add(x, y, z), state))
+            manualBlocks++
+        }
+        totalManualBlocks = manualBlocks
     }
 
     override fun canTakeMoreWorkers() = hasMoreBlocks() && (assignedWorkers < max(totalManualBlocks / 10, 1))
@@ -78,86 +84,122 @@ class AreaBlueprintTask(
 
     override fun getId() = id
 
-    override fun getNextBlock(): ITaskBlockInfo? {
-        return blocksQueue.poll()
+    override fun getNextBlock(workerPos: BlockPos): ITaskBlockInfo? {
+        return digBlocks.poll(workerPos)
+            ?: buildBlocks.poll(workerPos)
+            ?: failedBlocks.poll()
     }
 
     override fun failBlock(info: ITaskBlockInfo) {
-        blocksQueue.add(info)
+        val failures = failuresCount.merge(info.pos, 1, Int::plus)!!
+        when {
+            failures > MAX_FAILURES_IN_ORDER -> failedBlocks.add(info)
+            info.type == TaskType.REMOVE -> digBlocks.add(info)
+            else -> buildBlocks.add(info)
+        }
     }
 
     override fun successBlock(pos: BlockPos) {
         succeededBlocks.add(pos)
+        failuresCount.remove(pos)
     }
 
-    override fun hasMoreBlocks() = blocksQueue.isNotEmpty()
+    override fun hasMoreBlocks() = !digBlocks.isEmpty() || !buildBlocks.isEmpty() || failedBlocks.isNotEmpty()
 
     override fun toTaskInformationDto(): List<TaskInformationDto> {
-        val manualLayer = blueprintData.getLayer(BlueprintDataLayer.MANUAL)
-        val autoLayer = blueprintData.getLayer(BlueprintDataLayer.AUTOMATIC)
-        val entityLayer = blueprintData.getLayer(BlueprintDataLayer.ENTITY)
-
-        val positions = (manualLayer.keys + autoLayer.keys + entityLayer.keys)
-            .map { it.add(startPos) }
-            .toList()
+        val positions = PositionSet.Builder()
+        for (layer in PERSISTED_LAYERS) {
+            blueprintData.forEachBlock(layer) { x, y, z, _ ->
+                positions.add(startPos.x + x, startPos.y + y, startPos.z + z)
+            }
+        }
 
-        return listOf(TaskInformationDto(id, positions, TaskType.BUILD))
+        return listOf(TaskInformationDto(id, positions.build(), TaskType.BUILD))
     }
 
     override fun isComplete() = succeededBlocks.size == totalManualBlocks
 
     override fun onCompletion(worker: IFortressAwareEntity) {
-        val world = (worker as LivingEntity).world
+        // every worker of the task checks the completion after its last block
+        if (finalized) return
+        finalized = true
 
         val entityLayer = blueprintData.getLayer(BlueprintDataLayer.ENTITY)
         val automaticLayer = blueprintData.getLayer(BlueprintDataLayer.AUTOMATIC)
-
-        (entityLayer + automaticLayer)
-            .forEach { (p, s) ->
-                val realPos = p.add(startPos)
-                world.setBlockState(realPos, s)
-                if (!s.isIn(BlockTags.BEDS) || s.get(BedBlock.PART) != BedPart.FOOT)
-                    removeReservedItem(worker, s.block.asItem())
-            }
-
-        val pos = worker.fortressPos ?: error("No fortress pos")
-        val server = (worker as IFortressAwareEntity).server
-
         val manualLayer = blueprintData.getLayer(BlueprintDataLayer.MANUAL)
-        server.getManagersProvider(pos)
-            ?.buildingsManager
-            ?.addBuilding(metadata, startPos, endPos, (entityLayer + automaticLayer + manualLayer))
 
-        server.getFortressOwner(pos)?.let {
-            val packet = ClientboundTaskExecutedPacket(this.id)
-            FortressServerNetworkHelper.send(it, FortressChannelNames.FINISH_TASK, packet)
-        }
-    }
-
-    private fun removeReservedItem(worker: IFortressAwareEntity, item: Item) {
-        if (worker.server.isSurvivalFortress()) {
-            ServerModUtils.getManagersProvider(worker)
-                .map { it.resourceManager }
-                .ifPresent {
-                    if (SimilarItemsHelper.isIgnorable(item)) {
-                        it.removeItemIfExists(this.getId(), item)
-                    } else {
-                        it.removeReservedItem(this.getId(), item)
-                    }
-                }
-        }
+        val pos = worker.fortressPos ?: error("No fortress pos")
+        val job = BlueprintFinalizationJob(
+            id,
+            pos,
+            metadata,
+            startPos,
+            endPos,
+            entityLayer + automaticLayer,
+            entityLayer + automaticLayer + manualLayer
+        )
+        worker.server.getManagersProvider(pos)?.taskManager?.addFinalizationJob(job)
     }
 
     override fun cancel() {
         canceled = true
+        failuresCount.clear()
     }
 
     override fun notCancelled() = !canceled
 
+    /**
+     * Saves the blueprint layers with the task, so the task can be restored even if the blueprint is changed or
+     * removed in the meantime.
+     */
+    fun toNbt() = NbtCompound().apply {
+        putUuid("id", id)
+        put("metadata", metadata.toNbt())
+        putLong("placePos", startPos.up(metadata.floorLevel).asLong())
+        putIntArray("size", intArrayOf(blueprintData.size.x, blueprintData.size.y, blueprintData.size.z))
+        val layersTag = NbtCompound()
+        for (layer in PERSISTED_LAYERS) {
+            if (blueprintData.hasLayer(layer))
+                layersTag.put(layer.name, TaskNbtUtils.writeBlockStates(blueprintData.getLayer(layer)))
+        }
+        put("layers", layersTag)
+        putLongArray("succeededBlocks", TaskNbtUtils.writePositions(succeededBlocks))
+    }
+
+    private fun restoreSucceededBlocks(positions: List<BlockPos>) {
+        succeededBlocks.addAll(positions)
+        // the placed blocks would be dug out again otherwise
+        digBlocks.removeIf { it.pos in succeededBlocks }
+        buildBlocks.removeIf { it.pos in succeededBlocks }
+    }
+
     companion object {
+        private const val MAX_FAILURES_IN_ORDER = 3
+
+        private val PERSISTED_LAYERS =
+            listOf(BlueprintDataLayer.MANUAL, BlueprintDataLayer.AUTOMATIC, BlueprintDataLayer.ENTITY)
+
         fun Vec3i.len(): Double {
             return sqrt(x.toDouble() * x + y * y + z * z)
         }
+
+        fun fromNbt(tag: NbtCompound, world: World): AreaBlueprintTask {
+            val size = tag.getIntArray("size").let { Vec3i(it[0], it[1], it[2]) }
+            val layersTag = tag.getCompound("layers")
+            val layers = PERSISTED_LAYERS.associateWith {
+                if (layersTag.contains(it.name)) TaskNbtUtils.readBlockStates(layersTag.getCompound(it.name)) else emptyMap()
+            }
+
+            val task = AreaBlueprintTask(
+                tag.getUuid("id"),
+                BlueprintMetadata(tag.getCompound("metadata")),
+                BlockPos.fromLong(tag.getLong("placePos")),
+                DenseStructureBlockData.fromLayers(size, layers),
+                world
+            )
+            task.restoreSucceededBlocks(TaskNbtUtils.readPositions(tag.getLongArray("succeededBlocks")))
+            return task
+        }
     }
 
 }
\ No newline at end of file
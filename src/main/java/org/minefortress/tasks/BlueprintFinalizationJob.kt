@@ -0,0 +1,132 @@
+package org.minefortress.tasks
+
+import net.minecraft.block.BedBlock
+import net.minecraft.block.Block
+import net.minecraft.block.BlockState
+import net.minecraft.block.enums.BedPart
+import net.minecraft.item.Item
+import net.minecraft.nbt.NbtCompound
+import net.minecraft.registry.tag.BlockTags
+import net.minecraft.server.world.ServerWorld
+import net.minecraft.util.math.BlockPos
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata
+import net.remmintan.mods.minefortress.core.interfaces.tasks.IFinalizationJob
+import net.remmintan.mods.minefortress.core.utils.SimilarItemsHelper
+import net.remmintan.mods.minefortress.core.utils.getFortressOwner
+import net.remmintan.mods.minefortress.core.utils.getManagersProvider
+import net.remmintan.mods.minefortress.core.utils.isSurvivalFortress
+import net.remmintan.mods.minefortress.networking.helpers.FortressChannelNames
+import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper
+import net.remmintan.mods.minefortress.networking.s2c.ClientboundTaskExecutedPacket
+import java.util.*
+
+/**
+ * Places the automatic and the entity blocks of the built blueprint over several ticks and adds the building
+ * when all of them are placed.
+ *
+ * The blocks are placed without the neighbour and the light updates, otherwise the half placed beds and doors
+ * would break each other. The neighbours and the light are refreshed once all the blocks are in place.
+ */
+class BlueprintFinalizationJob(
+    private val taskId: UUID,
+    private val fortressPos: BlockPos,
+    private val metadata: BlueprintMetadata,
+    private val start: BlockPos,
+    private val end: BlockPos,
+    blocksToPlace: Map<BlockPos, BlockState>,
+    private val buildingBlocks: Map<BlockPos, BlockState>,
+    blocksToRefresh: Map<BlockPos, BlockState> = emptyMap()
+) : IFinalizationJob {
+
+    // bottom-up, so the blocks which need the support are placed after it
+    // the blocks placed before the restart go first, they are only refreshed
+    private val blocks = sortBottomUp(blocksToRefresh) + sortBottomUp(blocksToPlace)
+    private var placedBlocks = blocksToRefresh.size
+    private var refreshedBlocks = 0
+    private var finished = false
+
+    override fun isFinished() = finished
+
+    override fun tick(world: ServerWorld, maxSteps: Int, deadlineNanos: Long): Int {
+        var steps = 0
+        while (!finished && steps < maxSteps && (steps == 0 || System.nanoTime() < deadlineNanos)) {
+            when {
+                placedBlocks < blocks.size -> placeBlock(world, blocks[placedBlocks++])
+                refreshedBlocks < blocks.size -> refreshBlock(world, blocks[refreshedBlocks++])
+                else -> finish(world)
+            }
+            steps++
+        }
+        return steps
+    }
+
+    private fun placeBlock(world: ServerWorld, block: Pair<BlockPos, BlockState>) {
+        val (relativePos, state) = block
+        world.setBlockState(relativePos.add(start), state, PLACEMENT_FLAGS)
+        if (!state.isIn(BlockTags.BEDS) || !state.contains(BedBlock.PART) || state.get(BedBlock.PART) != BedPart.FOOT)
+            removeReservedItem(world, state.block.asItem())
+    }
+
+    private fun refreshBlock(world: ServerWorld, block: Pair<BlockPos, BlockState>) {
+        val pos = block.first.add(start)
+        world.chunkManager.lightingProvider.checkBlock(pos)
+        world.updateNeighbors(pos, block.second.block)
+    }
+
+    private fun finish(world: ServerWorld) {
+        finished = true
+        val server = world.server
+        server.getManagersProvider(fortressPos)
+            ?.buildingsManager
+            ?.addBuilding(metadata, start, end, buildingBlocks)
+
+        server.getFortressOwner(fortressPos)?.let {
+            val packet = ClientboundTaskExecutedPacket(taskId)
+            FortressServerNetworkHelper.send(it, FortressChannelNames.FINISH_TASK, packet)
+        }
+    }
+
+    private fun removeReservedItem(world: ServerWorld, item: Item) {
+        if (!world.server.isSurvivalFortress()) return
+        val resourceManager = world.server.getManagersProvider(fortressPos)?.resourceManager ?: return
+        if (SimilarItemsHelper.isIgnorable(item)) {
+            resourceManager.removeItemIfExists(taskId, item)
+        } else {
+            resourceManager.removeReservedItem(taskId, item)
+        }
+    }
+
+    /**
+     * Saves the blocks which aren't placed yet and the placed ones which aren't refreshed yet, they were placed
+     * without the light and the neighbour updates.
+     */
+    fun toNbt() = NbtCompound().apply {
+        putUuid("taskId", taskId)
+        putLong("fortressPos", fortressPos.asLong())
+        put("metadata", metadata.toNbt())
+        putLong("start", start.asLong())
+        putLong("end", end.asLong())
+        put("blocksToPlace", TaskNbtUtils.writeBlockStates(blocks.subList(placedBlocks, blocks.size).toMap()))
+        put("blocksToRefresh", TaskNbtUtils.writeBlockStates(blocks.subList(refreshedBlocks, placedBlocks).toMap()))
+        put("buildingBlocks", TaskNbtUtils.writeBlockStates(buildingBlocks))
+    }
+
+    companion object {
+        private const val PLACEMENT_FLAGS = Block.NOTIFY_LISTENERS or Block.FORCE_STATE or Block.SKIP_LIGHTING_UPDATES
+
+        private fun sortBottomUp(blocks: Map<BlockPos, BlockState>) = blocks.entries
+            .map { it.key.toImmutable() to it.value }
+            .sortedBy { it.first.y }
+
+        fun fromNbt(tag: NbtCompound) = BlueprintFinalizationJob(
+            tag.getUuid("taskId"),
+            BlockPos.fromLong(tag.getLong("fortressPos")),
+            BlueprintMetadata(tag.getCompound("metadata")),
+            BlockPos.fromLong(tag.getLong("start")),
+            BlockPos.fromLong(tag.getLong("end")),
+            TaskNbtUtils.readBlockStates(tag.getCompound("blocksToPlace")),
+            TaskNbtUtils.readBlockStates(tag.getCompound("buildingBlocks")),
+            TaskNbtUtils.readBlockStates(tag.getCompound("blocksToRefresh"))
+        )
+    }
+}
@@ -11,6 +11,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.TaskType;
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IFortressAwareEntity;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn;
@@ -90,7 +91,7 @@ public class BlueprintTask extends AbstractTask {
                         final var realpos = pos.add(startingBlock);
                         world.setBlockState(realpos, state, 3);
 
-                        if(!state.isIn(BlockTags.BEDS) || state.get(BedBlock.PART) != BedPart.FOOT) {
+                        if(!state.isIn(BlockTags.BEDS) || !state.contains(BedBlock.PART) || state.get(BedBlock.PART) != BedPart.FOOT) {
                             removeReservedItem(worker, state.getBlock().asItem());
                         }
                     });
@@ -131,6 +132,6 @@ public class BlueprintTask extends AbstractTask {
         if(blueprintEntityData != null) allBlocks.addAll(blueprintEntityData.keySet());
         if(blueprintAutomaticData != null) allBlocks.addAll(blueprintAutomaticData.keySet());
         final var positions = allBlocks.stream().map(it -> it.add(startingBlock)).toList();
-        return List.of(new TaskInformationDto(id, positions, taskType));
+        return List.of(new TaskInformationDto(id, PositionSet.of(positions), taskType));
     }
 }
@@ -3,6 +3,7 @@ package org.minefortress.tasks;
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.gobi.ClientTask;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IClientTask;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IClientTasksHolder;
@@ -30,6 +31,7 @@ public class ClientTasksHolder implements ITasksModelBuilderInfoProvider, ITasks
 
     private boolean selectionHidden = false;
     private boolean needRebuild = false;
+    private boolean tasksChanged = false;
 
     @Override
     public void cancelLatestTask() {
@@ -70,14 +72,16 @@ public class ClientTasksHolder implements ITasksModelBuilderInfoProvider, ITasks
             buildTasks.put(uuid, newTask);
         }
 
-        tasksStack.push(uuid);
-        this.setNeedRebuild(true);
+        // the server sends the saved tasks again when the player joins
+        if(!tasksStack.contains(uuid))
+            tasksStack.push(uuid);
+        this.tasksChanged = true;
     }
 
     @Override
-    public Set<IClientTask> getAllSelections() {
-        final var clientSelections = new HashSet<>(buildTasks.values());
-        clientSelections.addAll(removeTasks.values());
+    public Map<UUID, IClientTask> getAllSelections() {
+        final var clientSelections = new HashMap<>(buildTasks);
+        clientSelections.putAll(removeTasks);
         return clientSelections;
     }
 
@@ -92,17 +96,52 @@ public class ClientTasksHolder implements ITasksModelBuilderInfoProvider, ITasks
         subtasksMap.remove(uuid);
         tasksStack.remove(uuid);
 
-        this.setNeedRebuild(true);
+        this.tasksChanged = true;
+    }
+
+    @Override
+    public void removeTaskPositions(UUID uuid, PositionSet positions) {
+        final var tasks = buildTasks.containsKey(uuid) ? buildTasks : removeTasks;
+        final var task = tasks.get(uuid);
+        if(task == null) return;
+
+        // the new instance makes the model builder re-mesh only this task
+        tasks.put(uuid, task.withoutPositions(positions));
+        this.tasksChanged = true;
+    }
+
+    /**
+     * Re-meshes the tasks having the changed block, their outlines show only the blocks which can be placed or removed.
+     */
+    public void onBlockChanged(BlockPos pos) {
+        refreshTasksAt(buildTasks, pos);
+        refreshTasksAt(removeTasks, pos);
+    }
+
+    private void refreshTasksAt(Map<UUID, IClientTask> tasks, BlockPos pos) {
+        for(Map.Entry<UUID, IClientTask> entry : tasks.entrySet()) {
+            final var task = entry.getValue();
+            if(!task.getBlockPositions().contains(pos)) continue;
+            entry.setValue(task.withoutPositions(PositionSet.empty()));
+            this.tasksChanged = true;
+        }
     }
 
     @Override
     public boolean isNeedRebuild() {
-        return needRebuild;
+        return needRebuild || tasksChanged;
     }
 
     @Override
     public void setNeedRebuild(boolean needRebuild) {
         this.needRebuild = needRebuild;
+        if(!needRebuild)
+            this.tasksChanged = false;
+    }
+
+    @Override
+    public boolean isNeedFullRebuild() {
+        return needRebuild;
     }
 
     @Override
@@ -2,10 +2,14 @@ package org.minefortress.tasks
 
 import com.mojang.datafixers.util.Pair
 import net.minecraft.entity.LivingEntity
+import net.minecraft.nbt.NbtCompound
+import net.minecraft.server.world.ServerWorld
 import net.minecraft.util.math.BlockPos
 import net.remmintan.gobi.helpers.TreeData
+import net.remmintan.gobi.helpers.TreeFinder
 import net.remmintan.gobi.helpers.TreeRemover
 import net.remmintan.mods.minefortress.core.TaskType
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITask
@@ -23,7 +27,7 @@ class CutTreesTask(private val uuid: UUID, private val trees: Map<BlockPos, Tree
     private val treeRoots: Queue<BlockPos> = ArrayDeque(trees.keys)
     private val totalTreesCount = treeRoots.size
 
-    private var removedTrees = 0
+    private val removedRoots = mutableSetOf<BlockPos>()
     private var canceled = false
 
     private var assignedWorkers = 0
@@ -65,10 +69,10 @@ class CutTreesTask(private val uuid: UUID, private val trees: Map<BlockPos, Tree
         val managersProvider = ServerModUtils.getManagersProvider(pawn).orElseThrow()
         TreeRemover(pawn.serverWorld, managersProvider.resourceManager, pawn as LivingEntity).removeTheTree(tree)
 
-        removedTrees++
-        check(removedTrees <= totalTreesCount) { "Removed more roots than total roots" }
+        removedRoots.add(root)
+        check(removedRoots.size <= totalTreesCount) { "Removed more roots than total roots" }
 
-        if (treeRoots.isEmpty() && removedTrees == totalTreesCount) {
+        if (treeRoots.isEmpty() && removedRoots.size == totalTreesCount) {
             (pawn as IWorkerPawn).server.getFortressOwner(pawn.fortressPos!!)?.let {
                 FortressServerNetworkHelper.send(
                     it,
@@ -80,12 +84,20 @@ class CutTreesTask(private val uuid: UUID, private val trees: Map<BlockPos, Tree
     }
 
     override fun isComplete(): Boolean {
-        return removedTrees == totalTreesCount
+        return removedRoots.size == totalTreesCount
+    }
+
+    /**
+     * Saves only the roots of the trees which aren't cut yet, the trees are searched again after loading.
+     */
+    fun toNbt() = NbtCompound().apply {
+        putUuid("id", uuid)
+        putLongArray("roots", (trees.keys - removedRoots).map { it.asLong() })
     }
 
     override fun toTaskInformationDto(): List<TaskInformationDto> {
         val positions = trees.values.flatMap { listOf(it.treeLogBlocks, it.treeLeavesBlocks).flatten() }
-        return listOf(TaskInformationDto(getId(), positions, TaskType.REMOVE))
+        return listOf(TaskInformationDto(getId(), PositionSet.of(positions), TaskType.REMOVE))
     }
 
     override fun canTakeMoreWorkers(): Boolean {
@@ -99,4 +111,15 @@ class CutTreesTask(private val uuid: UUID, private val trees: Map<BlockPos, Tree
     override fun removeWorker() {
         assignedWorkers--
     }
+
+    companion object {
+        fun fromNbt(tag: NbtCompound, world: ServerWorld): CutTreesTask {
+            val treeFinder = TreeFinder(world)
+            val trees = tag.getLongArray("roots")
+                .map { BlockPos.fromLong(it) }
+                .mapNotNull { root -> treeFinder.findTree(root)?.let { root to it } }
+                .toMap()
+            return CutTreesTask(tag.getUuid("id"), trees)
+        }
+    }
 }
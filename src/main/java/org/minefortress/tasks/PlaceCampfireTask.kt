@@ -9,6 +9,8 @@ import net.remmintan.gobi.helpers.TreeFinder
 import net.remmintan.gobi.helpers.TreeRemover
 import net.remmintan.mods.minefortress.blocks.FortressBlocks
 import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintMetadata
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData
 import net.remmintan.mods.minefortress.core.interfaces.resources.IServerResourceManager
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IPlaceCampfireTask
 import net.remmintan.mods.minefortress.core.utils.getFortressManager
@@ -18,7 +20,7 @@ import net.remmintan.mods.minefortress.networking.s2c.S2CStartFortressConfigurat
 
 class PlaceCampfireTask(
     private val metadata: BlueprintMetadata,
-    private val blockData: Map<BlockPos, BlockState>,
+    private val blockData: IStructureBlockData,
     placePos: BlockPos
 ) : IPlaceCampfireTask {
     override val start: BlockPos
@@ -27,10 +29,6 @@ class PlaceCampfireTask(
 
 
     init {
-        blockData.forEach { (pos, blockState) ->
-            blocks[placePos.add(pos)] = blockState
-        }
-
         var minX = Int.MAX_VALUE
         var minY = Int.MAX_VALUE
         var minZ = Int.MAX_VALUE
@@ -38,7 +36,10 @@ class PlaceCampfireTask(
         var maxY = Int.MIN_VALUE
         var maxZ = Int.MIN_VALUE
 
-        for (blockPos in blocks.keys) {
+        blockData.forEachBlock(BlueprintDataLayer.GENERAL) { x, y, z, blockState ->
+            val blockPos = placePos.add(x, y, z)
+            blocks[blockPos] = blockState
+
             if (blockPos.x < minX) minX = blockPos.x
             if (blockPos.y < minY) minY = blockPos.y
             if (blockPos.z < minZ) minZ = blockPos.z
@@ -75,7 +76,7 @@ class PlaceCampfireTask(
                 metadata,
                 start,
                 end,
-                blockData
+                blockData.getLayer(BlueprintDataLayer.GENERAL)
             )
             it.professionsManager?.sendProfessions(player)
             removeAllTreesInTheRadius(world, stableFortressCenter, it.resourceManager)
@@ -2,8 +2,10 @@ package org.minefortress.tasks;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.item.Item;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITaskBlockInfo;
@@ -43,7 +45,29 @@ public class RepairBuildingTask extends AbstractTask {
 
     @Override
     public List<TaskInformationDto> toTaskInformationDto() {
-        final var taskInfoDto = new TaskInformationDto(id, blocksToRepair.keySet().stream().toList(), taskType);
+        final var positions = withoutFinishedParts(PositionSet.of(blocksToRepair.keySet()));
+        final var taskInfoDto = new TaskInformationDto(id, positions, taskType);
         return List.of(taskInfoDto);
     }
+
+    public NbtCompound toNbt() {
+        final var tag = new NbtCompound();
+        tag.putUuid("id", id);
+        tag.putLong("start", startingBlock.asLong());
+        tag.putLong("end", endingBlock.asLong());
+        tag.put("blocksToRepair", TaskNbtUtils.writeBlockStates(blocksToRepair));
+        writeFinishedParts(tag);
+        return tag;
+    }
+
+    public static RepairBuildingTask fromNbt(NbtCompound tag) {
+        final var task = new RepairBuildingTask(
+                tag.getUuid("id"),
+                BlockPos.fromLong(tag.getLong("start")),
+                BlockPos.fromLong(tag.getLong("end")),
+                TaskNbtUtils.readBlockStates(tag.getCompound("blocksToRepair"))
+        );
+        task.readFinishedParts(tag);
+        return task;
+    }
 }
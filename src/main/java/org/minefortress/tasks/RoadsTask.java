@@ -2,9 +2,11 @@ package org.minefortress.tasks;
 
 import com.mojang.datafixers.util.Pair;
 import net.minecraft.item.Item;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITask;
@@ -23,6 +25,8 @@ import java.util.stream.Collectors;
 
 public class RoadsTask implements ITask {
 
+    private static final int PART_SIZE = 11;
+
     private final UUID id;
     private final Item item;
 
@@ -30,6 +34,7 @@ public class RoadsTask implements ITask {
     private final Queue<ITaskPart> taskParts = new ArrayDeque<>();
     private final int totalParts;
     private int finishedParts = 0;
+    private final Set<BlockPos> finishedPartsStarts = new HashSet<>();
 
     private boolean canceled = false;
     private final List<Runnable> taskFinishListeners = new ArrayList<>();
@@ -48,7 +53,7 @@ public class RoadsTask implements ITask {
         int partCounter = 0;
         for (BlockPos block : blocks) {
             partBlocks.add(block);
-            if (partCounter++ > 9) {
+            if (++partCounter >= PART_SIZE) {
                 final ITaskPart taskPart = createTaskPart(partBlocks);
                 taskParts.add(taskPart);
                 partBlocks.clear();
@@ -108,7 +113,7 @@ public class RoadsTask implements ITask {
         if(i != -1){
             final ArrayList<BlockPos> partBlocks = new ArrayList<>();
             for (int j = i; j < blocks.size(); j++) {
-                if(j - i > 10) break;
+                if(j - i >= PART_SIZE) break;
                 partBlocks.add(blocks.get(j));
             }
             final ITaskPart taskPart = createTaskPart(partBlocks);
@@ -122,6 +127,7 @@ public class RoadsTask implements ITask {
         finishedParts++;
         if(finishedParts > totalParts)
             throw new IllegalStateException("Finished more parts than total parts");
+        finishedPartsStarts.add(part.getStartAndEnd().getFirst());
 
         if(taskParts.isEmpty() && totalParts == finishedParts){
             world.getPlayers().stream().findAny().ifPresent(player -> FortressServerNetworkHelper.send(player, FortressChannelNames.FINISH_TASK, new ClientboundTaskExecutedPacket(this.getId())));
@@ -146,7 +152,32 @@ public class RoadsTask implements ITask {
 
     @Override
     public List<TaskInformationDto> toTaskInformationDto() {
-        return List.of(new TaskInformationDto(id, blocks, getTaskType()));
+        return List.of(new TaskInformationDto(id, PositionSet.of(blocks), getTaskType()));
+    }
+
+    /**
+     * Saves only the blocks of the unfinished parts, the restored task splits them into the parts again.
+     */
+    public NbtCompound toNbt() {
+        final var remainingBlocks = new ArrayList<BlockPos>();
+        for (int i = 0; i < blocks.size(); i++) {
+            if (finishedPartsStarts.contains(blocks.get(i))) {
+                i += PART_SIZE - 1;
+                continue;
+            }
+            remainingBlocks.add(blocks.get(i));
+        }
+
+        final var tag = new NbtCompound();
+        tag.putUuid("id", id);
+        tag.putLongArray("blocks", TaskNbtUtils.writePositions(remainingBlocks));
+        TaskNbtUtils.putItem(tag, "item", item);
+        return tag;
+    }
+
+    public static RoadsTask fromNbt(NbtCompound tag) {
+        final var blocks = TaskNbtUtils.readPositions(tag.getLongArray("blocks"));
+        return new RoadsTask(tag.getUuid("id"), blocks, TaskNbtUtils.getItem(tag, "item"));
     }
 
     @Override
@@ -1,55 +1,62 @@
 package org.minefortress.tasks
 
-import net.minecraft.entity.Entity
 import net.minecraft.nbt.NbtCompound
+import net.minecraft.nbt.NbtElement
+import net.minecraft.nbt.NbtList
 import net.minecraft.server.MinecraftServer
 import net.minecraft.server.network.ServerPlayerEntity
 import net.minecraft.server.world.ServerWorld
+import net.minecraft.util.math.BlockPos
+import net.remmintan.mods.minefortress.core.ModLogger
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn
 import net.remmintan.mods.minefortress.core.interfaces.server.IServerManagersProvider
+import net.remmintan.mods.minefortress.core.interfaces.server.ISyncableServerManager
 import net.remmintan.mods.minefortress.core.interfaces.server.ITickableManager
 import net.remmintan.mods.minefortress.core.interfaces.server.IWritableManager
 import net.remmintan.mods.minefortress.core.interfaces.tasks.*
 import net.remmintan.mods.minefortress.core.utils.ServerModUtils
 import net.remmintan.mods.minefortress.networking.helpers.FortressServerNetworkHelper
 import net.remmintan.mods.minefortress.networking.s2c.S2CAddClientTasksPacket
+import org.minefortress.registries.FortressGameRules
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
 
 
-class ServerTaskManager : IServerTaskManager, IWritableManager, ITickableManager {
+class ServerTaskManager(private val fortressPos: BlockPos) : IServerTaskManager, IWritableManager, ITickableManager,
+    ISyncableServerManager {
     private val tasksInProgress: MutableMap<UUID, IBaseTask> = ConcurrentHashMap()
     private val notStartedTasks: Queue<IBaseTask> = LinkedList()
+    // the saved tasks are restored a few per tick, so a big queue doesn't stall the server after loading
+    private val tasksToRestore: Queue<NbtCompound> = LinkedList()
+    private val finalizationJobs: Queue<IFinalizationJob> = LinkedList()
+
+    private var needSync = false
 
     override fun addTask(task: IBaseTask, selectedPawnIds: List<Int>, player: ServerPlayerEntity) {
         val packet = S2CAddClientTasksPacket(task.toTaskInformationDto())
         FortressServerNetworkHelper.send(player, S2CAddClientTasksPacket.CHANNEL, packet)
 
-        if (selectedPawnIds.isEmpty()) {
-            notStartedTasks.add(task)
-            return
-        }
-
-        val selectedWorkers = filterWorkers(selectedPawnIds, player)
-        if (selectedWorkers.isEmpty()) {
-            notStartedTasks.add(task)
-            return
-        }
-
-        if (task is ITaskWithPreparation)
-            task.prepareTask()
-        tasksInProgress[task.getId()] = task
-        setPawnsToTask(task, selectedWorkers)
+        startTask(task, filterWorkers(selectedPawnIds, player.serverWorld))
     }
 
     override fun tick(server: MinecraftServer, world: ServerWorld, player: ServerPlayerEntity?) {
+        val restoredTasks = restoreTasks(world)
         removeAllFinishedTasks()
+        tickFinalizationJobs(world)
+
+        if (player != null) {
+            if (needSync) {
+                // the restored tasks are already queued, so they are sent with the rest
+                sendTasks(player, getAllTasks())
+                needSync = false
+            } else if (restoredTasks.isNotEmpty()) {
+                sendTasks(player, restoredTasks)
+            }
+        }
 
-        //FIXME take planned tasks even when the player is offline
-        if (player == null) return
         if (notStartedTasks.isEmpty() && tasksInProgress.isEmpty()) return
         val readyWorkers = ServerModUtils
-            .getFortressManager(player)
+            .getFortressManager(server, fortressPos)
             .map { it.readyWorkers }
             .orElse(emptyList())
 
@@ -59,10 +66,7 @@ class ServerTaskManager : IServerTaskManager, IWritableManager, ITickableManager
                 ?.also { setPawnsToTask(it, readyWorkers) }
 
             if (inProgressTask == null) {
-                notStartedTasks.poll()?.let {
-                    val selectedPawnIds = readyWorkers.map { w -> (w as Entity).id }
-                    this.addTask(it, selectedPawnIds, player)
-                }
+                notStartedTasks.poll()?.let { startTask(it, filterWorkers(readyWorkers)) }
             }
         }
     }
@@ -70,11 +74,73 @@ class ServerTaskManager : IServerTaskManager, IWritableManager, ITickableManager
     override fun cancelTask(id: UUID, player: ServerPlayerEntity) {
         val removedTask = tasksInProgress.remove(id)
         removedTask?.cancel()
+        notStartedTasks.removeIf { it.getId() == id }
         ServerModUtils.getManagersProvider(player).ifPresent { it: IServerManagersProvider ->
             it.resourceManager.returnReservedItems(id)
         }
     }
 
+    override fun addFinalizationJob(job: IFinalizationJob) {
+        finalizationJobs.add(job)
+    }
+
+    override fun sync() {
+        needSync = true
+    }
+
+    private fun tickFinalizationJobs(world: ServerWorld) {
+        if (finalizationJobs.isEmpty()) return
+
+        val gameRules = world.gameRules
+        var stepsLeft = gameRules.getInt(FortressGameRules.FINALIZATION_BLOCKS_PER_TICK)
+        val deadline = System.nanoTime() + gameRules.getInt(FortressGameRules.FINALIZATION_MILLIS_PER_TICK) * 1_000_000L
+        while (stepsLeft > 0 && System.nanoTime() < deadline) {
+            val job = finalizationJobs.peek() ?: break
+            stepsLeft -= job.tick(world, stepsLeft, deadline)
+            if (job.isFinished()) finalizationJobs.poll()
+        }
+    }
+
+    private fun startTask(task: IBaseTask, workers: List<IWorkerPawn>) {
+        if (workers.isEmpty()) {
+            notStartedTasks.add(task)
+            return
+        }
+
+        if (task is ITaskWithPreparation)
+            task.prepareTask()
+        tasksInProgress[task.getId()] = task
+        setPawnsToTask(task, workers)
+    }
+
+    private fun restoreTasks(world: ServerWorld): List<IBaseTask> {
+        if (tasksToRestore.isEmpty()) return emptyList()
+
+        val restoredTasks = mutableListOf<IBaseTask>()
+        repeat(RESTORED_TASKS_PER_TICK) {
+            val taskTag = tasksToRestore.poll() ?: return restoredTasks
+            try {
+                readTask(taskTag, world)?.let {
+                    notStartedTasks.add(it)
+                    restoredTasks.add(it)
+                }
+            } catch (e: RuntimeException) {
+                ModLogger.LOGGER.error("Failed to restore the task {}", taskTag.getString(TYPE_KEY), e)
+            }
+        }
+        return restoredTasks
+    }
+
+    // the queued tasks aren't prepared yet and may look complete, only the tasks in progress can really be finished
+    private fun getAllTasks(): List<IBaseTask> =
+        tasksInProgress.values.filter { it.notCancelled() && !it.isComplete() } + notStartedTasks.filter { it.notCancelled() }
+
+    private fun sendTasks(player: ServerPlayerEntity, tasks: List<IBaseTask>) {
+        if (tasks.isEmpty()) return
+        val packet = S2CAddClientTasksPacket(tasks.flatMap { it.toTaskInformationDto() })
+        FortressServerNetworkHelper.send(player, S2CAddClientTasksPacket.CHANNEL, packet)
+    }
+
     private fun removeAllFinishedTasks() {
         val finishedTasks = tasksInProgress.filterValues { it.isComplete() }.keys
         finishedTasks.forEach { tasksInProgress.remove(it) }
@@ -102,22 +168,98 @@ class ServerTaskManager : IServerTaskManager, IWritableManager, ITickableManager
 
 
     override fun write(tag: NbtCompound) {
+        val tasksTag = NbtList()
+        // the tasks in progress are restored first, the workers have to take them again after loading
+        for (task in tasksInProgress.values.filter { !it.isComplete() } + notStartedTasks) {
+            if (!task.notCancelled()) continue
+            writeTask(task)?.let { tasksTag.add(it) }
+        }
+        // not restored yet, keep them as they were loaded
+        tasksToRestore.forEach { tasksTag.add(it) }
+
+        val jobsTag = NbtList()
+        finalizationJobs
+            .filterIsInstance<BlueprintFinalizationJob>()
+            .forEach { jobsTag.add(it.toNbt()) }
+
+        val taskManagerTag = NbtCompound()
+        taskManagerTag.put("tasks", tasksTag)
+        taskManagerTag.put("finalizationJobs", jobsTag)
+        tag.put("taskManager", taskManagerTag)
     }
 
     override fun read(tag: NbtCompound) {
+        tasksInProgress.clear()
+        notStartedTasks.clear()
+        tasksToRestore.clear()
+        finalizationJobs.clear()
+        if (!tag.contains("taskManager")) return
+
+        val taskManagerTag = tag.getCompound("taskManager")
+        val tasksTag = taskManagerTag.getList("tasks", NbtElement.COMPOUND_TYPE.toInt())
+        for (i in 0 until tasksTag.size) {
+            tasksToRestore.add(tasksTag.getCompound(i))
+        }
+
+        val jobsTag = taskManagerTag.getList("finalizationJobs", NbtElement.COMPOUND_TYPE.toInt())
+        for (i in 0 until jobsTag.size) {
+            finalizationJobs.add(BlueprintFinalizationJob.fromNbt(jobsTag.getCompound(i)))
+        }
     }
 
     companion object {
-        private fun filterWorkers(selectedPawnIds: List<Int>, player: ServerPlayerEntity): List<IWorkerPawn> {
-            val serverWorld = player.world
+        private const val RESTORED_TASKS_PER_TICK = 2
+        private const val TYPE_KEY = "type"
+
+        private const val SELECTION_TASK = "selection"
+        private const val ROADS_TASK = "roads"
+        private const val CUT_TREES_TASK = "cutTrees"
+        private const val REPAIR_BUILDING_TASK = "repairBuilding"
+        private const val AREA_BLUEPRINT_TASK = "areaBlueprint"
+
+        private fun writeTask(task: IBaseTask): NbtCompound? {
+            val (type, tag) = when (task) {
+                is SimpleSelectionTask -> SELECTION_TASK to task.toNbt()
+                is RoadsTask -> ROADS_TASK to task.toNbt()
+                is CutTreesTask -> CUT_TREES_TASK to task.toNbt()
+                is RepairBuildingTask -> REPAIR_BUILDING_TASK to task.toNbt()
+                is AreaBlueprintTask -> AREA_BLUEPRINT_TASK to task.toNbt()
+                else -> {
+                    ModLogger.LOGGER.warn("Task {} can't be saved", task.javaClass.simpleName)
+                    return null
+                }
+            }
+            tag.putString(TYPE_KEY, type)
+            return tag
+        }
+
+        private fun readTask(tag: NbtCompound, world: ServerWorld): IBaseTask? {
+            return when (val type = tag.getString(TYPE_KEY)) {
+                SELECTION_TASK -> SimpleSelectionTask.fromNbt(tag)
+                ROADS_TASK -> RoadsTask.fromNbt(tag)
+                CUT_TREES_TASK -> CutTreesTask.fromNbt(tag, world)
+                REPAIR_BUILDING_TASK -> RepairBuildingTask.fromNbt(tag)
+                AREA_BLUEPRINT_TASK -> AreaBlueprintTask.fromNbt(tag, world)
+                else -> {
+                    ModLogger.LOGGER.warn("Unknown saved task type {}", type)
+                    null
+                }
+            }
+        }
+
+        private fun filterWorkers(selectedPawnIds: List<Int>, world: ServerWorld): List<IWorkerPawn> {
             return selectedPawnIds
                 .asSequence()
-                .map { serverWorld.getEntityById(it) }
+                .map { world.getEntityById(it) }
                 .filterNotNull()
                 .filter { it is IWorkerPawn }
                 .map { it as IWorkerPawn }
-                .filter { !it.taskControl.isDoingEverydayTasks }
                 .toList()
+                .let { filterWorkers(it) }
+        }
+
+        private fun filterWorkers(workers: List<IWorkerPawn>): List<IWorkerPawn> {
+            return workers.filter { !it.taskControl.isDoingEverydayTasks }
         }
     }
 }
@@ -4,11 +4,14 @@ import com.mojang.datafixers.util.Pair;
 import net.minecraft.block.BlockState;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemUsageContext;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.entities.pawns.IWorkerPawn;
 import net.remmintan.mods.minefortress.core.interfaces.selections.ServerSelectionType;
@@ -127,6 +130,63 @@ public class SimpleSelectionTask extends AbstractTask {
 
     @Override
     public List<TaskInformationDto> toTaskInformationDto() {
-        return List.of(new TaskInformationDto(id, positions, taskType));
+        return List.of(new TaskInformationDto(id, withoutFinishedParts(PositionSet.of(positions)), taskType));
+    }
+
+    public NbtCompound toNbt() {
+        final var tag = new NbtCompound();
+        tag.putUuid("id", id);
+        tag.putString("taskType", taskType.name());
+        tag.putLong("start", startingBlock.asLong());
+        tag.putLong("end", endingBlock.asLong());
+        tag.putString("selectionType", selectionType.name());
+        tag.putLongArray("positions", TaskNbtUtils.writePositions(positions));
+        TaskNbtUtils.putItem(tag, "placingItem", placingItem);
+        if (hitResult != null) {
+            final var hitPos = hitResult.getPos();
+            tag.putDouble("hitX", hitPos.getX());
+            tag.putDouble("hitY", hitPos.getY());
+            tag.putDouble("hitZ", hitPos.getZ());
+            if (hitResult instanceof BlockHitResult blockHitResult) {
+                tag.putLong("hitBlock", blockHitResult.getBlockPos().asLong());
+                tag.putString("hitSide", blockHitResult.getSide().name());
+                tag.putBoolean("hitInsideBlock", blockHitResult.isInsideBlock());
+            }
+        }
+        writeFinishedParts(tag);
+        return tag;
+    }
+
+    /**
+     * Restores the task saved with {@link #toNbt()}. The stored ends are already swapped and the ladder hit result
+     * already points up, so the constructor leaves them as they are.
+     */
+    public static SimpleSelectionTask fromNbt(NbtCompound tag) {
+        final HitResult hitResult;
+        if (tag.contains("hitX")) {
+            final var hitPos = new Vec3d(tag.getDouble("hitX"), tag.getDouble("hitY"), tag.getDouble("hitZ"));
+            if (tag.contains("hitBlock")) {
+                final var side = Direction.valueOf(tag.getString("hitSide"));
+                final var blockPos = BlockPos.fromLong(tag.getLong("hitBlock"));
+                hitResult = new BlockHitResult(hitPos, side, blockPos, tag.getBoolean("hitInsideBlock"));
+            } else {
+                hitResult = BlockHitResult.createMissed(hitPos, Direction.UP, BlockPos.ofFloored(hitPos));
+            }
+        } else {
+            hitResult = null;
+        }
+
+        final var task = new SimpleSelectionTask(
+                tag.getUuid("id"),
+                TaskType.valueOf(tag.getString("taskType")),
+                BlockPos.fromLong(tag.getLong("start")),
+                BlockPos.fromLong(tag.getLong("end")),
+                hitResult,
+                ServerSelectionType.valueOf(tag.getString("selectionType")),
+                TaskNbtUtils.readPositions(tag.getLongArray("positions"))
+        );
+        task.setPlacingItem(TaskNbtUtils.getItem(tag, "placingItem"));
+        task.readFinishedParts(tag);
+        return task;
     }
 }
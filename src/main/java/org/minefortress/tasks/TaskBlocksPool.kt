@@ -0,0 +1,132 @@
+package org.minefortress.tasks
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
+import net.minecraft.util.math.BlockPos
+import net.minecraft.util.math.ChunkPos
+import net.minecraft.util.math.ChunkSectionPos
+import net.remmintan.mods.minefortress.core.interfaces.tasks.ITaskBlockInfo
+import java.util.*
+
+/**
+ * Blocks of the area based task grouped by the y level and by the 16x16 column inside of the level.
+ * The levels are handed out one by one, bottom-up for building so every block has its support placed before it.
+ * Inside of the level the worker gets the block nearest to it, so it doesn't walk across the whole area
+ * between the blocks.
+ */
+class TaskBlocksPool(bottomUp: Boolean) {
+
+    private val levels: TreeMap<Int, Long2ObjectMap<MutableList<ITaskBlockInfo>>> =
+        TreeMap(if (bottomUp) naturalOrder() else reverseOrder())
+
+    var size = 0
+        private set
+
+    fun isEmpty() = size == 0
+
+    fun add(info: ITaskBlockInfo) {
+        val pos = info.pos
+        val columns = levels.getOrPut(pos.y) { Long2ObjectOpenHashMap() }
+        val columnKey = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.x), ChunkSectionPos.getSectionCoord(pos.z))
+        val column = columns.get(columnKey) ?: ArrayList<ITaskBlockInfo>().also { columns.put(columnKey, it) }
+        column.add(info)
+        size++
+    }
+
+    /**
+     * Takes the block of the current level which is the nearest to the given position.
+     */
+    fun poll(near: BlockPos): ITaskBlockInfo? {
+        val level = levels.firstEntry() ?: return null
+        val columns = level.value
+
+        // the column nearest to the position gives the first candidate, then only the columns which can have
+        // a closer block are scanned
+        var closestColumnKey = 0L
+        var closestColumnDistance = Long.MAX_VALUE
+        var iterator = Long2ObjectMaps.fastIterator(columns)
+        while (iterator.hasNext()) {
+            val columnKey = iterator.next().longKey
+            val minDistance = getMinSquaredDistance(columnKey, near)
+            if (minDistance < closestColumnDistance) {
+                closestColumnKey = columnKey
+                closestColumnDistance = minDistance
+            }
+        }
+        if (closestColumnDistance == Long.MAX_VALUE) return null
+
+        var nearestColumnKey = closestColumnKey
+        var nearestBlocks = columns.get(closestColumnKey)
+        var nearestIndex = findNearest(nearestBlocks, near)
+        var nearestDistance = getSquaredDistance(nearestBlocks[nearestIndex].pos, near)
+
+        iterator = Long2ObjectMaps.fastIterator(columns)
+        while (iterator.hasNext()) {
+            val column = iterator.next()
+            if (column.longKey == closestColumnKey) continue
+            if (getMinSquaredDistance(column.longKey, near) >= nearestDistance) continue
+            val index = findNearest(column.value, near)
+            val distance = getSquaredDistance(column.value[index].pos, near)
+            if (distance < nearestDistance) {
+                nearestColumnKey = column.longKey
+                nearestBlocks = column.value
+                nearestIndex = index
+                nearestDistance = distance
+            }
+        }
+
+        val info = nearestBlocks[nearestIndex]
+        nearestBlocks[nearestIndex] = nearestBlocks[nearestBlocks.lastIndex]
+        nearestBlocks.removeAt(nearestBlocks.lastIndex)
+        if (nearestBlocks.isEmpty()) columns.remove(nearestColumnKey)
+        if (columns.isEmpty()) levels.remove(level.key)
+        size--
+        return info
+    }
+
+    fun removeIf(predicate: (ITaskBlockInfo) -> Boolean) {
+        val levelsIterator = levels.values.iterator()
+        while (levelsIterator.hasNext()) {
+            val columns = levelsIterator.next()
+            val columnsIterator = columns.values.iterator()
+            while (columnsIterator.hasNext()) {
+                val blocks = columnsIterator.next()
+                val sizeBefore = blocks.size
+                blocks.removeAll(predicate)
+                size -= sizeBefore - blocks.size
+                if (blocks.isEmpty()) columnsIterator.remove()
+            }
+            if (columns.isEmpty()) levelsIterator.remove()
+        }
+    }
+
+    private companion object {
+        fun findNearest(blocks: List<ITaskBlockInfo>, near: BlockPos): Int {
+            var nearestIndex = 0
+            var nearestDistance = Long.MAX_VALUE
+            for (i in blocks.indices) {
+                val distance = getSquaredDistance(blocks[i].pos, near)
+                if (distance < nearestDistance) {
+                    nearestIndex = i
+                    nearestDistance = distance
+                }
+            }
+            return nearestIndex
+        }
+
+        fun getSquaredDistance(pos: BlockPos, near: BlockPos): Long {
+            val dx = (pos.x - near.x).toLong()
+            val dz = (pos.z - near.z).toLong()
+            return dx * dx + dz * dz
+        }
+
+        fun getMinSquaredDistance(columnKey: Long, near: BlockPos): Long {
+            val minX = ChunkSectionPos.getBlockCoord(ChunkPos.getPackedX(columnKey))
+            val minZ = ChunkSectionPos.getBlockCoord(ChunkPos.getPackedZ(columnKey))
+            val dx = (near.x.coerceIn(minX, minX + 15) - near.x).toLong()
+            val dz = (near.z.coerceIn(minZ, minZ + 15) - near.z).toLong()
+            return dx * dx + dz * dz
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.minefortress.tasks;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.fabricmc.fabric.api.util.NbtType;
+import net.minecraft.block.BlockState;
+import net.minecraft.item.Item;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Helpers shared by the tasks to save their state into the fortress data.
+ */
+final class TaskNbtUtils {
+
+    private TaskNbtUtils() {}
+
+    static long[] writePositions(Collection<BlockPos> positions) {
+        return positions.stream().mapToLong(BlockPos::asLong).toArray();
+    }
+
+    static List<BlockPos> readPositions(long[] positions) {
+        return Arrays.stream(positions).mapToObj(BlockPos::fromLong).toList();
+    }
+
+    static void putItem(NbtCompound tag, String key, @Nullable Item item) {
+        if (item != null)
+            tag.putString(key, Registries.ITEM.getId(item).toString());
+    }
+
+    @Nullable
+    static Item getItem(NbtCompound tag, String key) {
+        if (!tag.contains(key, NbtType.STRING)) return null;
+        return Registries.ITEM.get(new Identifier(tag.getString(key)));
+    }
+
+    /**
+     * Writes the states as the palette of the unique states and the palette index per position.
+     */
+    static NbtCompound writeBlockStates(Map<BlockPos, BlockState> blockStates) {
+        final var positions = new long[blockStates.size()];
+        final var states = new int[blockStates.size()];
+        final var paletteTag = new NbtList();
+        final Object2IntMap<BlockState> palette = new Object2IntOpenHashMap<>();
+        palette.defaultReturnValue(-1);
+
+        int i = 0;
+        for (Map.Entry<BlockPos, BlockState> entry : blockStates.entrySet()) {
+            var paletteIndex = palette.getInt(entry.getValue());
+            if (paletteIndex == -1) {
+                paletteIndex = paletteTag.size();
+                palette.put(entry.getValue(), paletteIndex);
+                paletteTag.add(NbtHelper.fromBlockState(entry.getValue()));
+            }
+            positions[i] = entry.getKey().asLong();
+            states[i] = paletteIndex;
+            i++;
+        }
+
+        final var tag = new NbtCompound();
+        tag.put("palette", paletteTag);
+        tag.putLongArray("positions", positions);
+        tag.putIntArray("states", states);
+        return tag;
+    }
+
+    static Map<BlockPos, BlockState> readBlockStates(NbtCompound tag) {
+        final var paletteTag = tag.getList("palette", NbtType.COMPOUND);
+        final var palette = new BlockState[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = NbtHelper.toBlockState(Registries.BLOCK.getReadOnlyWrapper(), paletteTag.getCompound(i));
+        }
+
+        final var positions = tag.getLongArray("positions");
+        final var states = tag.getIntArray("states");
+        if (positions.length != states.length)
+            throw new IllegalArgumentException("Positions and states have different length");
+
+        final var blockStates = new HashMap<BlockPos, BlockState>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            blockStates.put(BlockPos.fromLong(positions[i]), palette[states[i]]);
+        }
+        return blockStates;
+    }
+
+}
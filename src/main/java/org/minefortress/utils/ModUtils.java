@@ -22,6 +22,12 @@ public class ModUtils {
                 .resolve(MineFortressMod.BLUEPRINTS_FOLDER_NAME);
     }
 
+    public static Path getBlueprintsCacheFolder() {
+        return FabricLoader.getInstance()
+                .getGameDir()
+                .resolve(MineFortressMod.BLUEPRINTS_CACHE_FOLDER_NAME);
+    }
+
 
     public static boolean shouldReleaseCamera() {
         final var client = MinecraftClient.getInstance();
@@ -0,0 +1,25 @@
+package net.remmintan.mods.minefortress.networking.c2s
+
+import net.minecraft.network.PacketByteBuf
+import net.minecraft.server.MinecraftServer
+import net.minecraft.server.network.ServerPlayerEntity
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressC2SPacket
+
+/**
+ * Sent when the client missed an areas delta, the server answers with all the areas.
+ */
+class C2SRequestAreasSyncPacket : FortressC2SPacket {
+    constructor()
+    constructor(ignoredBuf: PacketByteBuf?)
+
+    override fun handle(server: MinecraftServer, player: ServerPlayerEntity) {
+        getManagersProvider(player).automationAreaManager.sync()
+    }
+
+    override fun write(buf: PacketByteBuf) {
+    }
+
+    companion object {
+        const val CHANNEL: String = "request_areas_sync"
+    }
+}
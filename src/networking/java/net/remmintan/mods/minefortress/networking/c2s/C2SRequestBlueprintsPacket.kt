@@ -0,0 +1,27 @@
+package net.remmintan.mods.minefortress.networking.c2s
+
+import net.minecraft.network.PacketByteBuf
+import net.minecraft.server.MinecraftServer
+import net.minecraft.server.network.ServerPlayerEntity
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressC2SPacket
+import net.remmintan.mods.minefortress.core.utils.getManagersProvider
+
+/**
+ * Asks for the structures of the blueprints missing in the client cache.
+ */
+class C2SRequestBlueprintsPacket(private val blueprintIds: List<String>) : FortressC2SPacket {
+
+    companion object {
+        const val CHANNEL = "request_blueprints"
+    }
+
+    constructor(buf: PacketByteBuf) : this(buf.readList { it.readString() })
+
+    override fun write(buf: PacketByteBuf) {
+        buf.writeCollection(blueprintIds) { b, it -> b.writeString(it) }
+    }
+
+    override fun handle(server: MinecraftServer, player: ServerPlayerEntity) {
+        player.getManagersProvider().get_BlueprintManager().requestBlueprints(blueprintIds)
+    }
+}
@@ -9,25 +9,25 @@ import org.jetbrains.annotations.NotNull;
 
 public class ServerboundScrollCurrentScreenPacket implements FortressC2SPacket {
 
-    private final float scrollPosition;
+    private final int rowsOffset;
 
-    public ServerboundScrollCurrentScreenPacket(float scrollPosition) {
-        this.scrollPosition = scrollPosition;
+    public ServerboundScrollCurrentScreenPacket(int rowsOffset) {
+        this.rowsOffset = rowsOffset;
     }
 
     public ServerboundScrollCurrentScreenPacket(PacketByteBuf buf) {
-        this.scrollPosition = buf.readFloat();
+        this.rowsOffset = buf.readVarInt();
     }
 
     @Override
     public void write(PacketByteBuf buf) {
-        buf.writeFloat(scrollPosition);
+        buf.writeVarInt(rowsOffset);
     }
 
     @Override
     public void handle(@NotNull MinecraftServer server, @NotNull ServerPlayerEntity player) {
         if(player.currentScreenHandler instanceof IScrollableHandler handler) {
-            handler.scrollItems(scrollPosition);
+            handler.setRowsOffset(rowsOffset);
         }
     }
 }
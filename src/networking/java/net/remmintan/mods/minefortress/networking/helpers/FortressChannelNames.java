@@ -13,7 +13,6 @@ public class FortressChannelNames {
     public static final String FORTRESS_SET_CENTER = "fortress_set_center";
     public static final String FORTRESS_EDIT_BLUEPRINT = "fortress_edit_blueprint";
     public static final String FORTRESS_SAVE_EDIT_BLUEPRINT = "fortress_save_edit_blueprint";
-    public static final String FORTRESS_SYNC_BLUEPRINT = "fortress_add_blueprint";
     public static final String FORTRESS_REMOVE_BLUEPRINT = "fortress_update_blueprint";
     public static final String FORTRESS_RESET_BLUEPRINT = "fortress_reset_blueprint";
     public static final String FORTRESS_CUT_TREES_TASK = "fortress_cut_trees_task";
@@ -14,7 +14,6 @@ public class ClientNetworkReceivers {
     public static void registerReceivers() {
         registerReceiver(FortressChannelNames.FINISH_TASK, ClientboundTaskExecutedPacket::new);
         registerReceiver(FortressChannelNames.FORTRESS_MANAGER_SYNC, ClientboundSyncFortressManagerPacket::new);
-        registerReceiver(FortressChannelNames.FORTRESS_SYNC_BLUEPRINT, ClientboundSyncBlueprintPacket::new);
         registerReceiver(FortressChannelNames.FORTRESS_REMOVE_BLUEPRINT, ClientboundRemoveBlueprintPacket::new);
         registerReceiver(FortressChannelNames.FORTRESS_RESET_BLUEPRINT, ClientboundResetBlueprintPacket::new);
         registerReceiver(FortressChannelNames.FORTRESS_BUILDINGS_SYNC, ClientboundSyncBuildingsPacket::new);
@@ -23,10 +22,17 @@ public class ClientNetworkReceivers {
         registerReceiver(FortressChannelNames.FORTRESS_PROFESSION_INIT, ClientboundProfessionsInitPacket::new);
         registerReceiver(FortressChannelNames.FORTRESS_BLUEPRINTS_PROCESS_IMPORT_EXPORT, ClientboundBlueprintsProcessImportExportPacket::new);
         registerReceiver(S2CSyncAreasPacket.CHANNEL, S2CSyncAreasPacket::new);
+        registerReceiver(S2CSyncAreasDeltaPacket.CHANNEL, S2CSyncAreasDeltaPacket::new);
+        registerReceiver(S2CSyncScreenStacksPacket.CHANNEL, S2CSyncScreenStacksPacket::new);
+        registerReceiver(S2CSyncCraftableRecipesPacket.CHANNEL, S2CSyncCraftableRecipesPacket::new);
         registerReceiver(S2CSyncFightManager.CHANNEL, S2CSyncFightManager::new);
         registerReceiver(S2CAddClientTasksPacket.CHANNEL, S2CAddClientTasksPacket::new);
         registerReceiver(S2CSyncGamemodePacket.CHANNEL, S2CSyncGamemodePacket::new);
         registerReceiver(S2CStartFortressConfiguration.CHANNEL, S2CStartFortressConfiguration::new);
+        registerReceiver(S2CSyncBuildingState.CHANNEL, S2CSyncBuildingState::new);
+        registerReceiver(S2CBlueprintsManifestPacket.CHANNEL, S2CBlueprintsManifestPacket::new);
+        registerReceiver(S2CSyncBlueprintsPacket.CHANNEL, S2CSyncBlueprintsPacket::new);
+        registerReceiver(S2CRemoveTaskPositionsPacket.CHANNEL, S2CRemoveTaskPositionsPacket::new);
     }
 
     private static void registerReceiver(String channelName, Function<PacketByteBuf, FortressS2CPacket> packetConstructor) {
@@ -43,6 +43,8 @@ public class ServerNetworkReceivers {
         registerReceiver(C2SSwitchToFortressModePacket.CHANNEL, C2SSwitchToFortressModePacket::new);
         registerReceiver(C2SClientReadyPacket.CHANNEL, C2SClientReadyPacket::new);
         registerReceiver(C2SSetPawnSkinPacket.CHANNEL, C2SSetPawnSkinPacket::new);
+        registerReceiver(C2SRequestBlueprintsPacket.CHANNEL, C2SRequestBlueprintsPacket::new);
+        registerReceiver(C2SRequestAreasSyncPacket.CHANNEL, C2SRequestAreasSyncPacket::new);
     }
 
     private static void registerReceiver(String channelName, Function<PacketByteBuf, FortressC2SPacket> packetConstructor) {
@@ -2,8 +2,8 @@ package net.remmintan.mods.minefortress.networking.s2c;
 
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.network.PacketByteBuf;
-import net.minecraft.util.math.BlockPos;
 import net.remmintan.mods.minefortress.core.TaskType;
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet;
 import net.remmintan.mods.minefortress.core.dtos.tasks.TaskInformationDto;
 import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket;
 import net.remmintan.mods.minefortress.core.utils.ClientModUtils;
@@ -26,11 +26,7 @@ public class S2CAddClientTasksPacket implements FortressS2CPacket {
         this.tasks = new ArrayList<>(size);
         for(int i = 0; i < size; i++) {
             final var id = buf.readUuid();
-            final var positions = new ArrayList<BlockPos>();
-            final int positionsSize = buf.readInt();
-            for(int j = 0; j < positionsSize; j++) {
-                positions.add(buf.readBlockPos());
-            }
+            final var positions = PositionSet.read(buf);
             final var type = buf.readEnumConstant(TaskType.class);
             this.tasks.add(new TaskInformationDto(id, positions, type));
         }
@@ -41,11 +37,7 @@ public class S2CAddClientTasksPacket implements FortressS2CPacket {
         buf.writeVarInt(tasks.size());
         for(TaskInformationDto task: tasks) {
             buf.writeUuid(task.id());
-            final var blockPositions = task.positions();
-            buf.writeInt(blockPositions.size());
-            for(BlockPos pos: blockPositions) {
-                buf.writeBlockPos(pos);
-            }
+            task.positions().write(buf);
             buf.writeEnumConstant(task.type());
         }
     }
@@ -0,0 +1,27 @@
+package net.remmintan.mods.minefortress.networking.s2c
+
+import net.minecraft.client.MinecraftClient
+import net.minecraft.network.PacketByteBuf
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintManifestEntry
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket
+
+/**
+ * Lists all the blueprints available to the player. The client answers with [net.remmintan.mods.minefortress.networking.c2s.C2SRequestBlueprintsPacket]
+ * for the structures it doesn't have cached.
+ */
+class S2CBlueprintsManifestPacket(private val entries: List<BlueprintManifestEntry>) : FortressS2CPacket {
+
+    companion object {
+        const val CHANNEL = "blueprints_manifest"
+    }
+
+    constructor(buf: PacketByteBuf) : this(buf.readList { BlueprintManifestEntry.read(it) })
+
+    override fun write(buf: PacketByteBuf) {
+        buf.writeCollection(entries) { b, it -> it.write(b) }
+    }
+
+    override fun handle(client: MinecraftClient) {
+        managersProvider.get_BlueprintManager().syncManifest(entries)
+    }
+}
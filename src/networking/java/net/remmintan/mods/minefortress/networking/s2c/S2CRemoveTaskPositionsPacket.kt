@@ -0,0 +1,29 @@
+package net.remmintan.mods.minefortress.networking.s2c
+
+import net.minecraft.client.MinecraftClient
+import net.minecraft.network.PacketByteBuf
+import net.remmintan.mods.minefortress.core.dtos.tasks.PositionSet
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket
+import net.remmintan.mods.minefortress.core.utils.ClientModUtils
+import java.util.*
+
+/**
+ * Removes the finished part of the task from the client outline, so the whole task isn't sent again.
+ */
+class S2CRemoveTaskPositionsPacket(private val taskId: UUID, private val positions: PositionSet) : FortressS2CPacket {
+
+    companion object {
+        const val CHANNEL = "remove_task_positions"
+    }
+
+    constructor(buf: PacketByteBuf) : this(buf.readUuid(), PositionSet.read(buf))
+
+    override fun write(buf: PacketByteBuf) {
+        buf.writeUuid(taskId)
+        positions.write(buf)
+    }
+
+    override fun handle(client: MinecraftClient) {
+        ClientModUtils.getClientTasksHolder().ifPresent { it.removeTaskPositions(taskId, positions) }
+    }
+}
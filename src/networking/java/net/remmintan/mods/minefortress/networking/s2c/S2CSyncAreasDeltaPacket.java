@@ -0,0 +1,72 @@
+package net.remmintan.mods.minefortress.networking.s2c;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.PacketByteBuf;
+import net.remmintan.mods.minefortress.core.interfaces.automation.IAutomationAreaInfo;
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket;
+import net.remmintan.mods.minefortress.core.interfaces.networking.INetworkingReader;
+import net.remmintan.mods.minefortress.core.interfaces.tasks.IAreasClientManager;
+import net.remmintan.mods.minefortress.core.utils.ClientModUtils;
+import net.remmintan.mods.minefortress.networking.c2s.C2SRequestAreasSyncPacket;
+import net.remmintan.mods.minefortress.networking.helpers.FortressClientNetworkHelper;
+import net.remmintan.mods.minefortress.networking.registries.NetworkingReadersRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Areas added, changed or removed since the previous areas packet.
+ */
+public class S2CSyncAreasDeltaPacket implements FortressS2CPacket {
+
+    public static final String CHANNEL = "sync_areas_delta";
+
+    private final long sequence;
+    private final List<IAutomationAreaInfo> changedAreas;
+    private final List<UUID> removedIds;
+
+    public S2CSyncAreasDeltaPacket(long sequence, List<IAutomationAreaInfo> changedAreas, List<UUID> removedIds) {
+        this.sequence = sequence;
+        this.changedAreas = Collections.unmodifiableList(changedAreas);
+        this.removedIds = Collections.unmodifiableList(removedIds);
+    }
+
+    public S2CSyncAreasDeltaPacket(PacketByteBuf buf) {
+        sequence = buf.readVarLong();
+        changedAreas = new ArrayList<>();
+        final INetworkingReader<IAutomationAreaInfo> reader = NetworkingReadersRegistry.findReader(IAutomationAreaInfo.class);
+        int size = buf.readVarInt();
+        for(int i = 0; i < size; i++) {
+            changedAreas.add(reader.readBuffer(buf));
+        }
+        removedIds = buf.readList(PacketByteBuf::readUuid);
+    }
+
+    @Override
+    public void write(PacketByteBuf buf) {
+        buf.writeVarLong(sequence);
+        buf.writeVarInt(changedAreas.size());
+        for(IAutomationAreaInfo info: changedAreas) {
+            info.writeToBuffer(buf);
+        }
+        buf.writeCollection(removedIds, PacketByteBuf::writeUuid);
+    }
+
+    @Override
+    public void handle(MinecraftClient client) {
+        client.execute(() -> {
+            final var holder = getAutomationAreaManager().getSavedAreasHolder();
+            final var applied = holder.applyDelta(sequence, changedAreas, removedIds);
+            if (!applied) {
+                FortressClientNetworkHelper.send(C2SRequestAreasSyncPacket.CHANNEL, new C2SRequestAreasSyncPacket());
+            }
+        });
+    }
+
+    private static IAreasClientManager getAutomationAreaManager() {
+        final var provider = ClientModUtils.getManagersProvider();
+        return provider.get_AreasClientManager();
+    }
+}
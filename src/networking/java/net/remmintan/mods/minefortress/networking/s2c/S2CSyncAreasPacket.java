@@ -17,13 +17,16 @@ public class S2CSyncAreasPacket implements FortressS2CPacket {
 
     public static final String CHANNEL = "sync_areas";
 
+    private final long sequence;
     private final List<IAutomationAreaInfo> automationAreaInfos;
 
-    public S2CSyncAreasPacket(List<IAutomationAreaInfo> automationAreaInfos) {
+    public S2CSyncAreasPacket(long sequence, List<IAutomationAreaInfo> automationAreaInfos) {
+        this.sequence = sequence;
         this.automationAreaInfos = Collections.unmodifiableList(automationAreaInfos);
     }
 
     public S2CSyncAreasPacket(PacketByteBuf buf) {
+        sequence = buf.readVarLong();
         automationAreaInfos = new ArrayList<>();
         int size = buf.readVarInt();
         for(int i = 0; i < size; i++) {
@@ -34,6 +37,7 @@ public class S2CSyncAreasPacket implements FortressS2CPacket {
 
     @Override
     public void write(PacketByteBuf buf) {
+        buf.writeVarLong(sequence);
         buf.writeVarInt(automationAreaInfos.size());
         for(IAutomationAreaInfo info: automationAreaInfos) {
             info.writeToBuffer(buf);
@@ -44,7 +48,7 @@ public class S2CSyncAreasPacket implements FortressS2CPacket {
     public void handle(MinecraftClient client) {
         client.execute(() -> {
             final var areasManager = getAutomationAreaManager();
-            areasManager.getSavedAreasHolder().setSavedAreas(automationAreaInfos);
+            areasManager.getSavedAreasHolder().setSavedAreas(sequence, automationAreaInfos);
         });
     }
 
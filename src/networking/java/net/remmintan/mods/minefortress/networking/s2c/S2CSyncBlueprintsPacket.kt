@@ -0,0 +1,24 @@
+package net.remmintan.mods.minefortress.networking.s2c
+
+import net.minecraft.client.MinecraftClient
+import net.minecraft.network.PacketByteBuf
+import net.remmintan.mods.minefortress.core.dtos.buildings.BlueprintSyncEntry
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket
+
+class S2CSyncBlueprintsPacket(private val entries: List<BlueprintSyncEntry>) : FortressS2CPacket {
+
+    companion object {
+        const val CHANNEL = "sync_blueprints"
+    }
+
+    constructor(buf: PacketByteBuf) : this(buf.readList { BlueprintSyncEntry.read(it) })
+
+    override fun write(buf: PacketByteBuf) {
+        buf.writeCollection(entries) { b, it -> it.write(b) }
+    }
+
+    override fun handle(client: MinecraftClient) {
+        val blueprintManager = managersProvider.get_BlueprintManager()
+        entries.forEach { blueprintManager.sync(it.metadata, it.structure, it.hash) }
+    }
+}
@@ -0,0 +1,42 @@
+package net.remmintan.mods.minefortress.networking.s2c
+
+import net.minecraft.client.MinecraftClient
+import net.minecraft.network.PacketByteBuf
+import net.minecraft.util.math.BlockPos
+import net.remmintan.mods.minefortress.core.dtos.professions.HireProgressInfo
+import net.remmintan.mods.minefortress.core.interfaces.buildings.IFortressBuilding
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket
+import java.util.*
+
+/**
+ * Carries only the mutable part of a building. The blueprint itself is sent once with the block entity data.
+ * Null fields didn't change since the previous sync.
+ */
+class S2CSyncBuildingState(
+    private val pos: BlockPos,
+    private val destroyedBlocks: BitSet?,
+    private val hireProgresses: List<HireProgressInfo>?
+) : FortressS2CPacket {
+
+    companion object {
+        const val CHANNEL = "sync_building_state"
+    }
+
+    constructor(buf: PacketByteBuf) : this(
+        buf.readBlockPos(),
+        if (buf.readBoolean()) buf.readBitSet() else null,
+        if (buf.readBoolean()) buf.readList { HireProgressInfo.read(it) } else null
+    )
+
+    override fun write(buf: PacketByteBuf) {
+        buf.writeBlockPos(pos)
+        buf.writeBoolean(destroyedBlocks != null)
+        destroyedBlocks?.let { buf.writeBitSet(it) }
+        buf.writeBoolean(hireProgresses != null)
+        hireProgresses?.let { progresses -> buf.writeCollection(progresses) { b, it -> it.write(b) } }
+    }
+
+    override fun handle(client: MinecraftClient) {
+        (client.world?.getBlockEntity(pos) as? IFortressBuilding)?.updateSyncedState(destroyedBlocks, hireProgresses)
+    }
+}
@@ -0,0 +1,49 @@
+package net.remmintan.mods.minefortress.networking.s2c;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.PacketByteBuf;
+import net.remmintan.mods.minefortress.core.dtos.CraftableRecipes;
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket;
+import net.remmintan.mods.minefortress.core.interfaces.resources.ICraftableRecipesHandler;
+
+import java.util.BitSet;
+
+/**
+ * Recipes of the opened fortress crafting or furnace screen which can be made from the fortress items.
+ */
+public class S2CSyncCraftableRecipesPacket implements FortressS2CPacket {
+
+    public static final String CHANNEL = "sync_craftable_recipes";
+
+    private final int syncId;
+    private final CraftableRecipes craftableRecipes;
+
+    public S2CSyncCraftableRecipesPacket(int syncId, CraftableRecipes craftableRecipes) {
+        this.syncId = syncId;
+        this.craftableRecipes = craftableRecipes;
+    }
+
+    public S2CSyncCraftableRecipesPacket(PacketByteBuf buf) {
+        this.syncId = buf.readVarInt();
+        final var recipesCount = buf.readVarInt();
+        this.craftableRecipes = new CraftableRecipes(recipesCount, BitSet.valueOf(buf.readLongArray()));
+    }
+
+    @Override
+    public void write(PacketByteBuf buf) {
+        buf.writeVarInt(syncId);
+        buf.writeVarInt(craftableRecipes.recipesCount());
+        buf.writeLongArray(craftableRecipes.craftable().toLongArray());
+    }
+
+    @Override
+    public void handle(MinecraftClient client) {
+        client.execute(() -> {
+            final var player = client.player;
+            if (player == null || player.currentScreenHandler.syncId != syncId) return;
+            if (player.currentScreenHandler instanceof ICraftableRecipesHandler handler) {
+                handler.setCraftableRecipes(craftableRecipes);
+            }
+        });
+    }
+}
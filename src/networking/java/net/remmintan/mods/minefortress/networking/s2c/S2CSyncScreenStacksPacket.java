@@ -0,0 +1,52 @@
+package net.remmintan.mods.minefortress.networking.s2c;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketByteBuf;
+import net.remmintan.mods.minefortress.core.interfaces.networking.FortressS2CPacket;
+import net.remmintan.mods.minefortress.core.interfaces.resources.IScrollableHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Changed items of the opened fortress crafting or furnace screen by their index in the whole items list.
+ */
+public class S2CSyncScreenStacksPacket implements FortressS2CPacket {
+
+    public static final String CHANNEL = "sync_screen_stacks";
+
+    private final int syncId;
+    private final boolean reset;
+    private final Map<Integer, ItemStack> stacks;
+
+    public S2CSyncScreenStacksPacket(int syncId, boolean reset, Map<Integer, ItemStack> stacks) {
+        this.syncId = syncId;
+        this.reset = reset;
+        this.stacks = stacks;
+    }
+
+    public S2CSyncScreenStacksPacket(PacketByteBuf buf) {
+        this.syncId = buf.readVarInt();
+        this.reset = buf.readBoolean();
+        this.stacks = buf.readMap(HashMap::new, PacketByteBuf::readVarInt, PacketByteBuf::readItemStack);
+    }
+
+    @Override
+    public void write(PacketByteBuf buf) {
+        buf.writeVarInt(syncId);
+        buf.writeBoolean(reset);
+        buf.writeMap(stacks, PacketByteBuf::writeVarInt, PacketByteBuf::writeItemStack);
+    }
+
+    @Override
+    public void handle(MinecraftClient client) {
+        client.execute(() -> {
+            final var player = client.player;
+            if (player == null || player.currentScreenHandler.syncId != syncId) return;
+            if (player.currentScreenHandler instanceof IScrollableHandler handler) {
+                handler.updateStoredStacks(reset, stacks);
+            }
+        });
+    }
+}
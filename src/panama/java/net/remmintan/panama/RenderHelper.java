@@ -1,27 +1,71 @@
 package net.remmintan.panama;
 
-import net.minecraft.client.MinecraftClient;
+import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.gl.VertexBuffer;
 import net.minecraft.client.render.BufferBuilder;
 
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class RenderHelper {
 
+    // at least one buffer is uploaded every frame, even if it is bigger than the budget
+    private static final long UPLOAD_BUDGET_PER_FRAME = 4L * 1024 * 1024;
+
+    private static final Queue<ScheduledUpload> scheduledUploads = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queues the upload, it happens during one of the next frames in {@link #uploadScheduledBuffers()}.
+     * Can be called from any thread.
+     */
     public static CompletableFuture<Void> scheduleUpload(
             BufferBuilder.BuiltBuffer builtBuffer,
             VertexBuffer vertexBuffer
     ) {
-        Runnable runnable = () -> {
-            if (!vertexBuffer.isClosed()) {
-                vertexBuffer.bind();
-                vertexBuffer.upload(builtBuffer);
-                VertexBuffer.unbind();
+        final var upload = new ScheduledUpload(builtBuffer, vertexBuffer, new CompletableFuture<>());
+        scheduledUploads.add(upload);
+        return upload.future();
+    }
+
+    /**
+     * Uploads the scheduled buffers until the per frame budget is spent. Should be called once per frame.
+     */
+    public static void uploadScheduledBuffers() {
+        RenderSystem.assertOnRenderThread();
+
+        long uploadedBytes = 0;
+        ScheduledUpload upload;
+        while (uploadedBytes < UPLOAD_BUDGET_PER_FRAME && (upload = scheduledUploads.poll()) != null) {
+            uploadedBytes += getSize(upload.builtBuffer());
+            try {
+                upload.run();
+                upload.future().complete(null);
+            } catch (RuntimeException e) {
+                upload.future().completeExceptionally(e);
             }
-        };
-        return CompletableFuture.runAsync(runnable, MinecraftClient.getInstance());
+        }
     }
 
+    public static long getSize(BufferBuilder.BuiltBuffer builtBuffer) {
+        final var parameters = builtBuffer.getParameters();
+        return (long) parameters.vertexCount() * parameters.format().getVertexSizeByte();
+    }
 
+    private record ScheduledUpload(
+            BufferBuilder.BuiltBuffer builtBuffer,
+            VertexBuffer vertexBuffer,
+            CompletableFuture<Void> future
+    ) {
+        private void run() {
+            if (vertexBuffer.isClosed()) {
+                builtBuffer.release();
+                return;
+            }
+            vertexBuffer.bind();
+            vertexBuffer.upload(builtBuffer);
+            VertexBuffer.unbind();
+        }
+    }
 
 }
@@ -1,5 +1,6 @@
 package net.remmintan.panama.model;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.block.BlockRenderType;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
@@ -12,6 +13,7 @@ import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
+import net.minecraft.util.math.random.Random;
 import net.minecraft.world.BlockRenderView;
 import net.minecraft.world.biome.ColorResolver;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer;
@@ -23,81 +25,123 @@ import org.jetbrains.annotations.NotNull;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
+/**
+ * The blueprint mesh split into 16x16x16 sections, every section has its own buffer per render layer.
+ * The mesh is built with {@link #build(BlockBufferBuilderStorage)} on a worker thread, the buffers are created
+ * and uploaded on the render thread afterwards. Until then the blueprint has no layers to render.
+ */
 public class BuiltBlueprint implements BuiltModel {
 
-    private final Set<RenderLayer> initializedLayers = new HashSet<>();
-    private final Set<RenderLayer> nonEmptyLayers = new HashSet<>();
-    private final Map<RenderLayer, VertexBuffer> vertexBuffers = RenderLayer
-            .getBlockLayers()
-            .stream()
-            .collect(Collectors.toMap(Function.identity(), it -> new VertexBuffer(VertexBuffer.Usage.STATIC)));
-    private final Map<RenderLayer, BufferBuilder.BuiltBuffer> builtBuffers = new HashMap<>();
+    private static final int SECTION_SIZE = 16;
 
+    private final Map<RenderLayer, List<VertexBuffer>> vertexBuffers = new HashMap<>();
 
-    private CompletableFuture<Void> uploadsFuture;
     private final BlockRenderView blueprintData;
     private final Vec3i size;
 
+    private CompletableFuture<Void> uploadsFuture;
+    private long estimatedSize = 0;
+    private boolean closed = false;
+
     public BuiltBlueprint(IStructureBlockData blockData, BiFunction<BlockState, ColorResolver, Integer> colorProvider) {
         if(blockData == null) throw new IllegalArgumentException("Block data cannot be null");
         if(!blockData.hasLayer(BlueprintDataLayer.GENERAL)) throw new IllegalArgumentException("Block data must have a general layer");
-        this.blueprintData = new BlueprintBlockRenderView(blockData.getLayer(BlueprintDataLayer.GENERAL), colorProvider);
         this.size = blockData.getSize();
+        this.blueprintData = new BlueprintBlockRenderView(blockData, size.getY(), colorProvider);
     }
 
-    public void build(BlockBufferBuilderStorage blockBufferBuilders) {
-        render(blockBufferBuilders);
-        uploadBuffers();
+    /**
+     * Meshes all the sections with the given builders and schedules the uploads. The builders can't be reused
+     * until the returned future is completed, the built buffers point to their memory.
+     */
+    public CompletableFuture<Void> build(BlockBufferBuilderStorage blockBufferBuilders) {
+        final var sections = render(blockBufferBuilders);
+        return CompletableFuture
+                .supplyAsync(() -> uploadBuffers(sections), MinecraftClient.getInstance())
+                .thenCompose(it -> it);
     }
 
     public boolean buffersUploaded() {
-        return uploadsFuture.isDone();
+        return uploadsFuture != null && uploadsFuture.isDone();
     }
 
     @Override
-    public VertexBuffer getBuffer(RenderLayer layer) {
-        return vertexBuffers.get(layer);
+    public List<VertexBuffer> getBuffers(RenderLayer layer) {
+        return vertexBuffers.getOrDefault(layer, Collections.emptyList());
     }
 
     @Override
     public void close() {
-        this.vertexBuffers.values().forEach(VertexBuffer::close);
+        RenderSystem.assertOnRenderThread();
+        this.closed = true;
+        this.vertexBuffers.values().forEach(it -> it.forEach(VertexBuffer::close));
     }
 
     @Override
     public boolean hasLayer(RenderLayer layer) {
-        return this.buffersUploaded() && nonEmptyLayers.contains(layer);
+        return this.buffersUploaded() && vertexBuffers.containsKey(layer);
     }
 
     public Vec3i getSize() {
         return size;
     }
 
-    private void uploadBuffers() {
-        final var uploadFutures = initializedLayers
-                .stream()
-                .map(layer -> {
-                    final var bufferBuilder = builtBuffers.get(layer);
-                    final var vertexBuffer = vertexBuffers.get(layer);
+    /**
+     * @return the size of the uploaded vertex data in bytes, 0 until the mesh is built
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
 
-                    return RenderHelper.scheduleUpload(bufferBuilder, vertexBuffer);
-                })
-                .toArray(CompletableFuture[]::new);
+    private CompletableFuture<Void> uploadBuffers(List<Map<RenderLayer, BufferBuilder.BuiltBuffer>> sections) {
+        if (closed) {
+            sections.forEach(it -> it.values().forEach(BufferBuilder.BuiltBuffer::release));
+            return CompletableFuture.completedFuture(null);
+        }
 
-        uploadsFuture = CompletableFuture.allOf(uploadFutures);
+        final var uploadFutures = new ArrayList<CompletableFuture<Void>>();
+        for (Map<RenderLayer, BufferBuilder.BuiltBuffer> section : sections) {
+            section.forEach((layer, builtBuffer) -> {
+                final var vertexBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+                vertexBuffers.computeIfAbsent(layer, it -> new ArrayList<>()).add(vertexBuffer);
+                estimatedSize += RenderHelper.getSize(builtBuffer);
+                uploadFutures.add(RenderHelper.scheduleUpload(builtBuffer, vertexBuffer));
+            });
+        }
+
+        uploadsFuture = CompletableFuture.allOf(uploadFutures.toArray(CompletableFuture[]::new));
+        return uploadsFuture;
     }
 
+    private List<Map<RenderLayer, BufferBuilder.BuiltBuffer>> render(BlockBufferBuilderStorage blockBufferBuilders) {
+        final var sections = new ArrayList<Map<RenderLayer, BufferBuilder.BuiltBuffer>>();
+        final var random = Random.create();
 
-    private void render(BlockBufferBuilderStorage blockBufferBuilders) {
-        BlockPos minPos = BlockPos.ORIGIN;
-        BlockPos maxPos = minPos.add(15, 15,15);
+        BlockModelRenderer.enableBrightnessCache();
+        for (int sectionY = 0; sectionY < size.getY(); sectionY += SECTION_SIZE) {
+            for (int sectionZ = 0; sectionZ < size.getZ(); sectionZ += SECTION_SIZE) {
+                for (int sectionX = 0; sectionX < size.getX(); sectionX += SECTION_SIZE) {
+                    final var minPos = new BlockPos(sectionX, sectionY, sectionZ);
+                    final var maxPos = new BlockPos(
+                            Math.min(sectionX + SECTION_SIZE, size.getX()) - 1,
+                            Math.min(sectionY + SECTION_SIZE, size.getY()) - 1,
+                            Math.min(sectionZ + SECTION_SIZE, size.getZ()) - 1
+                    );
+                    final var section = renderSection(minPos, maxPos, blockBufferBuilders, random);
+                    if (!section.isEmpty())
+                        sections.add(section);
+                }
+            }
+        }
+        BlockModelRenderer.disableBrightnessCache();
 
-        MatrixStack matrixStack = new MatrixStack();
+        return sections;
+    }
 
-        BlockModelRenderer.enableBrightnessCache();
+    private Map<RenderLayer, BufferBuilder.BuiltBuffer> renderSection(BlockPos minPos, BlockPos maxPos, BlockBufferBuilderStorage blockBufferBuilders, Random random) {
+        final Set<RenderLayer> initializedLayers = new HashSet<>();
+        final MatrixStack matrixStack = new MatrixStack();
         final BlockRenderManager blockRenderManager = getClient().getBlockRenderManager();
 
         for(BlockPos pos : BlockPos.iterate(minPos, maxPos)) {
@@ -107,7 +151,7 @@ public class BuiltBlueprint implements BuiltModel {
             if(!fluidState.isEmpty()) {
                 final RenderLayer fluidRenderLayer = RenderLayers.getFluidLayer(fluidState);
                 final BufferBuilder bufferBuilder = blockBufferBuilders.get(fluidRenderLayer);
-                initLayer(fluidRenderLayer, bufferBuilder);
+                initLayer(initializedLayers, fluidRenderLayer, bufferBuilder);
 
                 blockRenderManager.renderFluid(pos, blueprintData, bufferBuilder, blockState, fluidState);
             }
@@ -116,38 +160,37 @@ public class BuiltBlueprint implements BuiltModel {
 
             final RenderLayer blockLayer = RenderLayers.getBlockLayer(blockState);
             final BufferBuilder bufferBuilder = blockBufferBuilders.get(blockLayer);
-            initLayer(blockLayer, bufferBuilder);
+            initLayer(initializedLayers, blockLayer, bufferBuilder);
 
+            // the vertices are in the blueprint space, so all the sections are drawn with the same offset
             matrixStack.push();
-            matrixStack.translate(pos.getX() & 0xF, pos.getY() & 0xF, pos.getZ() & 0xF);
-
-            final var clientWorld = getClient().world;
-            if(clientWorld != null) {
-                blockRenderManager.renderBlock(blockState, pos, blueprintData, matrixStack, bufferBuilder,  true, clientWorld.random);
-            }
-            nonEmptyLayers.add(blockLayer);
+            matrixStack.translate(pos.getX(), pos.getY(), pos.getZ());
+            blockRenderManager.renderBlock(blockState, pos, blueprintData, matrixStack, bufferBuilder, true, random);
             matrixStack.pop();
         }
 
+        final Map<RenderLayer, BufferBuilder.BuiltBuffer> builtBuffers = new HashMap<>();
         for (RenderLayer layer : initializedLayers) {
-            builtBuffers.put(layer, blockBufferBuilders.get(layer).end());
+            final var builtBuffer = blockBufferBuilders.get(layer).end();
+            if (builtBuffer.getParameters().vertexCount() > 0)
+                builtBuffers.put(layer, builtBuffer);
+            else
+                builtBuffer.release();
         }
-
-        BlockModelRenderer.disableBrightnessCache();
+        return builtBuffers;
     }
 
-    private void initLayer(RenderLayer renderLayer, BufferBuilder bufferBuilder) {
+    private static void initLayer(Set<RenderLayer> initializedLayers, RenderLayer renderLayer, BufferBuilder bufferBuilder) {
         if(initializedLayers.add(renderLayer))
             beginBufferBuilding(bufferBuilder);
     }
 
-
     @NotNull
-    private MinecraftClient getClient() {
+    private static MinecraftClient getClient() {
         return MinecraftClient.getInstance();
     }
 
-    private void beginBufferBuilding(BufferBuilder buffer) {
+    private static void beginBufferBuilding(BufferBuilder buffer) {
         buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR_TEXTURE_LIGHT_NORMAL);
     }
 
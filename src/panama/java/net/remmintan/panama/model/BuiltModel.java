@@ -3,10 +3,16 @@ package net.remmintan.panama.model;
 import net.minecraft.client.gl.VertexBuffer;
 import net.minecraft.client.render.RenderLayer;
 
+import java.util.List;
+
 public interface BuiltModel {
 
     boolean hasLayer(RenderLayer layer);
-    VertexBuffer getBuffer(RenderLayer layer);
+
+    /**
+     * @return all the buffers to draw for the layer, models split into sections have one buffer per section
+     */
+    List<VertexBuffer> getBuffers(RenderLayer layer);
     void close();
 
 }
@@ -186,8 +186,9 @@ public class BuiltSelection implements BuiltModel {
     }
 
     @Override
-    public VertexBuffer getBuffer(RenderLayer layer) {
-        return vertexBuffers.get(layer);
+    public List<VertexBuffer> getBuffers(RenderLayer layer) {
+        final var buffer = vertexBuffers.get(layer);
+        return buffer == null ? Collections.emptyList() : List.of(buffer);
     }
 
     @Override
@@ -1,99 +1,197 @@
 package net.remmintan.panama.model;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gl.VertexBuffer;
 import net.minecraft.client.render.*;
-import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Box;
-import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.World;
+import net.minecraft.util.math.Direction;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.IClientTask;
 import org.joml.Vector4f;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiFunction;
 
 import static net.remmintan.panama.RenderHelper.scheduleUpload;
 
+/**
+ * Outlines of the client tasks. Every task has its own buffer, so adding or removing a task doesn't rebuild the others.
+ * The outline of a task is drawn around the whole group of its blocks: the edges between the neighbouring blocks
+ * are skipped and the collinear edges are merged into one line.
+ */
 public class BuiltTasks implements BuiltModel {
-    private static final Box BOX = Box.from(new Vec3d(0, 0, 0));
 
-    private final VertexBuffer buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
-    private final Set<IClientTask> tasks;
-    private BufferBuilder.BuiltBuffer builtBuffer;
-
-    private boolean initialized = false;
-    private boolean notEmpty = false;
-
-    private CompletableFuture<Void> upload;
-
-    public BuiltTasks(Set<IClientTask> tasks) {
-        this.tasks = new HashSet<>(tasks);
-    }
+    private static final Direction.Axis[] AXES = Direction.Axis.values();
+
+    private final Map<UUID, TaskMesh> meshes = new HashMap<>();
+
+    /**
+     * Builds the meshes of the new tasks and closes the meshes of the removed ones, the rest are kept as they are.
+     * The forced update rebuilds all the meshes, the blocks they were built with may have changed in the world.
+     */
+    public void update(Map<UUID, IClientTask> tasks, BufferBuilder bufferBuilder, boolean force) {
+        final var iterator = meshes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
+            if (force || tasks.get(entry.getKey()) != entry.getValue().task) {
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
 
-    public void build(BufferBuilder bufferBuilder) {
-        this.render(bufferBuilder);
-        this.upload();
+        tasks.forEach((id, task) -> {
+            if (!meshes.containsKey(id)) {
+                final var mesh = new TaskMesh(task);
+                mesh.build(bufferBuilder);
+                meshes.put(id, mesh);
+            }
+        });
     }
 
     @Override
     public boolean hasLayer(RenderLayer layer) {
-        return this.upload!=null && this.upload.isDone() && layer == RenderLayer.getLines() && notEmpty;
+        if (layer != RenderLayer.getLines()) return false;
+        for (TaskMesh mesh : meshes.values()) {
+            if (mesh.isReady()) return true;
+        }
+        return false;
     }
 
     @Override
-    public VertexBuffer getBuffer(RenderLayer layer) {
+    public List<VertexBuffer> getBuffers(RenderLayer layer) {
         if(layer != RenderLayer.getLines()) throw new IllegalArgumentException("Only lines are supported");
-        return buffer;
+        final var buffers = new ArrayList<VertexBuffer>(meshes.size());
+        for (TaskMesh mesh : meshes.values()) {
+            if (mesh.isReady()) buffers.add(mesh.buffer);
+        }
+        return buffers;
     }
 
     @Override
     public void close() {
-        buffer.close();
+        meshes.values().forEach(TaskMesh::close);
+        meshes.clear();
     }
 
-    private void render(BufferBuilder bufferBuilder) {
-        final MatrixStack matrices = new MatrixStack();
+    private static ClientWorld getWorld() {
+        return MinecraftClient.getInstance().world;
+    }
 
-        for(IClientTask selection: tasks)
-            renderBlock(bufferBuilder, matrices, selection::shouldRenderBlock, selection, selection.getColor());
+    private static final class TaskMesh {
+        private final IClientTask task;
+        private final VertexBuffer buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+        private CompletableFuture<Void> upload;
+        private boolean notEmpty = false;
 
-        if(initialized) {
-            builtBuffer = bufferBuilder.end();
+        private TaskMesh(IClientTask task) {
+            this.task = task;
         }
-    }
 
-    private void renderBlock(BufferBuilder bufferBuilder, MatrixStack matrices, BiFunction<World, BlockPos, Boolean> shouldRender, IClientTask selection, Vector4f color) {
-        init(bufferBuilder);
-        final var positions = selection.getBlockPositions();
-        for(BlockPos pos: positions) {
-            if(!shouldRender.apply(getWorld(), pos)) continue;
-            matrices.push();
-            matrices.translate(pos.getX(), pos.getY(), pos.getZ());
-            WorldRenderer.drawBox(matrices, bufferBuilder, BOX, color.x(), color.y(), color.z(), color.w());
-            matrices.pop();
+        private boolean isReady() {
+            return notEmpty && upload != null && upload.isDone();
+        }
+
+        private void build(BufferBuilder bufferBuilder) {
+            final var world = getWorld();
+            final LongSet blocks = new LongOpenHashSet();
+            for (BlockPos pos : task.getBlockPositions()) {
+                if (task.shouldRenderBlock(world, pos))
+                    blocks.add(pos.asLong());
+            }
+            if (blocks.isEmpty()) return;
+
+            bufferBuilder.begin(VertexFormat.DrawMode.LINES, VertexFormats.LINES);
+            for (Direction.Axis axis : AXES) {
+                renderEdges(bufferBuilder, findOutlineEdges(blocks, axis), axis, task.getColor());
+            }
             notEmpty = true;
+            upload = scheduleUpload(bufferBuilder.end(), buffer);
+        }
+
+        private void close() {
+            buffer.close();
         }
     }
 
-    private void init(BufferBuilder bufferBuilder) {
-        if(!initialized) {
-            this.initialized = true;
-            bufferBuilder.begin(VertexFormat.DrawMode.LINES, VertexFormats.LINES);
+    /**
+     * Finds the unit edges along the axis which are a part of the outline. Every edge is touched by four blocks
+     * around it, the edge is skipped if none or all of them are in the task or if they form a flat face.
+     *
+     * @return the lower ends of the edges
+     */
+    private static LongSet findOutlineEdges(LongSet blocks, Direction.Axis axis) {
+        final var u = Direction.from(getOtherAxis(axis, 1), Direction.AxisDirection.POSITIVE);
+        final var v = Direction.from(getOtherAxis(axis, 2), Direction.AxisDirection.POSITIVE);
+
+        final LongSet edges = new LongOpenHashSet();
+        final var blocksIterator = blocks.iterator();
+        while (blocksIterator.hasNext()) {
+            final long block = blocksIterator.nextLong();
+            final long[] blockEdges = {
+                    block,
+                    BlockPos.offset(block, u),
+                    BlockPos.offset(block, v),
+                    BlockPos.offset(BlockPos.offset(block, u), v)
+            };
+            for (long edge : blockEdges) {
+                if (!edges.contains(edge) && isOutlineEdge(blocks, edge, u, v))
+                    edges.add(edge);
+            }
         }
+        return edges;
     }
 
-    private void upload(){
-        if(initialized) {
-            this.upload = scheduleUpload(builtBuffer, buffer);
+    private static boolean isOutlineEdge(LongSet blocks, long edge, Direction u, Direction v) {
+        final long belowU = BlockPos.offset(edge, u.getOpposite());
+        final var c00 = blocks.contains(BlockPos.offset(belowU, v.getOpposite()));
+        final var c10 = blocks.contains(BlockPos.offset(edge, v.getOpposite()));
+        final var c01 = blocks.contains(belowU);
+        final var c11 = blocks.contains(edge);
+
+        final int count = (c00 ? 1 : 0) + (c10 ? 1 : 0) + (c01 ? 1 : 0) + (c11 ? 1 : 0);
+        if (count == 1 || count == 3) return true;
+        // two blocks touching only by this edge
+        return count == 2 && c00 == c11;
+    }
+
+    /**
+     * Merges the consecutive unit edges into one line and writes the lines into the buffer.
+     */
+    private static void renderEdges(BufferBuilder bufferBuilder, LongSet edges, Direction.Axis axis, Vector4f color) {
+        final var direction = Direction.from(axis, Direction.AxisDirection.POSITIVE);
+        final var normalX = direction.getOffsetX();
+        final var normalY = direction.getOffsetY();
+        final var normalZ = direction.getOffsetZ();
+
+        final var edgesIterator = edges.iterator();
+        while (edgesIterator.hasNext()) {
+            final long start = edgesIterator.nextLong();
+            if (edges.contains(BlockPos.offset(start, direction.getOpposite()))) continue;
+
+            int length = 1;
+            long end = BlockPos.offset(start, direction);
+            while (edges.contains(end)) {
+                length++;
+                end = BlockPos.offset(end, direction);
+            }
+
+            final int x = BlockPos.unpackLongX(start);
+            final int y = BlockPos.unpackLongY(start);
+            final int z = BlockPos.unpackLongZ(start);
+            bufferBuilder.vertex(x, y, z)
+                    .color(color.x(), color.y(), color.z(), color.w())
+                    .normal(normalX, normalY, normalZ)
+                    .next();
+            bufferBuilder.vertex(x + normalX * length, y + normalY * length, z + normalZ * length)
+                    .color(color.x(), color.y(), color.z(), color.w())
+                    .normal(normalX, normalY, normalZ)
+                    .next();
         }
     }
 
-    private ClientWorld getWorld() {
-        return MinecraftClient.getInstance().world;
+    private static Direction.Axis getOtherAxis(Direction.Axis axis, int shift) {
+        return AXES[(axis.ordinal() + shift) % AXES.length];
     }
 }
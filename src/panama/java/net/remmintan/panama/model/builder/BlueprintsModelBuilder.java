@@ -6,48 +6,99 @@ import net.minecraft.client.render.chunk.BlockBufferBuilderStorage;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.math.BlockPos;
+import net.remmintan.mods.minefortress.core.ModLogger;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IBlockDataProvider;
 import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData;
 import net.remmintan.panama.model.BuiltBlueprint;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 public class BlueprintsModelBuilder {
 
-    private final BlockBufferBuilderStorage blockBufferBuilders;
+    // estimated size of the uploaded meshes, the least recently used ones are closed above it
+    private static final long MAX_CACHED_BYTES = 96L * 1024 * 1024;
+    // meshes used during the last second are never evicted, otherwise the visible blueprints would be rebuilt every frame
+    private static final long EVICTION_GRACE_NANOS = 1_000_000_000L;
+    private static final int MESHING_THREADS = 2;
+
+    private static final ExecutorService meshingExecutor;
+    // every worker meshes into its own builders, the vanilla ones are used by the render thread
+    private static final ThreadLocal<BlockBufferBuilderStorage> workerBufferBuilders = ThreadLocal.withInitial(BlockBufferBuilderStorage::new);
+
+    static {
+        final var threadIncrementor = new AtomicInteger(0);
+        meshingExecutor = Executors.newFixedThreadPool(MESHING_THREADS, r -> {
+            final var thread = new Thread(r, "MineFortress Blueprint Mesher " + threadIncrementor.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private final Supplier<IBlockDataProvider> blockDataManagerSupplier;
 
-    private final Map<String, BuiltBlueprint> builtBlueprints = new HashMap<>();
+    // access ordered, the eldest entry is the least recently used one
+    private final Map<String, CachedBlueprint> builtBlueprints = new LinkedHashMap<>(16, 0.75f, true);
     private final HashSet<BuiltBlueprint> blueprintsToClose = new HashSet<>();
 
-    public BlueprintsModelBuilder(BlockBufferBuilderStorage blockBufferBuilders,
-                                  Supplier<IBlockDataProvider> blockDataProviderSupplier) {
-        this.blockBufferBuilders = blockBufferBuilders;
+    public BlueprintsModelBuilder(Supplier<IBlockDataProvider> blockDataProviderSupplier) {
         this.blockDataManagerSupplier = blockDataProviderSupplier;
     }
 
+    /**
+     * Returns the blueprint model, scheduling the meshing if the model isn't built yet. The returned model has no
+     * layers until its buffers are uploaded.
+     */
     public BuiltBlueprint getOrBuildBlueprint(String fileName, BlockRotation rotation) {
-        buildBlueprint(fileName, rotation);
-
-        return this.builtBlueprints.get(getKey(fileName, rotation));
-    }
-
-    private void buildBlueprint(String fileName, BlockRotation rotation) {
         for(BuiltBlueprint blueprint : this.blueprintsToClose) {
             blueprint.close();
         }
         this.blueprintsToClose.clear();
 
-        String key = getKey(fileName, rotation);
-        if(!this.builtBlueprints.containsKey(key)) {
+        final String key = getKey(fileName, rotation);
+        var cachedBlueprint = this.builtBlueprints.get(key);
+        if(cachedBlueprint == null) {
             final IStructureBlockData blockData = this.blockDataManagerSupplier.get().getBlockData(fileName, rotation);
             final BuiltBlueprint builtBlueprint = new BuiltBlueprint(blockData, (p, c) -> getWorld().getColor(getBlockPos(), c));
-            builtBlueprint.build(this.blockBufferBuilders);
-            this.builtBlueprints.put(key, builtBlueprint);
+            meshingExecutor.execute(() -> {
+                try {
+                    builtBlueprint.build(workerBufferBuilders.get()).join();
+                } catch (RuntimeException e) {
+                    // the builders may be left in the middle of building, the worker starts with the new ones
+                    workerBufferBuilders.remove();
+                    ModLogger.LOGGER.error("Failed to build blueprint model {}", key, e);
+                }
+            });
+
+            cachedBlueprint = new CachedBlueprint(builtBlueprint);
+            this.builtBlueprints.put(key, cachedBlueprint);
+            evictLeastRecentlyUsed();
+        }
+
+        cachedBlueprint.lastUsed = System.nanoTime();
+        return cachedBlueprint.blueprint;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        long cachedBytes = 0;
+        for (CachedBlueprint cachedBlueprint : builtBlueprints.values())
+            cachedBytes += cachedBlueprint.blueprint.getEstimatedSize();
+
+        final var now = System.nanoTime();
+        final var iterator = builtBlueprints.values().iterator();
+        while (cachedBytes > MAX_CACHED_BYTES && iterator.hasNext()) {
+            final var eldest = iterator.next();
+            if (now - eldest.lastUsed < EVICTION_GRACE_NANOS) break;
+
+            cachedBytes -= eldest.blueprint.getEstimatedSize();
+            this.blueprintsToClose.add(eldest.blueprint);
+            iterator.remove();
         }
     }
 
@@ -61,16 +112,16 @@ public class BlueprintsModelBuilder {
                 .stream()
                 .filter(e -> e.getKey().startsWith(fileName))
                 .toList();
-        for(Map.Entry<String, BuiltBlueprint> entry : toRemove) {
+        for(Map.Entry<String, CachedBlueprint> entry : toRemove) {
             String key = entry.getKey();
-            BuiltBlueprint blueprint = entry.getValue();
+            BuiltBlueprint blueprint = entry.getValue().blueprint;
             this.blueprintsToClose.add(blueprint);
             this.builtBlueprints.remove(key);
         }
     }
 
     public void reset() {
-        this.blueprintsToClose.addAll(this.builtBlueprints.values());
+        this.builtBlueprints.values().forEach(it -> this.blueprintsToClose.add(it.blueprint));
         this.builtBlueprints.clear();
     }
 
@@ -86,4 +137,13 @@ public class BlueprintsModelBuilder {
         return getPlayer()!=null? getPlayer().getBlockPos():getWorld().getSpawnPos();
     }
 
+    private static final class CachedBlueprint {
+        private final BuiltBlueprint blueprint;
+        private long lastUsed;
+
+        private CachedBlueprint(BuiltBlueprint blueprint) {
+            this.blueprint = blueprint;
+        }
+    }
+
 }
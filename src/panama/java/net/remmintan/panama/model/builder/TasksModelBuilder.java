@@ -1,11 +1,9 @@
 package net.remmintan.panama.model.builder;
 
 import net.minecraft.client.render.BufferBuilder;
-import net.remmintan.mods.minefortress.core.interfaces.tasks.IClientTask;
 import net.remmintan.mods.minefortress.core.interfaces.tasks.ITasksModelBuilderInfoProvider;
 import net.remmintan.panama.model.BuiltTasks;
 
-import java.util.Set;
 import java.util.function.Supplier;
 
 public class TasksModelBuilder {
@@ -14,6 +12,7 @@ public class TasksModelBuilder {
     private final Supplier<ITasksModelBuilderInfoProvider> tasksHolderSupplier;
 
     private BuiltTasks builtTasks;
+    private ITasksModelBuilderInfoProvider builtTasksHolder;
 
     public TasksModelBuilder(BufferBuilder bufferBuilder, Supplier<ITasksModelBuilderInfoProvider> tasksHolderSupplier) {
         this.bufferBuilder = bufferBuilder;
@@ -24,14 +23,20 @@ public class TasksModelBuilder {
         final ITasksModelBuilderInfoProvider tasksHolder = getTasksHolder();
 
         if(!tasksHolder.isNeedRebuild()) return;
+        final var fullRebuild = tasksHolder.isNeedFullRebuild();
         tasksHolder.setNeedRebuild(false);
 
-        if(this.builtTasks != null)
+        // the tasks of different holders don't have anything in common
+        if(this.builtTasks != null && this.builtTasksHolder != tasksHolder) {
             builtTasks.close();
-
-        final Set<IClientTask> allBuildTasks = tasksHolder.getAllSelections();
-        builtTasks = new BuiltTasks(allBuildTasks);
-        builtTasks.build(bufferBuilder);
+            builtTasks = null;
+        }
+        if(this.builtTasks == null) {
+            builtTasks = new BuiltTasks();
+            builtTasksHolder = tasksHolder;
+        }
+
+        builtTasks.update(tasksHolder.getAllSelections(), bufferBuilder, fullRebuild);
     }
 
     public BuiltTasks getBuiltTasks() {
@@ -105,9 +105,10 @@ public abstract class AbstractCustomRenderer {
                 offset.upload();
             }
 
-            final VertexBuffer buffer = builtModel.getBuffer(layer);
-            buffer.bind();
-            buffer.draw();
+            for (VertexBuffer buffer : builtModel.getBuffers(layer)) {
+                buffer.bind();
+                buffer.draw();
+            }
         }
 
         if(offset != null) {
@@ -7,7 +7,6 @@ import net.minecraft.client.gl.ShaderProgram;
 import net.minecraft.client.gl.VertexBuffer;
 import net.minecraft.client.render.DiffuseLighting;
 import net.minecraft.client.render.RenderLayer;
-import net.minecraft.client.render.chunk.BlockBufferBuilderStorage;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.BlockRotation;
 import net.minecraft.util.math.BlockPos;
@@ -36,9 +35,9 @@ public final class BlueprintRenderer extends AbstractCustomRenderer implements I
 
     private final BlueprintsModelBuilder blueprintsModelBuilder;
 
-    public BlueprintRenderer(Supplier<IBlockDataProvider> blockDataProviderSupplier, MinecraftClient client, BlockBufferBuilderStorage blockBufferBuilderStorage) {
+    public BlueprintRenderer(Supplier<IBlockDataProvider> blockDataProviderSupplier, MinecraftClient client) {
         super(client);
-        blueprintsModelBuilder  = new BlueprintsModelBuilder(blockBufferBuilderStorage, blockDataProviderSupplier);
+        blueprintsModelBuilder  = new BlueprintsModelBuilder(blockDataProviderSupplier);
     }
 
     @Override
@@ -235,9 +234,10 @@ public final class BlueprintRenderer extends AbstractCustomRenderer implements I
                 chunkOffset.upload();
             }
 
-            final VertexBuffer buffer = builtBlueprint.getBuffer(renderLayer);
-            buffer.bind();
-            buffer.draw();
+            for (VertexBuffer buffer : builtBlueprint.getBuffers(renderLayer)) {
+                buffer.bind();
+                buffer.draw();
+            }
         }
 
         if(chunkOffset != null) chunkOffset.set(new Vector3f());
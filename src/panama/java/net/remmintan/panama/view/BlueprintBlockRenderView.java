@@ -4,27 +4,31 @@ import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.biome.ColorResolver;
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.BlueprintDataLayer;
+import net.remmintan.mods.minefortress.core.interfaces.blueprints.IStructureBlockData;
 
-import java.util.Map;
 import java.util.function.BiFunction;
 
 public class BlueprintBlockRenderView extends AbstractCustomBlockRenderView {
 
-    private final Map<BlockPos, BlockState> blueprintData;
+    private final IStructureBlockData blueprintData;
+    private final int height;
 
-    public BlueprintBlockRenderView(Map<BlockPos, BlockState> blueprintData, BiFunction<BlockState, ColorResolver, Integer> colorProvider) {
+    public BlueprintBlockRenderView(IStructureBlockData blueprintData, int height, BiFunction<BlockState, ColorResolver, Integer> colorProvider) {
         super(colorProvider);
         this.blueprintData = blueprintData;
+        this.height = height;
     }
 
     @Override
     public BlockState getBlockState(BlockPos pos) {
-        return this.blueprintData.getOrDefault(pos, Blocks.AIR.getDefaultState());
+        final var state = this.blueprintData.getBlockState(BlueprintDataLayer.GENERAL, pos.getX(), pos.getY(), pos.getZ());
+        return state == null ? Blocks.AIR.getDefaultState() : state;
     }
 
     @Override
     public int getHeight() {
-        return 16;
+        return height;
     }
 
 }
@@ -0,0 +1,70 @@
+package net.remmintan.mods.minefortress.core.dtos.buildings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlueprintManifestDiffTest {
+
+    @Test
+    void sortsEntriesByChange() {
+        final var synced = Map.of(
+                "small_house", "aaaa",
+                "farm", "bbbb",
+                "old_tower", "cccc"
+        );
+        final var manifest = new LinkedHashMap<String, String>();
+        manifest.put("small_house", "aaaa");
+        manifest.put("farm", "dddd");
+        manifest.put("well", "eeee");
+
+        final var diff = BlueprintManifestDiff.of(synced, manifest);
+
+        assertEquals(List.of("well"), diff.getAdded());
+        assertEquals(List.of("farm"), diff.getChanged());
+        assertEquals(List.of("small_house"), diff.getUnchanged());
+        assertEquals(List.of("old_tower"), diff.getRemoved());
+    }
+
+    @Test
+    void everythingIsAddedOnFirstSync() {
+        final var manifest = new LinkedHashMap<String, String>();
+        manifest.put("small_house", "aaaa");
+        manifest.put("farm", "bbbb");
+
+        final var diff = BlueprintManifestDiff.of(Map.of(), manifest);
+
+        assertEquals(List.of("small_house", "farm"), diff.getAdded());
+        assertTrue(diff.getChanged().isEmpty());
+        assertTrue(diff.getUnchanged().isEmpty());
+        assertTrue(diff.getRemoved().isEmpty());
+    }
+
+    @Test
+    void everythingIsRemovedByEmptyManifest() {
+        final var diff = BlueprintManifestDiff.of(Map.of("small_house", "aaaa"), Map.of());
+
+        assertTrue(diff.getAdded().isEmpty());
+        assertTrue(diff.getChanged().isEmpty());
+        assertTrue(diff.getUnchanged().isEmpty());
+        assertEquals(List.of("small_house"), diff.getRemoved());
+    }
+
+    @Test
+    void sameManifestChangesNothing() {
+        final var manifest = Map.of("small_house", "aaaa", "farm", "bbbb");
+
+        final var diff = BlueprintManifestDiff.of(manifest, manifest);
+
+        assertTrue(diff.getAdded().isEmpty());
+        assertTrue(diff.getChanged().isEmpty());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertEquals(2, diff.getUnchanged().size());
+    }
+
+}
@@ -0,0 +1,150 @@
+package net.remmintan.mods.minefortress.core.dtos.tasks;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionSetTest {
+
+    // SECTIONS type byte, one section as a single byte var int, the section key
+    private static final int FIRST_SECTION_ENCODING_INDEX = 1 + 1 + Long.BYTES;
+    private static final byte RUNS = 0;
+    private static final byte BITMAP = 1;
+
+    @Test
+    void boxRoundTrip() {
+        final var set = PositionSet.box(new BlockPos(5, 70, -3), new BlockPos(-2, 64, 9));
+
+        final var read = roundTrip(set);
+
+        assertEquals(8 * 7 * 13, read.size());
+        assertEquals(toSet(set), toSet(read));
+        assertTrue(read.contains(new BlockPos(-2, 64, -3)));
+        assertTrue(read.contains(new BlockPos(5, 70, 9)));
+        assertFalse(read.contains(new BlockPos(6, 70, 9)));
+    }
+
+    @Test
+    void sparseSectionIsWrittenAsRuns() {
+        final var positions = List.of(
+                new BlockPos(0, 64, 0),
+                new BlockPos(1, 64, 0),
+                new BlockPos(2, 64, 0),
+                new BlockPos(7, 70, 3),
+                new BlockPos(15, 79, 15)
+        );
+        final var set = PositionSet.of(positions);
+
+        final var buf = write(set);
+        assertEquals(RUNS, buf.getByte(FIRST_SECTION_ENCODING_INDEX));
+
+        final var read = PositionSet.read(buf);
+        assertEquals(0, buf.readableBytes());
+        assertEquals(new HashSet<>(positions), toSet(read));
+        assertEquals(positions.size(), read.size());
+    }
+
+    @Test
+    void fragmentedSectionIsWrittenAsBitmap() {
+        final var builder = new PositionSet.Builder();
+        final var expected = new HashSet<BlockPos>();
+        // a checkerboard has no neighbouring blocks, so the runs would take more space than the bitmap
+        for (int x = 0; x < 16; x++)
+            for (int y = 0; y < 16; y++)
+                for (int z = 0; z < 16; z++)
+                    if ((x + y + z) % 2 == 0) {
+                        builder.add(x, y, z);
+                        expected.add(new BlockPos(x, y, z));
+                    }
+        final var set = builder.build();
+
+        final var buf = write(set);
+        assertEquals(BITMAP, buf.getByte(FIRST_SECTION_ENCODING_INDEX));
+
+        final var read = PositionSet.read(buf);
+        assertEquals(0, buf.readableBytes());
+        assertEquals(expected, toSet(read));
+        assertEquals(expected.size(), read.size());
+    }
+
+    @Test
+    void positionsInSeveralSectionsRoundTrip() {
+        final var positions = List.of(
+                new BlockPos(-1, -1, -1),
+                new BlockPos(-16, 0, 15),
+                new BlockPos(16, 319, -17),
+                new BlockPos(30_000_000, 64, -30_000_000)
+        );
+
+        final var read = roundTrip(PositionSet.of(positions));
+
+        assertEquals(new HashSet<>(positions), toSet(read));
+    }
+
+    @Test
+    void emptyRoundTrip() {
+        final var read = roundTrip(PositionSet.empty());
+
+        assertTrue(read.isEmpty());
+        assertFalse(read.iterator().hasNext());
+    }
+
+    @Test
+    void withoutRemovesPositionsFromBox() {
+        final var set = PositionSet.box(new BlockPos(0, 0, 0), new BlockPos(17, 1, 1));
+        final var removed = PositionSet.of(List.of(
+                new BlockPos(0, 0, 0),
+                new BlockPos(17, 1, 1),
+                new BlockPos(100, 100, 100)
+        ));
+
+        final var remaining = roundTrip(set.without(removed));
+
+        final var expected = toSet(set);
+        expected.remove(new BlockPos(0, 0, 0));
+        expected.remove(new BlockPos(17, 1, 1));
+        assertEquals(expected, toSet(remaining));
+        assertEquals(expected.size(), remaining.size());
+    }
+
+    @Test
+    void withoutDropsEmptiedSections() {
+        final var first = new BlockPos(1, 1, 1);
+        final var second = new BlockPos(20, 1, 1);
+        final var set = PositionSet.of(List.of(first, second));
+
+        final var remaining = set.without(PositionSet.of(List.of(second)));
+
+        assertEquals(Set.of(first), toSet(remaining));
+        assertEquals(Set.of(first), toSet(roundTrip(remaining)));
+        assertTrue(set.without(set).isEmpty());
+        assertSame(set, set.without(PositionSet.empty()));
+    }
+
+    private static PositionSet roundTrip(PositionSet set) {
+        final var buf = write(set);
+        final var read = PositionSet.read(buf);
+        assertEquals(0, buf.readableBytes());
+        return read;
+    }
+
+    private static PacketByteBuf write(PositionSet set) {
+        final var buf = new PacketByteBuf(Unpooled.buffer());
+        set.write(buf);
+        return buf;
+    }
+
+    private static Set<BlockPos> toSet(PositionSet set) {
+        final var result = new HashSet<BlockPos>();
+        set.forEach(result::add);
+        return result;
+    }
+
+}